@@ -0,0 +1,118 @@
+package com.oop.logistics.analysis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides how many texts go into one request, per endpoint and model type.
+ *
+ * Batches are cut by payload size, not by a fixed count: each text costs its length in
+ * characters, capped at what the models actually read (they truncate long articles), so
+ * ten 10 KB news articles and two hundred short comments can weigh the same. After every
+ * request the measured throughput (chars per ms, smoothed) is turned into the char budget
+ * that should take about the target latency, so slow AI models get smaller batches and
+ * fast keyword models bigger ones.
+ *
+ * Thread-safe; concurrent batches all report into the same Sizer.
+ */
+public class AdaptiveBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBatcher.class);
+    private static final double SMOOTHING = 0.3;   // weight of the newest measurement
+    private static final String ANY_MODEL = "*";
+
+    /** Bounds for one endpoint/model. All sizes in characters except maxTexts. */
+    public static final class Limits {
+        public static final Limits DEFAULT = new Limits(256, 6_000, 500, 120_000, 2_048, 3_000);
+
+        final int maxTexts;
+        final int initialChars;
+        final int minChars;
+        final int maxChars;
+        final int charsPerTextCap;
+        final long targetLatencyMillis;
+
+        public Limits(int maxTexts, int initialChars, int minChars, int maxChars, int charsPerTextCap, long targetLatencyMillis) {
+            if (maxTexts < 1 || minChars < 1 || minChars > maxChars || charsPerTextCap < 1 || targetLatencyMillis < 1) {
+                throw new IllegalArgumentException("Invalid batch limits");
+            }
+            this.maxTexts = maxTexts;
+            this.initialChars = Math.max(minChars, Math.min(maxChars, initialChars));
+            this.minChars = minChars;
+            this.maxChars = maxChars;
+            this.charsPerTextCap = charsPerTextCap;
+            this.targetLatencyMillis = targetLatencyMillis;
+        }
+    }
+
+    private final Map<String, Limits> limits = new ConcurrentHashMap<>();
+    private final Map<String, Sizer> sizers = new ConcurrentHashMap<>();
+
+    /**
+     * Overrides the limits for an endpoint, for one model type or for all of them
+     * ({@code modelType == null}). Any learned budget for it starts over.
+     */
+    public void setLimits(String endpoint, String modelType, Limits endpointLimits) {
+        String key = key(endpoint, modelType == null ? ANY_MODEL : modelType);
+        limits.put(key, endpointLimits);
+        if (modelType == null) {
+            sizers.keySet().removeIf(k -> k.startsWith(endpoint + "|"));
+        } else {
+            sizers.remove(key);
+        }
+    }
+
+    public Sizer sizer(String endpoint, String modelType) {
+        return sizers.computeIfAbsent(key(endpoint, modelType), k -> new Sizer(endpoint, modelType, limitsFor(endpoint, modelType)));
+    }
+
+    private Limits limitsFor(String endpoint, String modelType) {
+        Limits specific = limits.get(key(endpoint, modelType));
+        if (specific != null) return specific;
+        return limits.getOrDefault(key(endpoint, ANY_MODEL), Limits.DEFAULT);
+    }
+
+    private static String key(String endpoint, String modelType) {
+        return endpoint + "|" + modelType;
+    }
+
+    /** Live batch budget for one endpoint/model. */
+    public static final class Sizer {
+        private final String name;
+        private final Limits limits;
+        private double charsPerMilli = -1; // unknown until the first measurement
+        private int charBudget;
+
+        Sizer(String endpoint, String modelType, Limits limits) {
+            this.name = endpoint + " [" + modelType + "]";
+            this.limits = limits;
+            this.charBudget = limits.initialChars;
+        }
+
+        public int maxTexts() { return limits.maxTexts; }
+
+        public synchronized int charBudget() { return charBudget; }
+
+        /** What a text weighs in a batch. */
+        public int cost(String text) {
+            return text == null ? 1 : Math.max(1, Math.min(text.length(), limits.charsPerTextCap));
+        }
+
+        /** Feeds back one backend round-trip: total cost of the texts actually sent and how long it took. */
+        public synchronized void record(long chars, long elapsedNanos) {
+            if (chars <= 0) return;
+            double millis = Math.max(1.0, elapsedNanos / 1_000_000.0);
+            double observed = chars / millis;
+            charsPerMilli = charsPerMilli < 0 ? observed : SMOOTHING * observed + (1 - SMOOTHING) * charsPerMilli;
+
+            int next = (int) Math.max(limits.minChars, Math.min(limits.maxChars, charsPerMilli * limits.targetLatencyMillis));
+            if (next != charBudget) {
+                logger.debug("{}: {} chars took {} ms, batch budget {} -> {} chars", name, chars, (long) millis, charBudget, next);
+                charBudget = next;
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.oop.logistics.analysis;
 
+import com.oop.logistics.models.AnalysisRecord;
+import com.oop.logistics.models.SentimentTimeSeries;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface AnalysisAPI {
     String getProviderName();
@@ -20,4 +25,61 @@ public interface AnalysisAPI {
     List<Map<String, Object>> getReliefTimeSeries(List<String> texts, List<String> dates, String modelType, Consumer<Double> onProgress) throws Exception;
     Map<String, Integer> getIntentClassification(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception;
     String testSingleSentiment(String text, String modelType) throws Exception;
-}
\ No newline at end of file
+
+    // --- Streaming variants ---
+    // 'records' is consumed once; 'total' is only used for progress. Each result counts
+    // record.weight times. Providers that can work batch-by-batch override these; the
+    // defaults simply collect the stream into lists.
+
+    default List<Map<String, Object>> getSentimentTimeSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        List<String> texts = new ArrayList<>(), dates = new ArrayList<>();
+        collect(records, texts, dates);
+        return getSentimentTimeSeries(texts, dates, modelType, onProgress);
+    }
+
+    default List<String> getDamageClassification(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        List<String> texts = new ArrayList<>();
+        collect(records, texts, null);
+        return getDamageClassification(texts, modelType, onProgress);
+    }
+
+    default Map<String, Map<String, Double>> getReliefSentiment(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        List<String> texts = new ArrayList<>();
+        collect(records, texts, null);
+        return getReliefSentiment(texts, modelType, onProgress);
+    }
+
+    default List<Map<String, Object>> getReliefTimeSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        List<String> texts = new ArrayList<>(), dates = new ArrayList<>();
+        collect(records, texts, dates);
+        return getReliefTimeSeries(texts, dates, modelType, onProgress);
+    }
+
+    default Map<String, Integer> getIntentClassification(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        List<String> texts = new ArrayList<>();
+        collect(records, texts, null);
+        return getIntentClassification(texts, modelType, onProgress);
+    }
+
+    // --- Typed variants ---
+    // Same results as the time-series methods above, as epoch-day keyed primitive counters.
+    // The defaults convert the maps; providers that build the series directly override these.
+
+    default SentimentTimeSeries getSentimentSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        return SentimentTimeSeries.fromMaps(getSentimentTimeSeries(records, total, modelType, onProgress));
+    }
+
+    default SentimentTimeSeries getReliefSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        return SentimentTimeSeries.fromMaps(getReliefTimeSeries(records, total, modelType, onProgress));
+    }
+
+    // A weighted record is repeated, so list-based providers count it once per row
+    private static void collect(Stream<AnalysisRecord> records, List<String> texts, List<String> dates) {
+        records.forEach(r -> {
+            for (int i = 0; i < r.weight; i++) {
+                texts.add(r.text);
+                if (dates != null) dates.add(r.dateText());
+            }
+        });
+    }
+}
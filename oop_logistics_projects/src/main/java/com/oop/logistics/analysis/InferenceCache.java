@@ -0,0 +1,169 @@
+package com.oop.logistics.analysis;
+
+import com.oop.logistics.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-text model results keyed by (content hash, task, model type, model version).
+ *
+ * An access-ordered LRU map sits in front of the inference_cache table in SQLite, so
+ * results survive restarts and a repeated analysis never goes back to the Python models.
+ * Any database problem is logged and treated as a miss - the cache must never break an analysis.
+ * The model version is the backend's fingerprint of its model files, keyword configs and
+ * service code (python_model/main.py, compute_model_version), so retraining or changing how
+ * texts are labelled starts a fresh set of rows.
+ * Thread-safe.
+ */
+public class InferenceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InferenceCache.class);
+
+    private final Map<Key, String> memory;
+    private volatile boolean persistent = true;
+
+    public InferenceCache(int memoryEntries) {
+        this.memory = new LinkedHashMap<>(Math.min(memoryEntries, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /** Turns the SQLite layer off (memory only), e.g. when no database is configured. */
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+
+    /**
+     * Looks up every hash; the returned array has the cached result at the same index,
+     * or null for a miss. Memory is checked first, the remaining hashes in one SQL query.
+     */
+    public String[] lookup(String task, String modelType, String modelVersion, long[] hashes) {
+        modelType = storedType(modelType);
+        String[] results = new String[hashes.length];
+        int misses = 0;
+        synchronized (memory) {
+            for (int i = 0; i < hashes.length; i++) {
+                results[i] = memory.get(new Key(task, modelType, modelVersion, hashes[i]));
+                if (results[i] == null) misses++;
+            }
+        }
+        if (misses == 0 || !persistent) return results;
+
+        StringBuilder sql = new StringBuilder("SELECT content_hash, result FROM inference_cache WHERE task = ? AND model_type = ? AND model_version = ? AND content_hash IN (");
+        for (int i = 0; i < misses; i++) sql.append(i == 0 ? "?" : ",?");
+        sql.append(')');
+
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            stmt.setString(1, task);
+            stmt.setString(2, modelType);
+            stmt.setString(3, modelVersion);
+            int param = 4;
+            for (int i = 0; i < hashes.length; i++) {
+                if (results[i] == null) stmt.setLong(param++, hashes[i]);
+            }
+
+            Map<Long, String> found = new HashMap<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) found.put(rs.getLong(1), rs.getString(2));
+            }
+            if (found.isEmpty()) return results;
+
+            synchronized (memory) {
+                for (int i = 0; i < hashes.length; i++) {
+                    if (results[i] != null) continue;
+                    results[i] = found.get(hashes[i]);
+                    if (results[i] != null) memory.put(new Key(task, modelType, modelVersion, hashes[i]), results[i]);
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Inference cache lookup failed, treating batch as uncached: {}", e.getMessage());
+        }
+        return results;
+    }
+
+    /** Remembers results[i] for hashes[i], in memory and (in one transaction) in SQLite. */
+    public void store(String task, String modelType, String modelVersion, long[] hashes, String[] results) {
+        modelType = storedType(modelType);
+        synchronized (memory) {
+            for (int i = 0; i < hashes.length; i++) {
+                if (results[i] != null) memory.put(new Key(task, modelType, modelVersion, hashes[i]), results[i]);
+            }
+        }
+        if (!persistent) return;
+
+        String sql = "INSERT OR REPLACE INTO inference_cache(content_hash, task, model_type, model_version, result) VALUES(?,?,?,?,?)";
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < hashes.length; i++) {
+                    if (results[i] == null) continue;
+                    stmt.setLong(1, hashes[i]);
+                    stmt.setString(2, task);
+                    stmt.setString(3, modelType);
+                    stmt.setString(4, modelVersion);
+                    stmt.setString(5, results[i]);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not persist {} inference results: {}", hashes.length, e.getMessage());
+        }
+    }
+
+    /** Drops the in-memory layer (the SQLite table is kept). */
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    // No model type means the backend's default model; model_type is NOT NULL in SQLite
+    private static String storedType(String modelType) {
+        return modelType != null ? modelType : "";
+    }
+
+    private static final class Key {
+        final String task, modelType, modelVersion;
+        final long hash;
+
+        Key(String task, String modelType, String modelVersion, long hash) {
+            this.task = task;
+            this.modelType = modelType;
+            this.modelVersion = modelVersion;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hash == k.hash && Objects.equals(task, k.task) && Objects.equals(modelType, k.modelType)
+                    && Objects.equals(modelVersion, k.modelVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(task, modelType, modelVersion) * 31 + Long.hashCode(hash);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.oop.logistics.analysis;
+
+import com.oop.logistics.config.KeywordManager;
+import com.oop.logistics.models.AnalysisRecord;
+import com.oop.logistics.models.SentimentTimeSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The "keyword" model type, run in-process instead of on the FastAPI backend.
+ *
+ * Each file of "external config" (sentiment, damage, relief, intent) is compiled into one
+ * Aho-Corasick automaton, and texts are labelled in parallel chunks on the common pool.
+ * The rules are the ones of the Python keyword paths, so results match the backend:
+ *   sentiment - +1 per positive entry found, -1 per negative entry, sign decides
+ *   damage    - first category (file order) with a keyword in the text, else "Other"
+ *   relief    - every category with a keyword in the text, else "Other"
+ *   intent    - first label with a (non-blank) keyword, else General News -> Request/Offer/News
+ * Works with the backend offline. The files are re-read when one of them changes on disk,
+ * so keywords added from the contribution screen apply to the next analysis.
+ */
+public class KeywordAnalysisClient implements AnalysisAPI {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeywordAnalysisClient.class);
+    private static final int CHUNK_SIZE = 4096; // records labelled in parallel at a time
+    private static final String[] FILES = {"sentiment_keywords.json", "damage_keywords.json", "relief_keywords.json", "intent_keywords.json"};
+    private static final String DEFAULT_INTENT = "Tin tức chung (General News/Info)";
+    private static final String OTHER = "Other";
+
+    private volatile Dictionaries dictionaries;
+
+    @Override
+    public String getProviderName() { return "In-process Keyword Matcher"; }
+
+    @Override
+    public String getConfiguration() { return "Keywords: " + new File(KeywordManager.resolveConfigPath(FILES[0])).getParent(); }
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            dictionaries();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // --- Per-text rules ---
+
+    public String sentiment(String text) throws IOException { return sentiment(dictionaries(), text); }
+
+    public String damage(String text) throws IOException { return damage(dictionaries(), text); }
+
+    public List<String> reliefCategories(String text) throws IOException { return reliefCategories(dictionaries(), text); }
+
+    /** Request, Offer or News. */
+    public String intent(String text) throws IOException { return intent(dictionaries(), text); }
+
+    private static String sentiment(Dictionaries d, String text) {
+        int[] hits = d.sentiment.hits(lower(text));
+        int score = hit(hits, d.positive) - hit(hits, d.negative);
+        return score > 0 ? "positive" : score < 0 ? "negative" : "neutral";
+    }
+
+    private static String damage(Dictionaries d, String text) {
+        int[] hits = d.damage.hits(lower(text));
+        for (int g = 0; g < hits.length; g++) {
+            if (hits[g] > 0) return d.damage.groups().get(g);
+        }
+        return OTHER;
+    }
+
+    private static List<String> reliefCategories(Dictionaries d, String text) {
+        if (text == null || text.isEmpty()) return List.of(OTHER);
+        int[] hits = d.relief.hits(lower(text));
+        List<String> categories = new ArrayList<>(2);
+        for (int g = 0; g < hits.length; g++) {
+            if (hits[g] > 0) categories.add(d.relief.groups().get(g));
+        }
+        return categories.isEmpty() ? List.of(OTHER) : categories;
+    }
+
+    private static String intent(Dictionaries d, String text) {
+        int[] hits = d.intent.hits(lower(text));
+        String label = DEFAULT_INTENT;
+        for (int g = 0; g < hits.length; g++) {
+            if (hits[g] > 0) {
+                label = d.intent.groups().get(g);
+                break;
+            }
+        }
+        if (label.contains("Request")) return "Request";
+        if (label.contains("Offer")) return "Offer";
+        return "News";
+    }
+
+    /** Relief categories plus the text's sentiment index. */
+    private static final class Relief {
+        final List<String> categories;
+        final int sentiment;
+
+        Relief(Dictionaries d, String text) {
+            this.categories = reliefCategories(d, text);
+            this.sentiment = SentimentTimeSeries.sentimentIndex(sentiment(d, text));
+        }
+    }
+
+    // --- Problem 1: Sentiment Time Series ---
+    @Override
+    public List<Map<String, Object>> getSentimentTimeSeries(List<String> texts, List<String> dates, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateInputs(texts);
+        return getSentimentTimeSeries(AnalysisRecord.stream(texts, dates), texts.size(), modelType, onProgress);
+    }
+
+    @Override
+    public List<Map<String, Object>> getSentimentTimeSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        return getSentimentSeries(records, total, modelType, onProgress).toMaps();
+    }
+
+    @Override
+    public SentimentTimeSeries getSentimentSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        SentimentTimeSeries.Builder series = new SentimentTimeSeries.Builder();
+        process(records.iterator(), total, onProgress, KeywordAnalysisClient::sentiment,
+                (record, sentiment) -> series.add(record, null, sentiment, record.weight));
+        return series.build();
+    }
+
+    // --- Problem 2: Damage Classification ---
+    @Override
+    public List<String> getDamageClassification(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateInputs(texts);
+        return getDamageClassification(AnalysisRecord.stream(texts, null), texts.size(), modelType, onProgress);
+    }
+
+    @Override
+    public List<String> getDamageClassification(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        List<String> results = new ArrayList<>(Math.max(total, 0));
+        // One label per stored row, so a weighted record adds its label weight times
+        process(records.iterator(), total, onProgress, KeywordAnalysisClient::damage,
+                (record, damage) -> results.addAll(Collections.nCopies(record.weight, damage)));
+        return results;
+    }
+
+    // --- Problem 3: Relief Sentiment ---
+    @Override
+    public Map<String, Map<String, Double>> getReliefSentiment(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateInputs(texts);
+        return getReliefSentiment(AnalysisRecord.stream(texts, null), texts.size(), modelType, onProgress);
+    }
+
+    @Override
+    public Map<String, Map<String, Double>> getReliefSentiment(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        Map<String, long[]> counters = new HashMap<>();
+        process(records.iterator(), total, onProgress, Relief::new, (record, relief) -> {
+            for (String category : relief.categories) {
+                counters.computeIfAbsent(category, k -> new long[3])[relief.sentiment] += record.weight;
+            }
+        });
+
+        Map<String, Map<String, Double>> finalStats = new HashMap<>();
+        counters.forEach((category, counts) -> finalStats.put(category, new HashMap<>(Map.of(
+                "positive", (double) counts[SentimentTimeSeries.POSITIVE],
+                "negative", (double) counts[SentimentTimeSeries.NEGATIVE],
+                "neutral", (double) counts[SentimentTimeSeries.NEUTRAL]))));
+        return finalStats;
+    }
+
+    // --- Problem 4: Relief Time Series ---
+    @Override
+    public List<Map<String, Object>> getReliefTimeSeries(List<String> texts, List<String> dates, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateInputs(texts);
+        return getReliefTimeSeries(AnalysisRecord.stream(texts, dates), texts.size(), modelType, onProgress);
+    }
+
+    @Override
+    public List<Map<String, Object>> getReliefTimeSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        return getReliefSeries(records, total, modelType, onProgress).toMaps();
+    }
+
+    @Override
+    public SentimentTimeSeries getReliefSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        SentimentTimeSeries.Builder series = new SentimentTimeSeries.Builder();
+        process(records.iterator(), total, onProgress, Relief::new, (record, relief) -> {
+            for (String category : relief.categories) {
+                series.add(record, category, relief.sentiment, record.weight);
+            }
+        });
+        return series.build();
+    }
+
+    // --- Problem 5: Intent Classification ---
+    @Override
+    public Map<String, Integer> getIntentClassification(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateInputs(texts);
+        return getIntentClassification(AnalysisRecord.stream(texts, null), texts.size(), modelType, onProgress);
+    }
+
+    @Override
+    public Map<String, Integer> getIntentClassification(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        Map<String, Integer> finalStats = new HashMap<>(Map.of("Request", 0, "Offer", 0, "News", 0));
+        process(records.iterator(), total, onProgress, KeywordAnalysisClient::intent, (record, intent) -> finalStats.merge(intent, record.weight, Integer::sum));
+        return finalStats;
+    }
+
+    @Override
+    public String testSingleSentiment(String text, String modelType) throws Exception {
+        return sentiment(text);
+    }
+
+    // --- HELPERS ---
+
+    /**
+     * Labels the records CHUNK_SIZE at a time: each chunk in parallel on the common pool,
+     * then merged on this thread in input order (so list results line up with the input and
+     * the accumulators need no locking). The iterator is only touched by this thread.
+     */
+    private <L> void process(Iterator<AnalysisRecord> records, int total, Consumer<Double> onProgress,
+                             BiFunction<Dictionaries, String, L> labeler, BiConsumer<AnalysisRecord, L> merge) throws Exception {
+        if (total <= 0) throw new RuntimeException("No texts to analyze");
+        Dictionaries d = dictionaries(); // one snapshot for the whole run
+
+        AnalysisRecord[] chunk = new AnalysisRecord[CHUNK_SIZE];
+        List<L> labels = new ArrayList<>(CHUNK_SIZE);
+        int done = 0;
+        while (records.hasNext()) {
+            int size = 0;
+            while (size < CHUNK_SIZE && records.hasNext()) chunk[size++] = records.next();
+
+            AnalysisRecord[] current = chunk;
+            labels.clear();
+            IntStream.range(0, size).parallel().mapToObj(i -> labeler.apply(d, current[i].text)).forEachOrdered(labels::add);
+            for (int i = 0; i < size; i++) merge.accept(chunk[i], labels.get(i));
+
+            done += size;
+            if (onProgress != null) onProgress.accept(Math.min(1.0, (double) done / total));
+        }
+        logger.debug("Keyword analysis labelled {} texts in-process", done);
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static int hit(int[] hits, int group) {
+        return group >= 0 ? hits[group] : 0;
+    }
+
+    private void validateInputs(List<String> texts) {
+        if (texts == null || texts.isEmpty()) throw new RuntimeException("No texts to analyze");
+    }
+
+    /** Current dictionaries, recompiled when a keyword file was modified since the last load. */
+    private Dictionaries dictionaries() throws IOException {
+        long[] stamps = new long[FILES.length];
+        for (int f = 0; f < FILES.length; f++) stamps[f] = new File(KeywordManager.resolveConfigPath(FILES[f])).lastModified();
+
+        Dictionaries current = dictionaries;
+        if (current != null && Arrays.equals(current.stamps, stamps)) return current;
+        synchronized (this) {
+            current = dictionaries;
+            if (current != null && Arrays.equals(current.stamps, stamps)) return current;
+            dictionaries = current = new Dictionaries(stamps);
+            logger.info("Compiled keyword dictionaries from {}", getConfiguration());
+            return current;
+        }
+    }
+
+    /** The four compiled keyword files, swapped as a whole on reload. */
+    private static final class Dictionaries {
+        final long[] stamps;
+        final KeywordDictionary sentiment, damage, relief, intent;
+        final int positive, negative;
+
+        Dictionaries(long[] stamps) throws IOException {
+            this.stamps = stamps;
+            sentiment = load(FILES[0], false);
+            damage = load(FILES[1], false);
+            relief = load(FILES[2], false);
+            intent = load(FILES[3], true);
+            positive = sentiment.indexOf("positive");
+            negative = sentiment.indexOf("negative");
+        }
+
+        private static KeywordDictionary load(String fileName, boolean skipBlank) throws IOException {
+            KeywordManager manager = new KeywordManager();
+            manager.loadFromJson(KeywordManager.resolveConfigPath(fileName));
+            return new KeywordDictionary(manager.getAllKeywords(), skipBlank);
+        }
+    }
+}
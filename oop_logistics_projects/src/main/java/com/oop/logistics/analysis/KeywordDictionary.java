@@ -0,0 +1,65 @@
+package com.oop.logistics.analysis;
+
+import com.oop.logistics.preprocessing.KeywordAutomaton;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One keyword file ({"group": ["keyword", ...], ...}) compiled into a single automaton.
+ *
+ * {@link #hits} answers, per group, how many of its list entries occur in a text - exactly
+ * what the Python services compute with one `kw in text` per entry, a keyword listed twice
+ * still counting twice - but with one pass over the text for the whole file.
+ */
+final class KeywordDictionary {
+
+    private final List<String> groups;
+    private final KeywordAutomaton automaton;
+    private final int[][] groupsOfKeyword; // distinct keyword -> group of every list entry
+
+    /** @param skipBlank drop blank keywords (intent does, the other services let "" match everything) */
+    KeywordDictionary(Map<String, List<String>> keywords, boolean skipBlank) {
+        groups = new ArrayList<>(keywords.keySet());
+        List<String> distinct = new ArrayList<>();
+        Map<String, List<Integer>> entries = new HashMap<>();
+        for (int g = 0; g < groups.size(); g++) {
+            List<String> list = keywords.get(groups.get(g));
+            if (list == null) continue;
+            for (String keyword : list) {
+                if (keyword == null || (skipBlank && keyword.isBlank())) continue;
+                List<Integer> owners = entries.get(keyword);
+                if (owners == null) {
+                    owners = new ArrayList<>();
+                    entries.put(keyword, owners);
+                    distinct.add(keyword);
+                }
+                owners.add(g);
+            }
+        }
+        automaton = new KeywordAutomaton(distinct);
+        groupsOfKeyword = new int[distinct.size()][];
+        for (int k = 0; k < distinct.size(); k++) {
+            groupsOfKeyword[k] = entries.get(distinct.get(k)).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /** Group names in file order. */
+    List<String> groups() { return groups; }
+
+    int indexOf(String group) { return groups.indexOf(group); }
+
+    /** Number of list entries of each group (file order) that occur in the text. */
+    int[] hits(String text) {
+        boolean[] present = new boolean[groupsOfKeyword.length];
+        automaton.markPresent(text, present);
+        int[] hits = new int[groups.size()];
+        for (int k = 0; k < present.length; k++) {
+            if (!present[k]) continue;
+            for (int g : groupsOfKeyword[k]) hits[g]++;
+        }
+        return hits;
+    }
+}
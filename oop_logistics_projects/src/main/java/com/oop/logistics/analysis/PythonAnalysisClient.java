@@ -2,31 +2,60 @@ package com.oop.logistics.analysis;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.oop.logistics.models.AnalysisRecord;
 import com.oop.logistics.models.AnalysisRequest;
+import com.oop.logistics.models.SentimentTimeSeries;
+import com.oop.logistics.models.TextCorpus;
+import com.oop.logistics.preprocessing.ContentHash;
 
 public class PythonAnalysisClient implements AnalysisAPI { 
     
     private final String apiUrl;
     private final HttpClient httpClient;
     private final Gson gson;
-    private static final int BATCH_SIZE = 50; 
+    private final InferenceCache cache;
+    private volatile String lastModelVersion; // reused while the backend is unreachable
+    private volatile int maxInFlightBatches = DEFAULT_IN_FLIGHT_BATCHES;
+    private final AdaptiveBatcher batcher = new AdaptiveBatcher();
+    private final Queue<RequestBuffer> requestBuffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+    private static final int CACHE_MEMORY_ENTRIES = 50_000;
+    private static final int DEFAULT_IN_FLIGHT_BATCHES = 4;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int MAX_POOLED_BUFFER_BYTES = 4 * 1024 * 1024;
     private static final Logger logger = LoggerFactory.getLogger(PythonAnalysisClient.class); // <-- ADD THIS
     public PythonAnalysisClient(String apiUrl) {
+        this(apiUrl, new InferenceCache(CACHE_MEMORY_ENTRIES));
+    }
+
+    public PythonAnalysisClient(String apiUrl, InferenceCache cache) {
         this.apiUrl = apiUrl;
+        this.cache = cache;
         this.httpClient = HttpClient.newBuilder()
             .version(HttpClient.Version.HTTP_1_1)
             .connectTimeout(Duration.ofSeconds(60))
@@ -34,6 +63,26 @@ public class PythonAnalysisClient implements AnalysisAPI {
         this.gson = new Gson();
     }
 
+    /**
+     * How many batches may be waiting on the backend at once (default 4, roughly one per
+     * uvicorn worker). 1 restores the old strictly sequential behaviour.
+     */
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        if (maxInFlightBatches < 1) throw new IllegalArgumentException("maxInFlightBatches must be at least 1");
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public int getMaxInFlightBatches() { return maxInFlightBatches; }
+
+    /**
+     * Batch size limits for one endpoint (e.g. "/labels/sentiment") and model type, or for
+     * every model type of the endpoint when modelType is null. Batches are otherwise sized
+     * by AdaptiveBatcher.Limits.DEFAULT and tuned from measured response times.
+     */
+    public void setBatchLimits(String endpoint, String modelType, AdaptiveBatcher.Limits limits) {
+        batcher.setLimits(endpoint, modelType, limits);
+    }
+
     @Override
     public String getProviderName() { return "Python FastAPI Backend"; }
     @Override
@@ -50,53 +99,48 @@ public class PythonAnalysisClient implements AnalysisAPI {
     @Override
     public List<Map<String, Object>> getSentimentTimeSeries(List<String> texts, List<String> dates, String modelType, Consumer<Double> onProgress) throws Exception {
         validateInputs(texts);
-        List<Map<String, Object>> aggregatedResults = new ArrayList<>();
-        Map<String, Map<String, Double>> tempMap = new HashMap<>(); 
+        return getSentimentTimeSeries(AnalysisRecord.stream(texts, dates), texts.size(), modelType, onProgress);
+    }
 
-        processBatches(texts, dates, modelType, onProgress, (batchTexts, batchDates, type) -> {
-            try {
-                AnalysisRequest req = new AnalysisRequest(batchTexts, batchDates);
-                req.setModelType(type);
-                String response = sendPost("/analyze/sentiment_timeseries", req);
-                List<Map<String, Object>> batchResult = gson.fromJson(response, new TypeToken<ArrayList<Map<String, Object>>>(){}.getType());
-                
-                for (Map<String, Object> entry : batchResult) {
-                    String date = (String) entry.get("date");
-                    if (date == null) continue;
-                    
-                    tempMap.putIfAbsent(date, new HashMap<>(Map.of("positive", 0.0, "negative", 0.0, "neutral", 0.0)));
-                    Map<String, Double> current = tempMap.get(date);
-                    mergeCounts(current, entry);
-                }
-            } catch (Exception e) { throw new RuntimeException(e); }
-        });
+    @Override
+    public List<Map<String, Object>> getSentimentTimeSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        return getSentimentSeries(records, total, modelType, onProgress).toMaps();
+    }
 
-        for (String date : tempMap.keySet()) {
-            Map<String, Object> entry = new HashMap<>();
-            entry.put("date", date);
-            entry.putAll(tempMap.get(date));
-            aggregatedResults.add(entry);
-        }
-        
-        aggregatedResults.sort((m1, m2) -> compareDates((String) m1.get("date"), (String) m2.get("date")));
-        return aggregatedResults;
+    @Override
+    public SentimentTimeSeries getSentimentSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateTotal(total);
+        SentimentTimeSeries.Builder series = new SentimentTimeSeries.Builder();
+        String version = fetchModelVersion();
+
+        processBatches(records.iterator(), total, true, modelType, onProgress, "sentiment", "/labels/sentiment", version, (batchRecords, batchWeights, sentiments) -> {
+            for (int i = 0; i < sentiments.length; i++) {
+                series.add(batchRecords.get(i), null, sentiments[i], batchWeights.get(i));
+            }
+        });
+        return series.build();
     }
 
     // --- Problem 2: Damage Classification ---
     @Override
     public List<String> getDamageClassification(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception {
         validateInputs(texts);
-        List<String> allResults = new ArrayList<>();
+        return getDamageClassification(AnalysisRecord.stream(texts, null), texts.size(), modelType, onProgress);
+    }
 
-        processBatches(texts, null, modelType, onProgress, (batchTexts, batchDates, type) -> {
-            try {
-                AnalysisRequest req = new AnalysisRequest(batchTexts, null);
-                req.setModelType(type);
-                String response = sendPost("/analyze/damage", req);
-                List<String> batchResult = gson.fromJson(response, new TypeToken<ArrayList<String>>(){}.getType());
-                allResults.addAll(batchResult);
-            } catch (Exception e) { throw new RuntimeException(e); }
-        });
+    @Override
+    public List<String> getDamageClassification(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateTotal(total);
+        List<String> allResults = new ArrayList<>();
+        String version = fetchModelVersion();
+
+        // The damage endpoint already answers with one label per text; batches are merged
+        // in input order, so the list lines up with the input even with concurrent dispatch
+        processBatches(records.iterator(), total, false, modelType, onProgress, "damage", "/analyze/damage", version,
+                (batchRecords, batchWeights, damages) -> {
+                    // One label per stored row: a weighted record repeats its label
+                    for (int i = 0; i < damages.length; i++) allResults.addAll(Collections.nCopies(batchWeights.get(i), damages[i]));
+                });
         return allResults;
     }
 
@@ -104,23 +148,33 @@ public class PythonAnalysisClient implements AnalysisAPI {
     @Override
     public Map<String, Map<String, Double>> getReliefSentiment(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception {
         validateInputs(texts);
-        Map<String, Map<String, Double>> finalStats = new HashMap<>();
+        return getReliefSentiment(AnalysisRecord.stream(texts, null), texts.size(), modelType, onProgress);
+    }
 
-        processBatches(texts, null, modelType, onProgress, (batchTexts, batchDates, type) -> {
-            try {
-                AnalysisRequest req = new AnalysisRequest(batchTexts, null);
-                req.setModelType(type);
-                String response = sendPost("/analyze/relief_sentiment", req);
-                Map<String, Map<String, Double>> batchResult = gson.fromJson(response, new TypeToken<Map<String, Map<String, Double>>>(){}.getType());
-
-                for (String category : batchResult.keySet()) {
-                    finalStats.putIfAbsent(category, new HashMap<>(Map.of("positive", 0.0, "negative", 0.0, "neutral", 0.0)));
-                    Map<String, Double> current = finalStats.get(category);
-                    Map<String, Double> incoming = batchResult.get(category);
-                    incoming.forEach((senti, val) -> current.merge(senti, val, Double::sum));
+    @Override
+    public Map<String, Map<String, Double>> getReliefSentiment(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateTotal(total);
+        // category -> positive/negative/neutral counters, boxed only for the result
+        Map<String, long[]> counters = new HashMap<>();
+        String version = fetchModelVersion();
+
+        processBatches(records.iterator(), total, false, modelType, onProgress, "relief_sentiment", "/labels/relief_sentiment", version, (batchRecords, batchWeights, labels) -> {
+            for (int i = 0; i < labels.length; i++) {
+                // label = sentiment \t category \t category ...
+                String[] parts = labels[i].split("\t");
+                int sentiment = SentimentTimeSeries.sentimentIndex(parts[0]);
+                if (sentiment < 0) continue;
+                for (int c = 1; c < parts.length; c++) {
+                    counters.computeIfAbsent(parts[c], k -> new long[3])[sentiment] += batchWeights.get(i);
                 }
-            } catch (Exception e) { throw new RuntimeException(e); }
+            }
         });
+
+        Map<String, Map<String, Double>> finalStats = new HashMap<>();
+        counters.forEach((category, counts) -> finalStats.put(category, new HashMap<>(Map.of(
+                "positive", (double) counts[SentimentTimeSeries.POSITIVE],
+                "negative", (double) counts[SentimentTimeSeries.NEGATIVE],
+                "neutral", (double) counts[SentimentTimeSeries.NEUTRAL]))));
         return finalStats;
     }
 
@@ -128,107 +182,341 @@ public class PythonAnalysisClient implements AnalysisAPI {
     @Override
     public List<Map<String, Object>> getReliefTimeSeries(List<String> texts, List<String> dates, String modelType, Consumer<Double> onProgress) throws Exception {
         validateInputs(texts);
-        List<Map<String, Object>> aggregatedResults = new ArrayList<>();
-        
-        // Nested Map: Date -> (Category -> Stats)
-        // This avoids string splitting issues entirely
-        Map<String, Map<String, Map<String, Double>>> tempMap = new HashMap<>(); 
+        return getReliefTimeSeries(AnalysisRecord.stream(texts, dates), texts.size(), modelType, onProgress);
+    }
 
-        processBatches(texts, dates, modelType, onProgress, (batchTexts, batchDates, type) -> {
-            try {
-                AnalysisRequest req = new AnalysisRequest(batchTexts, batchDates);
-                req.setModelType(type);
-                String response = sendPost("/analyze/relief_timeseries", req);
-                List<Map<String, Object>> batchResult = gson.fromJson(response, new TypeToken<ArrayList<Map<String, Object>>>(){}.getType());
-
-                for (Map<String, Object> entry : batchResult) {
-                    String date = (String) entry.get("date");
-                    String category = (String) entry.get("category");
-                    
-                    if (date == null || category == null) continue;
-
-                    // Create Date entry if missing
-                    tempMap.putIfAbsent(date, new HashMap<>());
-                    Map<String, Map<String, Double>> dateEntry = tempMap.get(date);
-
-                    // Create Category entry if missing
-                    dateEntry.putIfAbsent(category, new HashMap<>(Map.of("positive", 0.0, "negative", 0.0, "neutral", 0.0)));
-                    
-                    // Merge stats
-                    mergeCounts(dateEntry.get(category), entry);
+    @Override
+    public List<Map<String, Object>> getReliefTimeSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        return getReliefSeries(records, total, modelType, onProgress).toMaps();
+    }
+
+    @Override
+    public SentimentTimeSeries getReliefSeries(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateTotal(total);
+        SentimentTimeSeries.Builder series = new SentimentTimeSeries.Builder();
+        String version = fetchModelVersion();
+
+        processBatches(records.iterator(), total, true, modelType, onProgress, "relief_timeseries", "/labels/relief_timeseries", version, (batchRecords, batchWeights, labels) -> {
+            for (int i = 0; i < labels.length; i++) {
+                AnalysisRecord record = batchRecords.get(i);
+                if (record.day == TextCorpus.NO_DATE && record.date == null) continue;
+                // Each category of the text counts the text's sentiment once
+                String[] parts = labels[i].split("\t");
+                for (int c = 1; c < parts.length; c++) {
+                    series.add(record, parts[c], parts[0], batchWeights.get(i));
                 }
-            } catch (Exception e) { throw new RuntimeException(e); }
+            }
         });
+        return series.build();
+    }
+
+    // --- HELPERS ---
+
+    /**
+     * One result per text for the given task. Texts already analysed with this model type and
+     * model version come from the InferenceCache; only the misses (each distinct text once)
+     * are sent to the backend, and their results are stored for next time.
+     */
+    private String[] labels(String task, String endpoint, List<String> texts, String type, String version) throws Exception {
+        long[] hashes = new long[texts.size()];
+        for (int i = 0; i < hashes.length; i++) hashes[i] = ContentHash.exact(texts.get(i));
+
+        String[] results = version != null ? cache.lookup(task, type, version, hashes) : new String[hashes.length];
+
+        // Distinct missing texts, in first-seen order
+        Map<Long, Integer> missing = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) missing.putIfAbsent(hashes[i], i);
+        }
+        logger.debug("{}: {} of {} texts served from cache", task, results.length - countMissing(results), results.length);
+        if (missing.isEmpty()) return results;
+
+        List<String> missTexts = new ArrayList<>(missing.size());
+        for (int index : missing.values()) missTexts.add(texts.get(index));
+
+        AdaptiveBatcher.Sizer sizer = batcher.sizer(endpoint, type);
+        long cost = 0;
+        for (String text : missTexts) cost += sizer.cost(text);
+
+        AnalysisRequest req = new AnalysisRequest(missTexts, null);
+        req.setModelType(type);
+        // Only real backend round-trips tune the batch size, cache hits would skew it
+        long sent = System.nanoTime();
+        String[] missResults = postLabels(endpoint, req);
+        sizer.record(cost, System.nanoTime() - sent);
+
+        long[] missHashes = new long[missing.size()];
+        int m = 0;
+        for (long hash : missing.keySet()) missHashes[m++] = hash;
+        if (version != null) cache.store(task, type, version, missHashes, missResults);
+
+        Map<Long, String> byHash = new HashMap<>();
+        for (int i = 0; i < missHashes.length; i++) byHash.put(missHashes[i], missResults[i]);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) results[i] = byHash.get(hashes[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Posts one batch to a labelling endpoint without building JSON strings: the request is
+     * written with a JsonWriter into a pooled byte buffer that the body publisher sends as is,
+     * and the response array is read token by token straight off the socket into one label
+     * per text. No request String, response String or JsonElement tree is ever built.
+     *
+     * The publisher wraps the buffer without copying, so it goes back to the pool only once the
+     * whole response has been read - the exchange is over then. A failed exchange (timeout,
+     * broken connection) may still be sending it: that buffer is dropped, not reused.
+     */
+    private String[] postLabels(String endpoint, AnalysisRequest req) throws Exception {
+        logger.info("Preparing to send {} texts to Python backend at endpoint: {}", req.getTexts().size(), endpoint);
+
+        RequestBuffer buffer = borrowBuffer();
+        boolean exchangeDone = false;
+        try {
+            try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+                writer.beginObject();
+                writer.name("texts").beginArray();
+                for (String text : req.getTexts()) writer.value(text);
+                writer.endArray();
+                if (req.getDates() != null) {
+                    writer.name("dates").beginArray();
+                    for (String date : req.getDates()) writer.value(date);
+                    writer.endArray();
+                }
+                writer.name("model_type").value(req.getModelType());
+                writer.endObject();
+            }
 
-        // Flatten logic
-        for (String date : tempMap.keySet()) {
-            Map<String, Map<String, Double>> cats = tempMap.get(date);
-            for (String category : cats.keySet()) {
-                Map<String, Object> flatEntry = new HashMap<>();
-                flatEntry.put("date", date);
-                flatEntry.put("category", category);
-                flatEntry.putAll(cats.get(category));
-                aggregatedResults.add(flatEntry);
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(apiUrl + endpoint))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(buffer.array(), 0, buffer.size()))
+                    .build();
+
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    String error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                    exchangeDone = true;
+                    logger.error("API Error at {}. Status: {}. Response: {}", endpoint, response.statusCode(), error);
+                    throw new RuntimeException("API Error (" + response.statusCode() + "): " + error);
+                }
+                String[] labels = readLabels(new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8)), req.getTexts().size(), endpoint);
+                exchangeDone = true;
+                logger.info("Successfully received response from {}", endpoint);
+                return labels;
             }
+        } catch (java.net.ConnectException e) {
+            logger.error("Failed to connect to Python backend at {}. Is the Uvicorn server running?", apiUrl + endpoint, e);
+            throw e;
+        } finally {
+            if (exchangeDone) releaseBuffer(buffer);
+        }
+    }
+
+    /** Reads a JSON array of exactly `expected` labels. */
+    private static String[] readLabels(JsonReader reader, int expected, String endpoint) throws IOException {
+        String[] labels = new String[expected];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == expected) throw new RuntimeException("Backend returned more than " + expected + " results at " + endpoint);
+            labels[count++] = readLabel(reader);
+        }
+        reader.endArray();
+        if (count != expected) {
+            throw new RuntimeException("Backend returned " + count + " results for " + expected + " texts at " + endpoint);
         }
+        return labels;
+    }
 
-        // Sort chronologically
-        aggregatedResults.sort((m1, m2) -> compareDates((String) m1.get("date"), (String) m2.get("date")));
+    /** Plain labels stay as they are; relief results become "sentiment\tcategory\tcategory...". */
+    private static String readLabel(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) return reader.nextString();
+
+        String sentiment = null;
+        StringBuilder categories = new StringBuilder();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "sentiment" -> sentiment = reader.nextString();
+                case "categories" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) categories.append('\t').append(reader.nextString());
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (sentiment == null) throw new RuntimeException("Relief result without a sentiment");
+        return sentiment + categories;
+    }
 
-        return aggregatedResults;
+    /** ByteArrayOutputStream whose backing array can be handed to the body publisher without a copy. */
+    private static final class RequestBuffer extends ByteArrayOutputStream {
+        RequestBuffer() { super(64 * 1024); }
+        byte[] array() { return buf; }
+        int capacity() { return buf.length; }
     }
 
-    // --- HELPERS ---
+    private RequestBuffer borrowBuffer() {
+        RequestBuffer buffer = requestBuffers.poll();
+        return buffer != null ? buffer : new RequestBuffer();
+    }
 
-    private void mergeCounts(Map<String, Double> target, Map<String, Object> source) {
-        target.put("positive", target.get("positive") + ((Number) source.get("positive")).doubleValue());
-        target.put("negative", target.get("negative") + ((Number) source.get("negative")).doubleValue());
-        target.put("neutral",  target.get("neutral")  + ((Number) source.get("neutral")).doubleValue());
+    /** Keeps a handful of buffers for reuse; oversized ones (a batch of huge articles) are let go. */
+    private void releaseBuffer(RequestBuffer buffer) {
+        if (buffer.capacity() > MAX_POOLED_BUFFER_BYTES) return;
+        buffer.reset();
+        requestBuffers.offer(buffer);
     }
 
-    private int compareDates(String d1, String d2) {
-        if (d1 == null) return -1;
-        if (d2 == null) return 1;
-        
-        DateTimeFormatter fmtVN = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        DateTimeFormatter fmtISO = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static int countMissing(String[] results) {
+        int missing = 0;
+        for (String r : results) if (r == null) missing++;
+        return missing;
+    }
 
+    /**
+     * Model fingerprint advertised by the backend health check. Fetched once per analysis so a
+     * retrained model invalidates cached results; null (no caching) if it was never advertised.
+     */
+    private String fetchModelVersion() {
         try {
-            // Try parsing as Vietnamese format first
-            return LocalDate.parse(d1, fmtVN).compareTo(LocalDate.parse(d2, fmtVN));
-        } catch (DateTimeParseException e1) {
-            try {
-                // Fallback to ISO format
-                return LocalDate.parse(d1, fmtISO).compareTo(LocalDate.parse(d2, fmtISO));
-            } catch (DateTimeParseException e2) {
-                // If both fail, fallback to string comparison
-                return d1.compareTo(d2);
-            }
+            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(apiUrl + "/")).timeout(Duration.ofSeconds(10)).GET().build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) return lastModelVersion;
+            JsonObject body = gson.fromJson(response.body(), JsonObject.class);
+            lastModelVersion = body != null && body.has("model_version") ? body.get("model_version").getAsString() : null;
+            return lastModelVersion;
+        } catch (Exception e) {
+            logger.warn("Could not read model version from backend, using last known ({}): {}", lastModelVersion, e.getMessage());
+            return lastModelVersion;
         }
     }
 
-    private interface BatchAction {
-        void run(List<String> batchTexts, List<String> batchDates, String type);
+    /**
+     * Folds one batch's per-text results into the caller's totals, each counted as many times
+     * as its record's weight. Always runs on the calling thread.
+     */
+    private interface BatchMerge {
+        void merge(List<AnalysisRecord> batchRecords, List<Integer> batchWeights, String[] labels);
     }
 
-    private void processBatches(List<String> texts, List<String> dates, String modelType, Consumer<Double> onProgress, BatchAction action) {
-        int total = texts.size();
-        for (int i = 0; i < total; i += BATCH_SIZE) {
-            int end = Math.min(total, i + BATCH_SIZE);
-            List<String> batchTexts = texts.subList(i, end);
-            List<String> batchDates = (dates != null) ? dates.subList(i, end) : null;
+    /** A dispatched batch waiting for its turn to be merged. */
+    private static final class PendingBatch {
+        final List<String> texts;
+        final List<AnalysisRecord> records;
+        final List<Integer> weights;
+        final Future<String[]> labels;
+
+        PendingBatch(List<String> texts, List<AnalysisRecord> records, List<Integer> weights, Future<String[]> labels) {
+            this.texts = texts;
+            this.records = records;
+            this.weights = weights;
+            this.labels = labels;
+        }
+    }
+
+    /**
+     * Pulls records from the iterator one batch at a time and labels each batch. Batch
+     * boundaries come from the endpoint's AdaptiveBatcher.Sizer (payload size, not a count).
+     *
+     * With maxInFlightBatches > 1 up to that many batches are sent concurrently on virtual
+     * threads, while the iterator (possibly a database cursor) is only ever touched by this
+     * thread. Results are merged here strictly in batch order, so the result maps need no
+     * locking, list results keep the input order, and progress only moves forward.
+     * Memory stays bounded by the number of batches in flight.
+     */
+    private void processBatches(Iterator<AnalysisRecord> records, int total, boolean withDates, String modelType, Consumer<Double> onProgress,
+                                String task, String endpoint, String version, BatchMerge merge) throws Exception {
+        int maxInFlight = maxInFlightBatches;
+        AdaptiveBatcher.Sizer sizer = batcher.sizer(endpoint, modelType);
+        int[] done = {0};
+        Consumer<Integer> advance = size -> {
+            done[0] += size;
+            if (onProgress != null) onProgress.accept(Math.min(1.0, (double) done[0] / total));
+        };
+
+        if (maxInFlight <= 1) {
+            // Sequential mode: one batch at a time, the lists are reused
+            List<String> batchTexts = new ArrayList<>();
+            List<AnalysisRecord> batchRecords = withDates ? new ArrayList<>() : null;
+            List<Integer> batchWeights = new ArrayList<>();
+            while (records.hasNext()) {
+                fillBatch(records, withDates, sizer, batchTexts, batchRecords, batchWeights);
+                merge.merge(batchRecords, batchWeights, labels(task, endpoint, batchTexts, modelType, version));
+                advance.accept(batchTexts.size());
+                batchTexts.clear();
+                if (withDates) batchRecords.clear();
+                batchWeights.clear();
+            }
+            return;
+        }
+
+        Deque<PendingBatch> inFlight = new ArrayDeque<>(maxInFlight);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                while (records.hasNext()) {
+                    List<String> batchTexts = new ArrayList<>();
+                    List<AnalysisRecord> batchRecords = withDates ? new ArrayList<>() : null;
+                    List<Integer> batchWeights = new ArrayList<>();
+                    fillBatch(records, withDates, sizer, batchTexts, batchRecords, batchWeights);
+                    inFlight.addLast(new PendingBatch(batchTexts, batchRecords, batchWeights,
+                            executor.submit(() -> labels(task, endpoint, batchTexts, modelType, version))));
+
+                    if (inFlight.size() >= maxInFlight) mergeNext(inFlight, merge, advance);
+                }
+                while (!inFlight.isEmpty()) mergeNext(inFlight, merge, advance);
+            } catch (Exception e) {
+                for (PendingBatch pending : inFlight) pending.labels.cancel(true);
+                throw e;
+            }
+        }
+    }
 
-            action.run(batchTexts, batchDates, modelType);
+    /**
+     * Takes records until the batch reaches the sizer's text count or char budget. The text that
+     * crosses the budget still goes in, so one huge article becomes a batch of its own.
+     */
+    private static void fillBatch(Iterator<AnalysisRecord> records, boolean withDates, AdaptiveBatcher.Sizer sizer,
+                                  List<String> batchTexts, List<AnalysisRecord> batchRecords, List<Integer> batchWeights) {
+        int maxTexts = sizer.maxTexts();
+        long budget = sizer.charBudget();
+        long chars = 0;
+        while (batchTexts.size() < maxTexts && chars < budget && records.hasNext()) {
+            AnalysisRecord record = records.next();
+            batchTexts.add(record.text);
+            if (withDates) batchRecords.add(record);
+            batchWeights.add(record.weight);
+            chars += sizer.cost(record.text);
+        }
+    }
 
-            double progress = (double) end / total;
-            if (onProgress != null) onProgress.accept(progress);
+    /** Waits for the oldest in-flight batch and merges it. */
+    private static void mergeNext(Deque<PendingBatch> inFlight, BatchMerge merge, Consumer<Integer> advance) throws Exception {
+        PendingBatch oldest = inFlight.pollFirst();
+        String[] labels;
+        try {
+            labels = oldest.labels.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
         }
+        merge.merge(oldest.records, oldest.weights, labels);
+        advance.accept(oldest.texts.size());
     }
 
     private void validateInputs(List<String> texts) {
         if (texts == null || texts.isEmpty()) throw new RuntimeException("No texts to analyze");
     }
 
+    private void validateTotal(int total) {
+        if (total <= 0) throw new RuntimeException("No texts to analyze");
+    }
+
     private String sendPost(String endpoint, Object requestObject) throws Exception {
         logger.info("Preparing to send data to Python backend at endpoint: {}", endpoint);
         
@@ -263,24 +551,23 @@ public class PythonAnalysisClient implements AnalysisAPI {
     @Override
     public Map<String, Integer> getIntentClassification(List<String> texts, String modelType, Consumer<Double> onProgress) throws Exception {
         validateInputs(texts);
+        return getIntentClassification(AnalysisRecord.stream(texts, null), texts.size(), modelType, onProgress);
+    }
+
+    @Override
+    public Map<String, Integer> getIntentClassification(Stream<AnalysisRecord> records, int total, String modelType, Consumer<Double> onProgress) throws Exception {
+        validateTotal(total);
         
         // Initialize the tracking map with zeroes
         Map<String, Integer> finalStats = new HashMap<>(Map.of("Request", 0, "Offer", 0, "News", 0));
 
-        processBatches(texts, null, modelType, onProgress, (batchTexts, batchDates, type) -> {
-            try {
-                AnalysisRequest req = new AnalysisRequest(batchTexts, null);
-                req.setModelType(type);
-                
-                // Call the new Python endpoint
-                String response = sendPost("/analyze/intent", req);
-                Map<String, Integer> batchResult = gson.fromJson(response, new TypeToken<Map<String, Integer>>(){}.getType());
+        String version = fetchModelVersion();
 
-                // Merge the batch counts into the total
-                for (Map.Entry<String, Integer> entry : batchResult.entrySet()) {
-                    finalStats.put(entry.getKey(), finalStats.getOrDefault(entry.getKey(), 0) + entry.getValue());
-                }
-            } catch (Exception e) { throw new RuntimeException(e); }
+        processBatches(records.iterator(), total, false, modelType, onProgress, "intent", "/labels/intent", version, (batchRecords, batchWeights, intents) -> {
+            // Per-text Request / Offer / News labels, counted here
+            for (int i = 0; i < intents.length; i++) {
+                finalStats.merge(intents[i], batchWeights.get(i), Integer::sum);
+            }
         });
 
         return finalStats;
@@ -8,12 +8,33 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class KeywordManager {
     private Map<String, List<String>> keywordsMap = new HashMap<>();
     private String currentFilePath; // Store path to save later
 
+    /**
+     * Finds a file of the "external config" folder by walking up from the working directory,
+     * so it works from the project root, the module folder or an IDE run directory.
+     */
+    public static String resolveConfigPath(String fileName) {
+        Path currentPath = Paths.get("").toAbsolutePath();
+        while (currentPath != null) {
+            Path directPath = currentPath.resolve("external config").resolve(fileName);
+            if (Files.exists(directPath)) return directPath.toString();
+
+            Path subfolderPath = currentPath.resolve("oop_logistics_projects").resolve("external config").resolve(fileName);
+            if (Files.exists(subfolderPath)) return subfolderPath.toString();
+
+            currentPath = currentPath.getParent();
+        }
+        return "external config/" + fileName;
+    }
+
     public void loadFromJson(String filePath) throws IOException {
         this.currentFilePath = filePath;
         Gson gson = new Gson();
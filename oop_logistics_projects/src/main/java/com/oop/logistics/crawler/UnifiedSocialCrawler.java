@@ -6,8 +6,6 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
@@ -58,8 +56,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             int currentPage = 1;
             String currentUrl = baseUrl;
 
@@ -122,8 +120,6 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             
         } catch (Exception e) {
             logger.error("VOZ Selenium Crawl Error for URL [{}]: {}", baseUrl, e.getMessage(), e);
-        } finally {
-            driver.quit(); // Always ensure the browser closes
         }
         return results;
     }
@@ -137,8 +133,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Fetching Facebook Post from: {}", url);
             driver.get(url);
             
@@ -347,8 +343,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Fetching YouTube Video from: {}", url);
             driver.get(url);
             
@@ -437,10 +433,6 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             
         } catch (Exception e) {
             logger.error("YouTube Selenium Crawl Error for URL [{}]: {}", url, e.getMessage(), e);
-        } finally {
-            if (driver != null) {
-                driver.quit();
-            }
         }
         return results;
     }
@@ -455,8 +447,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Fetching TikTok Video from: {}", url);
             driver.get(url);
             
@@ -578,10 +570,6 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             
         } catch (Exception e) {
             logger.error("TikTok Selenium Crawl Error for URL [{}]: {}", url, e.getMessage(), e);
-        } finally {
-            if (driver != null) {
-                // driver.quit(); // Keep commented out if using the debugging port 9222 trick
-            }
         }
         return results;
     }
@@ -778,8 +766,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Fetching Twitter URL: {}", url);
             driver.get(url);
             
@@ -878,8 +866,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Fetching Instagram Post: {}", url);
             driver.get(url);
             
@@ -1013,8 +1001,8 @@ public class UnifiedSocialCrawler implements SocialCrawler {
             return results;
         }
 
-        WebDriver driver = setupWebDriver();
-        try {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Fetching Threads Post: {}", url);
             driver.get(url);
             
@@ -1126,17 +1114,4 @@ public class UnifiedSocialCrawler implements SocialCrawler {
         }
         return results;
     }
-    private WebDriver setupWebDriver() {
-        ChromeOptions options = new ChromeOptions();
-        
-        // Tell Selenium to connect to the Chrome window we just opened manually
-        options.setExperimentalOption("debuggerAddress", "127.0.0.1:9222");
-        
-        try {
-            return new ChromeDriver(options);
-        } catch (Exception e) {
-            logger.error("Could not connect to Chrome. Did you open it with the --remote-debugging-port=9222 flag? Error: {}", e.getMessage());
-            throw e;
-        }
-    }
 }
\ No newline at end of file
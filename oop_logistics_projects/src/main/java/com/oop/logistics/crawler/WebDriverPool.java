@@ -0,0 +1,273 @@
+package com.oop.logistics.crawler;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of Selenium sessions shared by the search strategies and the social crawlers.
+ *
+ * Opening a session (starting chromedriver, attaching it to Chrome or launching a browser)
+ * costs seconds, more than a short search. Sessions are leased and returned instead:
+ * <pre>
+ * try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+ *     WebDriver driver = lease.driver();
+ *     ...
+ * }
+ * </pre>
+ * A returned session is recycled (back to its own tab, extra tabs closed, about:blank) and
+ * health-checked before the next lease; a session that fails either is closed and replaced.
+ * At most a few sessions per browser are open at once, further leases wait for a free one.
+ *
+ * Sessions attached to the Chrome on the debug port each work in their own tab, so several of
+ * them can run at once without navigating each other's page. Closing one closes only its tab
+ * and its chromedriver, never the user's browser.
+ */
+public final class WebDriverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverPool.class);
+
+    public enum Browser {
+        /** The Chrome started by hand with --remote-debugging-port=9222 (logged-in, trusted profile). */
+        DEBUG_CHROME,
+        /** A fresh Chrome launched by the pool, with the automation flags hidden. */
+        OWN_CHROME
+    }
+
+    static final String DEBUGGER_ADDRESS = "127.0.0.1:9222";
+    private static final int MAX_DEBUG_SESSIONS = 3;
+    private static final int MAX_OWN_SESSIONS = 2;
+    private static final long LEASE_TIMEOUT_SECONDS = 300;
+    private static final long MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static WebDriverPool shared;
+
+    /** Opens, recycles and closes the real sessions. */
+    interface Sessions {
+        WebDriver open(Browser browser);
+        /** Resets a session for its next lease; false if it is no longer usable. */
+        boolean recycle(Browser browser, WebDriver driver);
+        void close(Browser browser, WebDriver driver);
+    }
+
+    private record Idle(WebDriver driver, long since) {}
+
+    private final Sessions sessions;
+    private final Map<Browser, Semaphore> permits = new EnumMap<>(Browser.class);
+    private final Map<Browser, Deque<Idle>> idle = new EnumMap<>(Browser.class);
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger leases = new AtomicInteger();
+    private boolean closed = false;
+
+    WebDriverPool(Sessions sessions, int maxDebugSessions, int maxOwnSessions) {
+        this.sessions = sessions;
+        permits.put(Browser.DEBUG_CHROME, new Semaphore(maxDebugSessions, true));
+        permits.put(Browser.OWN_CHROME, new Semaphore(maxOwnSessions, true));
+        for (Browser browser : Browser.values()) idle.put(browser, new ArrayDeque<>());
+    }
+
+    /** The pool used by the whole app, closed by a shutdown hook. */
+    public static synchronized WebDriverPool shared() {
+        if (shared == null) {
+            shared = new WebDriverPool(new ChromeSessions(), MAX_DEBUG_SESSIONS, MAX_OWN_SESSIONS);
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::shutdown, "webdriver-pool-shutdown"));
+        }
+        return shared;
+    }
+
+    /** Leases a healthy session, waiting while the browser's session cap is reached. */
+    public Lease lease(Browser browser) throws InterruptedException {
+        Semaphore permit = permits.get(browser);
+        if (!permit.tryAcquire(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("No " + browser + " session free after " + LEASE_TIMEOUT_SECONDS + " s");
+        }
+        try {
+            WebDriver driver = takeIdle(browser);
+            if (driver == null) {
+                driver = sessions.open(browser);
+                logger.info("Opened {} session #{}", browser, created.incrementAndGet());
+            }
+            leases.incrementAndGet();
+            return new Lease(browser, driver, permit);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    /** Closes every idle session; sessions still leased are closed when they come back. */
+    public void shutdown() {
+        Map<Browser, Deque<Idle>> toClose = new EnumMap<>(Browser.class);
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (Browser browser : Browser.values()) {
+                toClose.put(browser, new ArrayDeque<>(idle.get(browser)));
+                idle.get(browser).clear();
+            }
+        }
+        toClose.forEach((browser, drivers) -> drivers.forEach(d -> closeQuietly(browser, d.driver())));
+        logger.info("WebDriver pool closed: {} sessions opened for {} leases", created.get(), leases.get());
+    }
+
+    /** Sessions opened since the pool was created. */
+    public int sessionsCreated() {
+        return created.get();
+    }
+
+    private WebDriver takeIdle(Browser browser) {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Idle candidate;
+            synchronized (this) {
+                if (closed) throw new IllegalStateException("WebDriver pool is shut down");
+                candidate = idle.get(browser).pollFirst(); // most recently used first
+            }
+            if (candidate == null) return null;
+            if (now - candidate.since() > MAX_IDLE_MILLIS || !sessions.recycle(browser, candidate.driver())) {
+                closeQuietly(browser, candidate.driver());
+                continue;
+            }
+            return candidate.driver();
+        }
+    }
+
+    private void giveBack(Browser browser, WebDriver driver) {
+        boolean healthy = sessions.recycle(browser, driver);
+        synchronized (this) {
+            if (healthy && !closed) {
+                idle.get(browser).addFirst(new Idle(driver, System.currentTimeMillis()));
+                return;
+            }
+        }
+        closeQuietly(browser, driver);
+    }
+
+    private void closeQuietly(Browser browser, WebDriver driver) {
+        try {
+            sessions.close(browser, driver);
+        } catch (RuntimeException e) {
+            logger.debug("Closing a {} session failed: {}", browser, e.getMessage());
+        }
+    }
+
+    /** One leased session; close() hands it back to the pool. */
+    public final class Lease implements AutoCloseable {
+        private final Browser browser;
+        private final WebDriver driver;
+        private final Semaphore permit;
+        private boolean returned = false;
+
+        private Lease(Browser browser, WebDriver driver, Semaphore permit) {
+            this.browser = browser;
+            this.driver = driver;
+            this.permit = permit;
+        }
+
+        public WebDriver driver() {
+            return driver;
+        }
+
+        @Override
+        public void close() {
+            if (returned) return;
+            returned = true;
+            try {
+                giveBack(browser, driver);
+            } finally {
+                permit.release();
+            }
+        }
+    }
+
+    /** Real Chrome sessions: a dedicated tab in the debug Chrome, or a browser of their own. */
+    private static final class ChromeSessions implements Sessions {
+        /** The session's own tab, and its chromedriver when attached to the debug Chrome. */
+        private record Session(String tab, ChromeDriverService service) {}
+
+        private final Map<WebDriver, Session> open = new ConcurrentHashMap<>();
+
+        @Override
+        public WebDriver open(Browser browser) {
+            ChromeOptions options = new ChromeOptions();
+            if (browser == Browser.OWN_CHROME) {
+                options.addArguments("--disable-gpu");
+                options.addArguments("--window-size=1920,1080");
+                options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
+                options.setExperimentalOption("useAutomationExtension", false);
+                options.addArguments("--disable-blink-features=AutomationControlled");
+                ChromeDriver driver = new ChromeDriver(options);
+                open.put(driver, new Session(driver.getWindowHandle(), null));
+                return driver;
+            }
+
+            options.setExperimentalOption("debuggerAddress", DEBUGGER_ADDRESS);
+            ChromeDriverService service = ChromeDriverService.createDefaultService();
+            ChromeDriver driver;
+            try {
+                driver = new ChromeDriver(service, options);
+            } catch (RuntimeException e) {
+                service.stop();
+                logger.error("Could not connect to Chrome. Did you open it with the --remote-debugging-port=9222 flag? Error: {}", e.getMessage());
+                throw e;
+            }
+            // A tab of its own, so concurrent sessions never navigate the same page
+            String tab = driver.switchTo().newWindow(WindowType.TAB).getWindowHandle();
+            open.put(driver, new Session(tab, service));
+            return driver;
+        }
+
+        @Override
+        public boolean recycle(Browser browser, WebDriver driver) {
+            Session session = open.get(driver);
+            if (session == null) return false;
+            try {
+                Set<String> handles = driver.getWindowHandles();
+                if (!handles.contains(session.tab())) return false;
+                // Popups of our own browser are closed; the other tabs of the debug Chrome belong to the user
+                if (browser == Browser.OWN_CHROME) {
+                    for (String handle : handles) {
+                        if (handle.equals(session.tab())) continue;
+                        driver.switchTo().window(handle);
+                        driver.close();
+                    }
+                }
+                driver.switchTo().window(session.tab());
+                driver.get("about:blank");
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close(Browser browser, WebDriver driver) {
+            Session session = open.remove(driver);
+            if (session == null || session.service() == null) {
+                driver.quit();
+                return;
+            }
+            // Close our tab and stop our chromedriver; quit() could take the user's Chrome with it
+            try {
+                driver.switchTo().window(session.tab());
+                driver.close();
+            } finally {
+                session.service().stop();
+            }
+        }
+    }
+}
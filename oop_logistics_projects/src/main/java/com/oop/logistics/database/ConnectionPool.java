@@ -0,0 +1,210 @@
+package com.oop.logistics.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed-size pool for a single SQLite file.
+ *
+ * SQLite only allows one writer at a time, so the pool keeps exactly one writer
+ * connection (handed out to one thread at a time) plus a few query-only reader
+ * connections. With WAL journaling the readers keep working while a crawl is
+ * writing, instead of failing with SQLITE_BUSY.
+ *
+ * Connections handed out are proxies: calling close() returns them to the pool.
+ *
+ * Writers are expected to hold their lease for one transaction, not a whole job; the writer
+ * lease timeout is generous (and configurable) so a slow transaction makes others wait
+ * rather than fail.
+ */
+class ConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private static final int BUSY_TIMEOUT_MS = 10_000;
+    private static final int CACHE_SIZE_KIB = 16_384;   // 16 MB page cache per connection
+    private static final Duration READER_LEASE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String url;
+    private final Duration writerLeaseTimeout;
+    private final BlockingQueue<Connection> writer = new ArrayBlockingQueue<>(1);
+    private final BlockingQueue<Connection> readers;
+    private final List<Connection> allConnections = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    ConnectionPool(String url, int readerCount, Duration writerLeaseTimeout) throws SQLException {
+        this.url = url;
+        this.writerLeaseTimeout = writerLeaseTimeout;
+        this.readers = new ArrayBlockingQueue<>(Math.max(1, readerCount));
+
+        // The writer must be opened first: it is the one that switches the file to WAL mode
+        writer.add(open(false));
+        for (int i = 0; i < Math.max(1, readerCount); i++) {
+            readers.add(open(true));
+        }
+        logger.info("SQLite pool ready for {} (1 writer, {} readers)", url, readers.size());
+    }
+
+    /** Leases the single writer connection. Blocks while another thread holds it. */
+    Connection leaseWriter() throws SQLException {
+        return lease(writer, false);
+    }
+
+    /** Leases a query-only connection. Safe to use concurrently with the writer. */
+    Connection leaseReader() throws SQLException {
+        return lease(readers, true);
+    }
+
+    synchronized void close() {
+        if (closed) return;
+        closed = true;
+
+        Connection w = writer.poll();
+        if (w != null) {
+            try (Statement stmt = w.createStatement()) {
+                // Fold the WAL back into the main file so the .db is self-contained on exit
+                stmt.execute("PRAGMA optimize");
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            } catch (SQLException e) {
+                logger.warn("Checkpoint on shutdown failed: {}", e.getMessage());
+            }
+        }
+        for (Connection c : allConnections) {
+            try {
+                c.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close pooled connection: {}", e.getMessage());
+            }
+        }
+        allConnections.clear();
+        logger.info("SQLite pool for {} closed", url);
+    }
+
+    private Connection lease(BlockingQueue<Connection> queue, boolean readOnly) throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        Duration timeout = readOnly ? READER_LEASE_TIMEOUT : writerLeaseTimeout;
+        Connection physical;
+        try {
+            physical = queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (physical == null) {
+            throw new SQLException("Timed out after " + timeout.toSeconds() + "s waiting for a " + (readOnly ? "reader" : "writer") + " connection");
+        }
+
+        // Replace connections that died underneath us (e.g. file deleted, driver error)
+        if (physical.isClosed()) {
+            synchronized (this) {
+                allConnections.remove(physical);
+            }
+            try {
+                physical = open(readOnly);
+            } catch (SQLException e) {
+                queue.offer(physical);
+                throw e;
+            }
+        }
+        return wrap(physical, queue);
+    }
+
+    private Connection open(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        config.setCacheSize(-CACHE_SIZE_KIB);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+
+        Connection conn = DriverManager.getConnection(url, config.toProperties());
+        if (readOnly) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+        synchronized (this) {
+            allConnections.add(conn);
+        }
+        return conn;
+    }
+
+    private Connection wrap(Connection physical, BlockingQueue<Connection> home) {
+        final boolean[] released = {false};
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("close")) {
+                        if (!released[0]) {
+                            released[0] = true;
+                            release(physical, home);
+                        }
+                        return null;
+                    }
+                    if (name.equals("isClosed")) {
+                        return released[0] || physical.isClosed();
+                    }
+                    if (released[0]) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void release(Connection physical, BlockingQueue<Connection> home) {
+        try {
+            // Never hand out a connection with a half-finished transaction
+            if (!physical.isClosed() && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("Resetting pooled connection failed, discarding it: {}", e.getMessage());
+            try { physical.close(); } catch (SQLException ignored) {}
+            replace(physical, home);
+            return;
+        }
+        if (closed) {
+            try { physical.close(); } catch (SQLException ignored) {}
+            return;
+        }
+        home.offer(physical);
+    }
+
+    /** Puts a fresh connection in the slot of a discarded one. */
+    private void replace(Connection discarded, BlockingQueue<Connection> home) {
+        synchronized (this) {
+            allConnections.remove(discarded);
+        }
+        if (closed) return;
+        try {
+            home.offer(open(home == readers));
+        } catch (SQLException e) {
+            // Keep the slot: the next lease sees the closed connection and tries to reopen it
+            logger.warn("Could not reopen a pooled connection: {}", e.getMessage());
+            home.offer(discarded);
+        }
+    }
+}
@@ -6,9 +6,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.oop.logistics.crawler.NewsResult;
 import com.oop.logistics.crawler.SocialResult;
+import com.oop.logistics.models.AnalysisRecord;
+import com.oop.logistics.preprocessing.ContentHash;
 
 public class DataRepository {
     public static class AnalysisData {
@@ -16,75 +26,257 @@ public class DataRepository {
         public List<String> dates = new ArrayList<>();
     }
 
-    // Fetch texts and dates for a specific disaster
+    // Both queries walk disasters(name) -> idx_news_disaster_day -> idx_comments_news_day (see SchemaMigrations).
+    // Unique rows stream straight through with weight 1. Rows of a near-duplicate cluster
+    // (duplicate_of, see DatabasePreprocessor) are grouped per representative and day, so the
+    // representative's text is analysed once per day with the number of rows as its weight.
+    // Days come from published_day; published_date is only read for rows it could not parse.
+    static final String NEWS_ANALYSIS_SQL =
+            "SELECT n.content, n.published_day, n.published_date, 1 AS weight FROM news n " +
+            "JOIN disasters d ON n.disaster_id = d.id " +
+            "WHERE d.name = ? AND n.source_type = ? AND TRIM(n.content) <> '' " +
+            "AND n.duplicate_of IS NULL AND NOT EXISTS (SELECT 1 FROM news m WHERE m.duplicate_of = n.id) " +
+            "UNION ALL " +
+            "SELECT r.content, n.published_day, n.published_date, COUNT(*) AS weight FROM news n " +
+            "JOIN disasters d ON n.disaster_id = d.id " +
+            "JOIN news r ON r.id = COALESCE(n.duplicate_of, n.id) " +
+            "WHERE d.name = ? AND n.source_type = ? AND TRIM(r.content) <> '' " +
+            "AND (n.duplicate_of IS NOT NULL OR EXISTS (SELECT 1 FROM news m WHERE m.duplicate_of = n.id)) " +
+            "GROUP BY r.id, COALESCE(n.published_day, n.published_date)";
+
+    static final String COMMENT_ANALYSIS_SQL =
+            "SELECT c.content, c.published_day, c.published_date, 1 AS weight FROM comments c " +
+            "JOIN news n ON c.news_id = n.id " +
+            "JOIN disasters d ON n.disaster_id = d.id " +
+            "WHERE d.name = ? AND n.source_type = ? AND TRIM(c.content) <> '' " +
+            "AND c.duplicate_of IS NULL AND NOT EXISTS (SELECT 1 FROM comments m WHERE m.duplicate_of = c.id) " +
+            "UNION ALL " +
+            "SELECT r.content, c.published_day, c.published_date, COUNT(*) AS weight FROM comments c " +
+            "JOIN news n ON c.news_id = n.id " +
+            "JOIN disasters d ON n.disaster_id = d.id " +
+            "JOIN comments r ON r.id = COALESCE(c.duplicate_of, c.id) " +
+            "WHERE d.name = ? AND n.source_type = ? AND TRIM(r.content) <> '' " +
+            "AND (c.duplicate_of IS NOT NULL OR EXISTS (SELECT 1 FROM comments m WHERE m.duplicate_of = c.id)) " +
+            "GROUP BY r.id, COALESCE(c.published_day, c.published_date)";
+
+    // published_day is derived from ?4 in the statement itself, no trigger round-trip per row
+    private static final String COMMENT_INSERT_SQL =
+            "INSERT OR IGNORE INTO comments(news_id, content, author, published_date, content_hash, published_day) " +
+            "VALUES(?1,?2,?3,?4,?5," + SchemaMigrations.epochDaySql("?4") + ")";
+
+    // Rows pulled from SQLite per step of the cursor; memory use is bounded by this, not the corpus
+    private static final int STREAM_FETCH_SIZE = 500;
+
     // Fetch texts and dates for a specific disaster AND source
     public AnalysisData getAnalysisData(String disasterName, String sourceType) {
         AnalysisData data = new AnalysisData();
-        String sql;
-        
-        if ("News".equalsIgnoreCase(sourceType)) {
-            // Fetch actual article content for News
-            sql = "SELECT n.content, n.published_date FROM news n " +
-                  "JOIN disasters d ON n.disaster_id = d.id " +
-                  "WHERE d.name = ? AND n.source_type = ?";
-        } else {
-            // Fetch comment content for Facebook
-            sql = "SELECT c.content, c.published_date FROM comments c " +
-                  "JOIN news n ON c.news_id = n.id " +
-                  "JOIN disasters d ON n.disaster_id = d.id " +
-                  "WHERE d.name = ? AND n.source_type = ?";
+        try (Stream<AnalysisRecord> records = streamAnalysisData(disasterName, sourceType)) {
+            // One entry per stored row: a weighted record is repeated
+            records.forEach(r -> {
+                for (int i = 0; i < r.weight; i++) {
+                    data.texts.add(r.text);
+                    data.dates.add(r.dateText());
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error fetching data for analysis: " + e.getMessage());
         }
+        return data;
+    }
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, disasterName);
-            pstmt.setString(2, sourceType);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                String content = rs.getString("content");
-                String date = rs.getString("published_date");
-                
-                if (content != null && !content.trim().isEmpty()) {
-                    data.texts.add(content);
-                    data.dates.add(date != null ? date : "01/01/1970");
+    /**
+     * Streams texts and dates for a disaster/source straight from a database cursor,
+     * so callers can process a corpus of any size with constant memory.
+     * The stream holds a reader connection: ALWAYS close it (try-with-resources).
+     */
+    public Stream<AnalysisRecord> streamAnalysisData(String disasterName, String sourceType) throws SQLException {
+        String sql = "News".equalsIgnoreCase(sourceType) ? NEWS_ANALYSIS_SQL : COMMENT_ANALYSIS_SQL;
+
+        // Reader connection: analysis loads must not wait behind (or block) an active crawl
+        Connection conn = DatabaseManager.getReadConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            bindAnalysisScope(pstmt, disasterName, sourceType);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            if (pstmt != null) pstmt.close();
+            conn.close();
+            throw e;
+        }
+
+        final PreparedStatement stmt = pstmt;
+        Iterator<AnalysisRecord> cursor = new Iterator<>() {
+            private AnalysisRecord next;
+            private boolean fetched = false;
+
+            private AnalysisRecord advance() {
+                try {
+                    while (rs.next()) {
+                        String content = rs.getString("content");
+                        if (content != null && !content.trim().isEmpty()) {
+                            int day = rs.getInt("published_day");
+                            if (!rs.wasNull()) return new AnalysisRecord(content, day, null, rs.getInt("weight"));
+                            String date = rs.getString("published_date");
+                            return new AnalysisRecord(content, date != null ? date : "01/01/1970", rs.getInt("weight"));
+                        }
+                    }
+                    return null;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error reading analysis data: " + e.getMessage(), e);
                 }
             }
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    next = advance();
+                    fetched = true;
+                }
+                return next != null;
+            }
+
+            @Override
+            public AnalysisRecord next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                fetched = false;
+                return next;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try { rs.close(); stmt.close(); conn.close(); }
+                    catch (SQLException e) { System.err.println("Error closing analysis cursor: " + e.getMessage()); }
+                });
+    }
+
+    /** Number of records streamAnalysisData will return (a cluster counts once per date); used for progress reporting. */
+    public int countAnalysisData(String disasterName, String sourceType) {
+        String sql = "SELECT COUNT(*) FROM (" +
+                ("News".equalsIgnoreCase(sourceType) ? NEWS_ANALYSIS_SQL : COMMENT_ANALYSIS_SQL) + ")";
+
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindAnalysisScope(pstmt, disasterName, sourceType);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
         } catch (SQLException e) {
-            System.err.println("Error fetching data for analysis: " + e.getMessage());
+            System.err.println("Error counting analysis data: " + e.getMessage());
         }
-        
-        return data;
+        return 0;
+    }
+
+    /** Binds the disaster/source pair of both halves of an analysis query. */
+    private static void bindAnalysisScope(PreparedStatement pstmt, String disasterName, String sourceType) throws SQLException {
+        pstmt.setString(1, disasterName);
+        pstmt.setString(2, sourceType);
+        pstmt.setString(3, disasterName);
+        pstmt.setString(4, sourceType);
     }
 
     // Save a News Article with sourceType
     public int saveNews(int disasterId, String url, String title, String content, String date, String sourceType) {
-        String insertSQL = "INSERT OR IGNORE INTO news(disaster_id, url, title, content, published_date, source_type) VALUES(?,?,?,?,?,?)";
-        String selectSQL = "SELECT id FROM news WHERE url = ?";
-        
+        int[] ids = saveNewsBatch(disasterId, List.of(new NewsResult(url, title, date, content)), sourceType);
+        return ids.length > 0 ? ids[0] : -1;
+    }
+
+    /**
+     * Saves many articles/posts in ONE transaction and returns their ids in input order
+     * (-1 where a row could not be saved). Rows whose url already exists are left untouched
+     * but still report their existing id, same as the single-row saveNews.
+     */
+    public int[] saveNewsBatch(int disasterId, List<NewsResult> articles, String sourceType) {
+        int[] ids = new int[articles.size()];
+        Arrays.fill(ids, -1);
+        if (articles.isEmpty()) return ids;
+
+        // The no-op DO UPDATE makes RETURNING hand back the id of already-existing urls as well,
+        // so we never need a second SELECT per row. The same article text under a different url
+        // hits the content-hash index instead and is skipped (DO NOTHING returns no row).
+        String sql = "INSERT INTO news(disaster_id, url, title, content, published_date, source_type, content_hash, published_day) " +
+                     "VALUES(?1,?2,?3,?4,?5,?6,?7," + SchemaMigrations.epochDaySql("?5") + ") " +
+                     "ON CONFLICT(url) DO UPDATE SET url = excluded.url ON CONFLICT DO NOTHING RETURNING id";
+        String duplicateSql = "SELECT id FROM news WHERE disaster_id = ? AND content_hash = ? AND source_type = 'News'";
+
         try (Connection conn = DatabaseManager.getConnection()) {
-            try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
-                pstmt.setInt(1, disasterId);
-                pstmt.setString(2, url);
-                pstmt.setString(3, title);
-                pstmt.setString(4, content);
-                pstmt.setString(5, date);
-                pstmt.setString(6, sourceType);
-                pstmt.executeUpdate();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                 PreparedStatement duplicateStmt = conn.prepareStatement(duplicateSql)) {
+                for (int i = 0; i < articles.size(); i++) {
+                    NewsResult article = articles.get(i);
+                    long hash = ContentHash.of(article.text);
+                    pstmt.setInt(1, disasterId);
+                    pstmt.setString(2, article.url);
+                    pstmt.setString(3, article.title);
+                    pstmt.setString(4, article.text);
+                    pstmt.setString(5, article.date);
+                    pstmt.setString(6, sourceType);
+                    setHash(pstmt, 7, hash);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) ids[i] = rs.getInt(1);
+                    }
+
+                    // Duplicate content: report the id of the article we already have
+                    if (ids[i] == -1 && hash != ContentHash.EMPTY) {
+                        duplicateStmt.setInt(1, disasterId);
+                        duplicateStmt.setLong(2, hash);
+                        try (ResultSet rs = duplicateStmt.executeQuery()) {
+                            if (rs.next()) ids[i] = rs.getInt(1);
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                Arrays.fill(ids, -1);
+                throw e;
             }
-            try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
-                pstmt.setString(1, url);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return rs.getInt("id");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ids;
+    }
+
+    /**
+     * Saves all comments of one post in a single transaction using a JDBC batch.
+     * Comments whose normalized text is already stored under the same post are skipped.
+     * Returns the number of NEW rows written (0 if the whole batch was rolled back).
+     */
+    public int saveCommentsBatch(int newsId, List<SocialResult> comments) {
+        if (comments.isEmpty()) return 0;
+        String sql = COMMENT_INSERT_SQL;
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (SocialResult comment : comments) {
+                    pstmt.setInt(1, newsId);
+                    pstmt.setString(2, comment.getContent());
+                    pstmt.setString(3, comment.getAuthor());
+                    pstmt.setString(4, comment.getTimestamp());
+                    setHash(pstmt, 5, ContentHash.of(comment.getContent()));
+                    pstmt.addBatch();
+                }
+                int inserted = 0;
+                for (int count : pstmt.executeBatch()) {
+                    if (count > 0) inserted += count;
                 }
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return -1;
+        return 0;
     }
+
     // 1. Get or Create a Disaster ID
     public int getOrCreateDisaster(String disasterName) {
         String insertSQL = "INSERT OR IGNORE INTO disasters(name) VALUES(?)";
@@ -110,42 +302,14 @@ public class DataRepository {
         return -1;
     }
 
-    // 2. Save a News Article
-    // 2. Save a News Article
+    // 2. Save a News Article (no source type)
     public int saveNews(int disasterId, String url, String title, String content, String date) {
-        String insertSQL = "INSERT OR IGNORE INTO news(disaster_id, url, title, content, published_date) VALUES(?,?,?,?,?)";
-        String selectSQL = "SELECT id FROM news WHERE url = ?";
-        
-        try (Connection conn = DatabaseManager.getConnection()) {
-            
-            // Try to insert
-            try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
-                pstmt.setInt(1, disasterId);
-                pstmt.setString(2, url);
-                pstmt.setString(3, title);
-                pstmt.setString(4, content);
-                pstmt.setString(5, date);
-                pstmt.executeUpdate();
-            }
-            
-            // Retrieve the ID (works whether it was just inserted or already existed)
-            try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
-                pstmt.setString(1, url);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return rs.getInt("id");
-                }
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return -1;
+        return saveNews(disasterId, url, title, content, date, null);
     }
 
-    // 3. Save a Comment
+    // 3. Save a Comment (silently skipped if the same text is already stored for this post)
     public void saveComment(int newsId, String content, String author, String date) {
-        String sql = "INSERT INTO comments(news_id, content, author, published_date) VALUES(?,?,?,?)";
+        String sql = COMMENT_INSERT_SQL;
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -153,12 +317,19 @@ public class DataRepository {
             pstmt.setString(2, content);
             pstmt.setString(3, author);
             pstmt.setString(4, date);
+            setHash(pstmt, 5, ContentHash.of(content));
             pstmt.executeUpdate();
             
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
+
+    // Texts without any letters/digits get NULL, which the unique index never treats as a duplicate
+    private static void setHash(PreparedStatement pstmt, int index, long hash) throws SQLException {
+        if (hash == ContentHash.EMPTY) pstmt.setNull(index, java.sql.Types.INTEGER);
+        else pstmt.setLong(index, hash);
+    }
     public void saveSocialResult(SocialResult result) {
     String sql = "INSERT INTO social_comments(platform, author, content, likes, timestamp) VALUES(?,?,?,?,?)";
     try (Connection conn = DatabaseManager.getConnection();
@@ -1,63 +1,96 @@
 package com.oop.logistics.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
 
 public class DatabaseManager {
     // This will create a file named "logistics_data.db" in your project folder
-    private static final String URL = "jdbc:sqlite:logistics_data.db";
+    private static final String DEFAULT_URL = "jdbc:sqlite:logistics_data.db";
+    private static final int READER_CONNECTIONS = 4;
 
+    private static String url = DEFAULT_URL;
+    private static Duration writerLeaseTimeout = Duration.ofMinutes(5);
+    private static ConnectionPool pool;
+    private static boolean shutdownHookRegistered = false;
+
+    /**
+     * Leases the single writer connection. Use this for anything that modifies the database.
+     * Calling close() hands the connection back to the pool instead of closing the file.
+     *
+     * Every other writer waits while you hold it, so keep the lease short: one statement or
+     * one transaction. Do reads and any slow work (parsing, network) on a read connection
+     * or before leasing, never while holding the writer.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return pool().leaseWriter();
+    }
+
+    /**
+     * Leases a query-only connection. Reads through these run alongside an active
+     * crawl/preprocess write thanks to WAL mode.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return pool().leaseReader();
+    }
+
+    /**
+     * Points the manager at another database file (e.g. a temp file in tests).
+     * Any open pool is shut down first.
+     */
+    public static synchronized void setDatabaseUrl(String newUrl) {
+        shutdown();
+        url = newUrl;
+    }
+
+    /** Points the manager back at the default database file (undoes setDatabaseUrl). */
+    public static synchronized void resetDatabaseUrl() {
+        setDatabaseUrl(DEFAULT_URL);
+    }
+
+    /**
+     * How long getConnection() waits for the writer before failing. Applies to the next pool,
+     * so call it before the first database access (or follow it with setDatabaseUrl).
+     */
+    public static synchronized void setWriterLeaseTimeout(Duration timeout) {
+        writerLeaseTimeout = timeout;
+    }
+
+    /** Checkpoints the WAL and closes every pooled connection. Safe to call more than once. */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
     }
 
+    private static synchronized ConnectionPool pool() throws SQLException {
+        if (pool == null) {
+            pool = new ConnectionPool(url, READER_CONNECTIONS, writerLeaseTimeout);
+            if (!shutdownHookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(DatabaseManager::shutdown, "sqlite-pool-shutdown"));
+                shutdownHookRegistered = true;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Creates or upgrades the schema by applying any pending SchemaMigrations steps.
+     */
     public static void initializeDatabase() {
-        String createDisasterTable = "CREATE TABLE IF NOT EXISTS disasters (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "name TEXT UNIQUE NOT NULL," +
-                "date_searched DATETIME DEFAULT CURRENT_TIMESTAMP" +
-                ");";
-
-        String createNewsTable = "CREATE TABLE IF NOT EXISTS news (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "disaster_id INTEGER," +
-                "url TEXT UNIQUE," +
-                "title TEXT," +
-                "content TEXT," +
-                "published_date TEXT," +
-                "source_type TEXT," + // <-- NEW COLUMN
-                "FOREIGN KEY(disaster_id) REFERENCES disasters(id)" +
-                ");";
-
-        String createCommentsTable = "CREATE TABLE IF NOT EXISTS comments (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "news_id INTEGER," +
-                "content TEXT," +
-                "author TEXT," +
-                "published_date TEXT," +
-                "FOREIGN KEY(news_id) REFERENCES news(id)" +
-                ");";
-        String createSocialTable = "CREATE TABLE IF NOT EXISTS social_comments (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "platform TEXT, " +
-                "author TEXT, " +
-                "content TEXT, " +
-                "likes INTEGER, " +
-                "timestamp TEXT" +
-                ");";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            // Create tables
-            stmt.execute(createDisasterTable);
-            stmt.execute(createNewsTable);
-            stmt.execute(createCommentsTable);
-            stmt.execute(createSocialTable);
-
-            System.out.println("Database tables initialized successfully.");
+        try (Connection conn = getConnection()) {
+            int before = SchemaMigrations.currentVersion(conn);
+            List<Integer> applied = SchemaMigrations.migrate(conn);
+
+            if (applied.isEmpty()) {
+                System.out.println("Database schema is up to date (v" + before + ").");
+            } else {
+                System.out.println("Database schema upgraded from v" + before + " to v" + applied.get(applied.size() - 1) + ".");
+            }
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
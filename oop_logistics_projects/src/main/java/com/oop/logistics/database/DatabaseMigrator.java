@@ -1,10 +1,14 @@
 package com.oop.logistics.database;
 
+import com.oop.logistics.crawler.NewsResult;
+import com.oop.logistics.crawler.SocialResult;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 
 import java.io.FileReader;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseMigrator {
     public static void migrateLegacyData() {
@@ -17,17 +21,19 @@ public class DatabaseMigrator {
         // 2. Migrate YagiNews_normalized.csv
         try (Reader in = new FileReader("YagiNews_normalized.csv")) {
             Iterable<CSVRecord> records = CSVFormat.DEFAULT.withHeader().withSkipHeaderRecord().parse(in);
-            int count = 0;
+            List<NewsResult> articles = new ArrayList<>();
             for (CSVRecord record : records) {
                 if (record.size() >= 2) {
                     String date = record.get(0);
                     String text = record.get(1);
                     // Use a fake URL so the database unique constraint doesn't fail
-                    String fakeUrl = "legacy_news_" + (++count); 
-                    repo.saveNews(disasterId, fakeUrl, "Legacy Yagi News", text, date, "News");
+                    String fakeUrl = "legacy_news_" + (articles.size() + 1);
+                    articles.add(new NewsResult(fakeUrl, "Legacy Yagi News", date, text));
                 }
             }
-            System.out.println("✅ Successfully migrated " + count + " articles from YagiNews_normalized.csv");
+            long start = System.nanoTime();
+            repo.saveNewsBatch(disasterId, articles, "News");
+            System.out.println("✅ Successfully migrated " + articles.size() + " articles from YagiNews_normalized.csv" + rate(articles.size(), start));
         } catch (Exception e) {
             System.err.println("⚠️ Error migrating news (File might be missing or locked): " + e.getMessage());
         }
@@ -42,20 +48,28 @@ public class DatabaseMigrator {
             
             int count = 0;
             if (dummyNewsId != -1) {
+                List<SocialResult> comments = new ArrayList<>();
                 for (CSVRecord record : records) {
                     if (record.size() >= 2) {
                         String date = record.get(0);
                         String text = record.get(1);
-                        repo.saveComment(dummyNewsId, text, "Legacy User", date);
-                        count++;
+                        comments.add(new SocialResult("Facebook", "Legacy User", text, 0, date));
                     }
                 }
+                long start = System.nanoTime();
+                count = repo.saveCommentsBatch(dummyNewsId, comments);
+                System.out.println("✅ Successfully migrated " + count + " comments from YagiComments.csv" + rate(count, start));
             }
-            System.out.println("✅ Successfully migrated " + count + " comments from YagiComments.csv");
         } catch (Exception e) {
             System.err.println("⚠️ Error migrating comments: " + e.getMessage());
         }
         
         System.out.println("🎉 Migration complete! You can now use the UI to analyze Typhoon Yagi.");
     }
+
+    private static String rate(int rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        if (rows == 0 || seconds <= 0) return "";
+        return String.format(" (%.0f rows/sec)", rows / seconds);
+    }
 }
\ No newline at end of file
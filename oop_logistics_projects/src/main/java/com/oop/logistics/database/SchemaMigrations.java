@@ -0,0 +1,378 @@
+package com.oop.logistics.database;
+
+import com.oop.logistics.preprocessing.ContentHash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ordered, versioned schema changes for logistics_data.db.
+ *
+ * Every database records the versions it has already applied in the schema_version table.
+ * On startup only the missing steps run, each in its own transaction, so an old database
+ * file is upgraded in place and a fresh one is built from scratch by the same code.
+ *
+ * To change the schema, APPEND a new step with the next version number.
+ * Never edit a step that has already shipped.
+ */
+public class SchemaMigrations {
+
+    /**
+     * Turns a dd/MM/yyyy text column into days since 1970-01-01 (NULL when the text is not a valid date).
+     * Writers use it to fill published_day in the same statement, e.g. epochDaySql("?5").
+     */
+    public static String epochDaySql(String column) {
+        String iso = "(substr(" + column + ",7,4) || '-' || substr(" + column + ",4,2) || '-' || substr(" + column + ",1,2))";
+        // date() rolls 31/02 over into March; only a day that round-trips is valid (as in TextCorpus.parseDay)
+        return "(CASE WHEN " + column + " GLOB '[0-9][0-9]/[0-9][0-9]/[0-9][0-9][0-9][0-9]' AND date(julianday(" + iso + ")) = " + iso + " " +
+               "THEN CAST(julianday(" + iso + ") - 2440587.5 AS INTEGER) " +
+               "END)";
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        // v1: the original tables. IF NOT EXISTS lets databases created before versioning adopt it.
+        new Migration(1, "Baseline tables",
+            "CREATE TABLE IF NOT EXISTS disasters (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "name TEXT UNIQUE NOT NULL," +
+                "date_searched DATETIME DEFAULT CURRENT_TIMESTAMP" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS news (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "disaster_id INTEGER," +
+                "url TEXT UNIQUE," +
+                "title TEXT," +
+                "content TEXT," +
+                "published_date TEXT," +
+                "source_type TEXT," +
+                "FOREIGN KEY(disaster_id) REFERENCES disasters(id)" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS comments (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "news_id INTEGER," +
+                "content TEXT," +
+                "author TEXT," +
+                "published_date TEXT," +
+                "FOREIGN KEY(news_id) REFERENCES news(id)" +
+                ")",
+            "CREATE TABLE IF NOT EXISTS social_comments (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "platform TEXT, " +
+                "author TEXT, " +
+                "content TEXT, " +
+                "likes INTEGER, " +
+                "timestamp TEXT" +
+                ")"),
+
+        // v2: indexes for the disasters -> news -> comments join used by
+        // DataRepository.getAnalysisData and DatabasePreprocessor. Trailing id makes the
+        // news index covering for the comment join (n.id is read straight from the index).
+        new Migration(2, "Join path indexes",
+            "CREATE INDEX IF NOT EXISTS idx_news_disaster_source ON news(disaster_id, source_type, id)",
+            "CREATE INDEX IF NOT EXISTS idx_comments_news ON comments(news_id, id)"),
+
+        // v3: normalized date column (epoch day) kept in sync by triggers, so time-series
+        // queries can group and range-scan on an integer instead of parsing text.
+        // The new indexes extend the v2 ones (rowid is implicit in every index), so those are dropped.
+        new Migration(3, "Normalized published_day columns",
+            "ALTER TABLE news ADD COLUMN published_day INTEGER",
+            "ALTER TABLE comments ADD COLUMN published_day INTEGER",
+            "UPDATE news SET published_day = " + epochDaySql("published_date"),
+            "UPDATE comments SET published_day = " + epochDaySql("published_date"),
+            "CREATE TRIGGER IF NOT EXISTS trg_news_day_insert AFTER INSERT ON news BEGIN " +
+                "UPDATE news SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_news_day_update AFTER UPDATE OF published_date ON news BEGIN " +
+                "UPDATE news SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_comments_day_insert AFTER INSERT ON comments BEGIN " +
+                "UPDATE comments SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_comments_day_update AFTER UPDATE OF published_date ON comments BEGIN " +
+                "UPDATE comments SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE INDEX IF NOT EXISTS idx_news_disaster_day ON news(disaster_id, source_type, published_day)",
+            "CREATE INDEX IF NOT EXISTS idx_comments_news_day ON comments(news_id, published_day)",
+            "DROP INDEX IF EXISTS idx_news_disaster_source",
+            "DROP INDEX IF EXISTS idx_comments_news"),
+
+        // v4: normalized content hash so re-crawled comments/articles are dropped at insert time.
+        // Existing rows are hashed in Java; later copies of a text keep a NULL hash so the
+        // unique indexes can be built (the preprocessor removes those copies anyway).
+        // News dedup is limited to real articles: social parent rows share placeholder content.
+        new Migration(4, "Content hash de-duplication", conn -> {
+            execute(conn,
+                "ALTER TABLE news ADD COLUMN content_hash INTEGER",
+                "ALTER TABLE comments ADD COLUMN content_hash INTEGER");
+            backfillContentHashes(conn, "SELECT id, news_id, content FROM comments", "comments");
+            backfillContentHashes(conn, "SELECT id, disaster_id, content FROM news WHERE source_type = 'News'", "news");
+            execute(conn,
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_comments_news_hash ON comments(news_id, content_hash)",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_news_disaster_hash ON news(disaster_id, content_hash) WHERE source_type = 'News'");
+        }),
+
+        // v5: incremental preprocessing. clean_hash is the hash of the cleaned text (NULL = not
+        // preprocessed yet) and preprocess_state remembers the highest row id handled per
+        // disaster/source, so DatabasePreprocessor only reads rows inserted since its last run.
+        new Migration(5, "Preprocessing watermark",
+            "ALTER TABLE news ADD COLUMN clean_hash INTEGER",
+            "ALTER TABLE comments ADD COLUMN clean_hash INTEGER",
+            "CREATE INDEX IF NOT EXISTS idx_news_clean_hash ON news(clean_hash) WHERE clean_hash IS NOT NULL",
+            "CREATE INDEX IF NOT EXISTS idx_comments_clean_hash ON comments(clean_hash) WHERE clean_hash IS NOT NULL",
+            "CREATE TABLE IF NOT EXISTS preprocess_state (" +
+                "disaster_id INTEGER NOT NULL," +
+                "source_type TEXT NOT NULL," +
+                "last_id INTEGER NOT NULL," +
+                "updated_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
+                "PRIMARY KEY(disaster_id, source_type)," +
+                "FOREIGN KEY(disaster_id) REFERENCES disasters(id)" +
+                ")"),
+
+        // v6: per-text model results, so re-running an analysis only sends unseen texts to Python.
+        // content_hash leads the key: lookups are "these hashes for this task/model/version".
+        new Migration(6, "Inference result cache",
+            "CREATE TABLE IF NOT EXISTS inference_cache (" +
+                "content_hash INTEGER NOT NULL," +
+                "task TEXT NOT NULL," +
+                "model_type TEXT NOT NULL," +
+                "model_version TEXT NOT NULL," +
+                "result TEXT NOT NULL," +
+                "created_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
+                "PRIMARY KEY(content_hash, task, model_type, model_version)" +
+                ") WITHOUT ROWID"),
+
+        // v7: locations found in each analysed row (news rows for the News source, comments for the
+        // others), so hotspot counts are a GROUP BY over idx_text_locations_scope instead of a rescan.
+        // location_state is the indexing watermark, with a fingerprint of the location list used.
+        // The triggers drop a row's locations when it is deleted or its text changes (cleaning,
+        // duplicate removal), the new text is indexed again by whoever changed it.
+        new Migration(7, "Location index",
+            "CREATE TABLE IF NOT EXISTS text_locations (" +
+                "source_table TEXT NOT NULL," +
+                "row_id INTEGER NOT NULL," +
+                "disaster_id INTEGER NOT NULL," +
+                "source_type TEXT NOT NULL," +
+                "location TEXT NOT NULL," +
+                "PRIMARY KEY(source_table, row_id, location)" +
+                ") WITHOUT ROWID",
+            "CREATE INDEX IF NOT EXISTS idx_text_locations_scope ON text_locations(disaster_id, source_type, location)",
+            "CREATE TABLE IF NOT EXISTS location_state (" +
+                "disaster_id INTEGER NOT NULL," +
+                "source_type TEXT NOT NULL," +
+                "last_id INTEGER NOT NULL," +
+                "dictionary_hash INTEGER NOT NULL," +
+                "updated_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
+                "PRIMARY KEY(disaster_id, source_type)," +
+                "FOREIGN KEY(disaster_id) REFERENCES disasters(id)" +
+                ")",
+            "CREATE TRIGGER IF NOT EXISTS trg_news_locations_delete AFTER DELETE ON news BEGIN " +
+                "DELETE FROM text_locations WHERE source_table = 'news' AND row_id = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_comments_locations_delete AFTER DELETE ON comments BEGIN " +
+                "DELETE FROM text_locations WHERE source_table = 'comments' AND row_id = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_news_locations_update AFTER UPDATE OF content ON news BEGIN " +
+                "DELETE FROM text_locations WHERE source_table = 'news' AND row_id = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_comments_locations_update AFTER UPDATE OF content ON comments BEGIN " +
+                "DELETE FROM text_locations WHERE source_table = 'comments' AND row_id = OLD.id; END"),
+
+        // v8: near-duplicate clusters. duplicate_of points a row at the representative of its
+        // cluster (NULL for representatives and unique rows); near_duplicate_bands holds the LSH
+        // band keys of the representatives, keyed by band_key so new rows find their candidates by
+        // primary key lookups.
+        // Deleting a representative or changing its text releases its members and drops its keys.
+        new Migration(8, "Near-duplicate clusters",
+            "ALTER TABLE news ADD COLUMN duplicate_of INTEGER",
+            "ALTER TABLE comments ADD COLUMN duplicate_of INTEGER",
+            "CREATE INDEX IF NOT EXISTS idx_news_duplicate_of ON news(duplicate_of) WHERE duplicate_of IS NOT NULL",
+            "CREATE INDEX IF NOT EXISTS idx_comments_duplicate_of ON comments(duplicate_of) WHERE duplicate_of IS NOT NULL",
+            "CREATE TABLE IF NOT EXISTS near_duplicate_bands (" +
+                "band_key INTEGER NOT NULL," +
+                "source_table TEXT NOT NULL," +
+                "row_id INTEGER NOT NULL," +
+                "PRIMARY KEY(band_key, source_table, row_id)" +
+                ") WITHOUT ROWID",
+            "CREATE INDEX IF NOT EXISTS idx_near_duplicate_bands_row ON near_duplicate_bands(source_table, row_id)",
+            "CREATE TRIGGER IF NOT EXISTS trg_news_duplicates_delete AFTER DELETE ON news BEGIN " +
+                "DELETE FROM near_duplicate_bands WHERE source_table = 'news' AND row_id = OLD.id; " +
+                "UPDATE news SET duplicate_of = NULL WHERE duplicate_of = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_comments_duplicates_delete AFTER DELETE ON comments BEGIN " +
+                "DELETE FROM near_duplicate_bands WHERE source_table = 'comments' AND row_id = OLD.id; " +
+                "UPDATE comments SET duplicate_of = NULL WHERE duplicate_of = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_news_duplicates_update AFTER UPDATE OF content ON news BEGIN " +
+                "DELETE FROM near_duplicate_bands WHERE source_table = 'news' AND row_id = OLD.id; " +
+                "UPDATE news SET duplicate_of = NULL WHERE duplicate_of = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_comments_duplicates_update AFTER UPDATE OF content ON comments BEGIN " +
+                "DELETE FROM near_duplicate_bands WHERE source_table = 'comments' AND row_id = OLD.id; " +
+                "UPDATE comments SET duplicate_of = NULL WHERE duplicate_of = OLD.id; END"),
+
+        // v9: results of one search engine call (URLs with their dates, as JSON), so repeating a
+        // search within the TTL needs no browser. used_at orders the LRU eviction.
+        new Migration(9, "Search result cache",
+            "CREATE TABLE IF NOT EXISTS search_cache (" +
+                "engine TEXT NOT NULL," +
+                "domain TEXT NOT NULL," +
+                "query TEXT NOT NULL," +
+                "results TEXT NOT NULL," +
+                "fetched_at INTEGER NOT NULL," +
+                "used_at INTEGER NOT NULL," +
+                "PRIMARY KEY(engine, domain, query)" +
+                ")",
+            "CREATE INDEX IF NOT EXISTS idx_search_cache_used_at ON search_cache(used_at)"),
+
+        // v10: last response of each RSS feed with its validators (ETag / Last-Modified), so the
+        // next fetch is a conditional GET and an unchanged feed comes back as a bodyless 304.
+        new Migration(10, "RSS feed validators",
+            "CREATE TABLE IF NOT EXISTS rss_feed_cache (" +
+                "url TEXT PRIMARY KEY," +
+                "etag TEXT," +
+                "last_modified TEXT," +
+                "items TEXT NOT NULL," +
+                "fetched_at INTEGER NOT NULL" +
+                ")"),
+
+        // v11: publication date found on each article page (NULL = the page had none), so an
+        // article is downloaded for its date once, not on every search that finds it.
+        new Migration(11, "Article date cache",
+            "CREATE TABLE IF NOT EXISTS url_dates (" +
+                "url TEXT PRIMARY KEY," +
+                "published_date TEXT," +
+                "resolved_at INTEGER NOT NULL" +
+                ")"),
+
+        // v12: DataRepository and the preprocessor now write published_day in the same INSERT/UPDATE.
+        // The v3 triggers ran a second UPDATE for every row; they are kept only for other writers
+        // (manual SQL) and now fire just when published_day does not match the date.
+        new Migration(12, "published_day set by writers, triggers as fallback",
+            "DROP TRIGGER IF EXISTS trg_news_day_insert",
+            "DROP TRIGGER IF EXISTS trg_news_day_update",
+            "DROP TRIGGER IF EXISTS trg_comments_day_insert",
+            "DROP TRIGGER IF EXISTS trg_comments_day_update",
+            "CREATE TRIGGER trg_news_day_insert AFTER INSERT ON news " +
+                "WHEN NEW.published_day IS NOT " + epochDaySql("NEW.published_date") + " BEGIN " +
+                "UPDATE news SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER trg_news_day_update AFTER UPDATE OF published_date ON news " +
+                "WHEN NEW.published_day IS NOT " + epochDaySql("NEW.published_date") + " BEGIN " +
+                "UPDATE news SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER trg_comments_day_insert AFTER INSERT ON comments " +
+                "WHEN NEW.published_day IS NOT " + epochDaySql("NEW.published_date") + " BEGIN " +
+                "UPDATE comments SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER trg_comments_day_update AFTER UPDATE OF published_date ON comments " +
+                "WHEN NEW.published_day IS NOT " + epochDaySql("NEW.published_date") + " BEGIN " +
+                "UPDATE comments SET published_day = " + epochDaySql("NEW.published_date") + " WHERE id = NEW.id; END")
+    );
+
+    private SchemaMigrations() {}
+
+    /** Highest version this build knows about. */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /** Version currently recorded in the database (0 for a database that predates versioning). */
+    public static int currentVersion(Connection conn) throws SQLException {
+        ensureVersionTable(conn);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Applies every step newer than the database's current version, in order.
+     * Returns the list of versions that were applied by this call.
+     */
+    public static List<Integer> migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        List<Integer> applied = new ArrayList<>();
+
+        boolean previousAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) continue;
+
+                try (Statement stmt = conn.createStatement()) {
+                    migration.step.apply(conn);
+                    stmt.executeUpdate("INSERT INTO schema_version(version, description) VALUES(" +
+                            migration.version + ", '" + migration.description.replace("'", "''") + "')");
+                    conn.commit();
+                    applied.add(migration.version);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Schema migration v" + migration.version + " (" + migration.description + ") failed: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            conn.setAutoCommit(previousAutoCommit);
+        }
+        return applied;
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY," +
+                    "description TEXT," +
+                    "applied_at DATETIME DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    private static void execute(Connection conn, String... statements) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Fills content_hash for rows returned by {@code selectSql} (id, scope id, content).
+     * Only the first row per (scope, hash) gets the hash, so existing duplicates do not
+     * break the unique index that is created afterwards.
+     */
+    private static void backfillContentHashes(Connection conn, String selectSql, String table) throws SQLException {
+        Map<Integer, Set<Long>> seenByScope = new HashMap<>();
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery(selectSql);
+             PreparedStatement update = conn.prepareStatement("UPDATE " + table + " SET content_hash = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rs.next()) {
+                long hash = ContentHash.of(rs.getString(3));
+                if (hash == ContentHash.EMPTY) continue;
+                if (!seenByScope.computeIfAbsent(rs.getInt(2), k -> new HashSet<>()).add(hash)) continue;
+
+                update.setLong(1, hash);
+                update.setInt(2, rs.getInt(1));
+                update.addBatch();
+                if (++pending % 1000 == 0) update.executeBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    /** One schema change; runs inside the migration's transaction. */
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, String... statements) {
+            this(version, description, conn -> execute(conn, statements));
+        }
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.oop.logistics.models;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * One text (article body or comment) and its date, as fed to the analysis backend.
+ * weight is how many stored rows of that date the text stands for (a near-duplicate cluster
+ * is analysed once); results must be counted that many times.
+ *
+ * Sources that already hold the date as an epoch day (TextCorpus, the published_day column)
+ * pass it in {@code day}, so grouping by day needs no formatting or parsing; {@code date} is
+ * then only kept for dates that are not dd/MM/yyyy. Records built from date text have
+ * {@code day} == NO_DATE.
+ */
+public class AnalysisRecord {
+    public final String text;
+    public final String date;
+    /** Days since 1970-01-01, or {@link TextCorpus#NO_DATE} when only {@code date} is known. */
+    public final int day;
+    public final int weight;
+
+    public AnalysisRecord(String text, String date) {
+        this(text, date, 1);
+    }
+
+    public AnalysisRecord(String text, String date, int weight) {
+        this(text, TextCorpus.NO_DATE, date, weight);
+    }
+
+    public AnalysisRecord(String text, int day, String date, int weight) {
+        this.text = text;
+        this.day = day;
+        this.date = date;
+        this.weight = weight;
+    }
+
+    /** The date as text: {@code date} if present, else the day formatted as dd/MM/yyyy (null if neither). */
+    public String dateText() {
+        if (date != null || day == TextCorpus.NO_DATE) return date;
+        return TextCorpus.formatDay(day);
+    }
+
+    /** Pairs texts with dates by position; {@code dates} may be null or shorter than {@code texts}. */
+    public static Stream<AnalysisRecord> stream(List<String> texts, List<String> dates) {
+        return IntStream.range(0, texts.size())
+                .mapToObj(i -> new AnalysisRecord(texts.get(i), dates != null && i < dates.size() ? dates.get(i) : null));
+    }
+
+    /** Streams the corpus rows with their stored epoch days; only unparsed dates travel as text. */
+    public static Stream<AnalysisRecord> stream(TextCorpus corpus) {
+        return IntStream.range(0, corpus.size()).mapToObj(i -> {
+            int day = corpus.getEpochDay(i);
+            return new AnalysisRecord(corpus.getText(i), day, day == TextCorpus.NO_DATE ? corpus.getDate(i) : null, 1);
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package com.oop.logistics.models;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sentiment counts per day, optionally split by category (relief sector), sorted by day.
+ *
+ * Points are keyed by epoch day and hold three primitive counters. The builder keeps its days in
+ * a sorted int array, so a date text is parsed only when it differs from the previous row's and
+ * the series comes out in order without sorting or comparing strings. Texts with no usable date
+ * are dropped; dates in another format than dd/MM/yyyy or yyyy-MM-dd sort first and keep their
+ * original text.
+ *
+ * {@link #toMaps()} gives the old List&lt;Map&gt; shape for code that still wants it.
+ * Immutable once built.
+ */
+public final class SentimentTimeSeries {
+
+    public static final int POSITIVE = 0, NEGATIVE = 1, NEUTRAL = 2;
+    private static final String[] SENTIMENTS = {"positive", "negative", "neutral"};
+
+    private final int[] days;
+    private final String[] dates;
+    private final String[] categories;
+    private final long[] counts; // SENTIMENTS.length per point
+
+    private SentimentTimeSeries(int[] days, String[] dates, String[] categories, long[] counts) {
+        this.days = days;
+        this.dates = dates;
+        this.categories = categories;
+        this.counts = counts;
+    }
+
+    public int size() { return days.length; }
+
+    /** Days since 1970-01-01, or {@link TextCorpus#NO_DATE} for an unrecognised date format. */
+    public int epochDay(int point) { return days[point]; }
+
+    /** dd/MM/yyyy (or the original text when the format was not recognised). */
+    public String date(int point) { return dates[point]; }
+
+    /** Relief category of the point, null for a plain sentiment series. */
+    public String category(int point) { return categories[point]; }
+
+    public long count(int point, int sentiment) { return counts[point * SENTIMENTS.length + sentiment]; }
+
+    /** Index of a sentiment label (POSITIVE, NEGATIVE, NEUTRAL), -1 if unknown. */
+    public static int sentimentIndex(String label) {
+        if (label == null) return -1;
+        return switch (label) {
+            case "positive" -> POSITIVE;
+            case "negative" -> NEGATIVE;
+            case "neutral" -> NEUTRAL;
+            default -> -1;
+        };
+    }
+
+    /** Old shape: one map per point with "date", "category" (if any) and a Double per sentiment. */
+    public List<Map<String, Object>> toMaps() {
+        List<Map<String, Object>> maps = new ArrayList<>(size());
+        for (int p = 0; p < size(); p++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("date", dates[p]);
+            if (categories[p] != null) entry.put("category", categories[p]);
+            for (int s = 0; s < SENTIMENTS.length; s++) entry.put(SENTIMENTS[s], (double) count(p, s));
+            maps.add(entry);
+        }
+        return maps;
+    }
+
+    /** Reads the old List&lt;Map&gt; shape back, for providers that only produce maps. */
+    public static SentimentTimeSeries fromMaps(List<Map<String, Object>> maps) {
+        Builder builder = new Builder();
+        for (Map<String, Object> entry : maps) {
+            for (int s = 0; s < SENTIMENTS.length; s++) {
+                if (entry.get(SENTIMENTS[s]) instanceof Number n) {
+                    builder.add((String) entry.get("date"), (String) entry.get("category"), s, n.longValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /** Writes one day's categories from point p on; returns the next free point. */
+    private int fill(int p, int day, String date, Map<String, long[]> byCategory) {
+        for (Map.Entry<String, long[]> cat : byCategory.entrySet()) {
+            days[p] = day;
+            dates[p] = date;
+            categories[p] = cat.getKey();
+            System.arraycopy(cat.getValue(), 0, counts, p * SENTIMENTS.length, SENTIMENTS.length);
+            p++;
+        }
+        return p;
+    }
+
+    /** Collects counts as results come in. Not thread-safe. */
+    public static final class Builder {
+        // Sorted epoch days and their buckets: category (null key for none) -> counters
+        private int[] days = new int[16];
+        private List<Map<String, long[]>> buckets = new ArrayList<>();
+        // Unrecognised date texts keep their own point, in alphabetical order
+        private final Map<String, Map<String, long[]>> undated = new TreeMap<>();
+        private int points;
+        // Rows usually arrive grouped by date, so remember the last lookup
+        private String lastDate;
+        private int lastDay = TextCorpus.NO_DATE;
+        private Map<String, long[]> lastBucket;
+
+        /** Counts one text; null dates and unknown sentiment labels are ignored. */
+        public void add(String date, String category, String sentiment) {
+            add(date, category, sentiment, 1);
+        }
+
+        /** Counts a text that stands for {@code count} rows (see AnalysisRecord.weight). */
+        public void add(String date, String category, String sentiment, long count) {
+            int s = sentimentIndex(sentiment);
+            if (s >= 0) add(date, category, s, count);
+        }
+
+        /** Date text adapter: different spellings of one day ("7/9/2024", "2024-09-07") share a point. */
+        public void add(String date, String category, int sentiment, long count) {
+            if (date == null) return;
+            if (!date.equals(lastDate)) {
+                int day = parseDay(date);
+                lastBucket = day != TextCorpus.NO_DATE ? bucket(day) : undated.computeIfAbsent(date, d -> new LinkedHashMap<>());
+                lastDay = day;
+                lastDate = date;
+            }
+            count(lastBucket, category, sentiment, count);
+        }
+
+        /** Counts {@code count} texts of one epoch day (see {@link TextCorpus#getEpochDay}). */
+        public void add(int epochDay, String category, int sentiment, long count) {
+            if (epochDay == TextCorpus.NO_DATE) return;
+            if (epochDay != lastDay) {
+                lastBucket = bucket(epochDay);
+                lastDay = epochDay;
+                lastDate = null;
+            }
+            count(lastBucket, category, sentiment, count);
+        }
+
+        /** Counts a record under its epoch day, or under its date text when the day is unknown. */
+        public void add(AnalysisRecord record, String category, String sentiment, long count) {
+            int s = sentimentIndex(sentiment);
+            if (s >= 0) add(record, category, s, count);
+        }
+
+        public void add(AnalysisRecord record, String category, int sentiment, long count) {
+            if (record.day != TextCorpus.NO_DATE) add(record.day, category, sentiment, count);
+            else add(record.date, category, sentiment, count);
+        }
+
+        public SentimentTimeSeries build() {
+            SentimentTimeSeries series = new SentimentTimeSeries(new int[points], new String[points], new String[points], new long[points * SENTIMENTS.length]);
+            int p = 0;
+            for (Map.Entry<String, Map<String, long[]>> entry : undated.entrySet()) {
+                p = series.fill(p, TextCorpus.NO_DATE, entry.getKey(), entry.getValue());
+            }
+            for (int i = 0; i < buckets.size(); i++) {
+                p = series.fill(p, days[i], TextCorpus.formatDay(days[i]), buckets.get(i));
+            }
+            return series;
+        }
+
+        private Map<String, long[]> bucket(int day) {
+            int size = buckets.size();
+            // Mostly chronological input: check the end before searching
+            int i = size > 0 && days[size - 1] == day ? size - 1 : Arrays.binarySearch(days, 0, size, day);
+            if (i >= 0) return buckets.get(i);
+            i = -i - 1;
+            if (size == days.length) days = Arrays.copyOf(days, size * 2);
+            System.arraycopy(days, i, days, i + 1, size - i);
+            days[i] = day;
+            Map<String, long[]> bucket = new LinkedHashMap<>();
+            buckets.add(i, bucket);
+            return bucket;
+        }
+
+        private void count(Map<String, long[]> bucket, String category, int sentiment, long count) {
+            long[] counters = bucket.get(category);
+            if (counters == null) {
+                counters = new long[SENTIMENTS.length];
+                bucket.put(category, counters);
+                points++;
+            }
+            counters[sentiment] += count;
+        }
+
+        /** dd/MM/yyyy first, then ISO yyyy-MM-dd. */
+        private static int parseDay(String date) {
+            int day = TextCorpus.parseDay(date);
+            if (day != TextCorpus.NO_DATE) return day;
+            try {
+                return (int) LocalDate.parse(date).toEpochDay();
+            } catch (DateTimeParseException e) {
+                return TextCorpus.NO_DATE;
+            }
+        }
+    }
+}
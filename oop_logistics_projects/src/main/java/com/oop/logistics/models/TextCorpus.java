@@ -0,0 +1,213 @@
+package com.oop.logistics.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented, append-only store for a working set of texts.
+ *
+ * Instead of one String object per text and per date, all texts share a single UTF-8 byte
+ * array addressed through an offset table, dates are kept as int epoch-days and the source
+ * platform is a one-byte code. For Vietnamese comments this takes a fraction of the heap of
+ * two parallel List&lt;String&gt;, and grouping by day is an int comparison instead of a parse.
+ *
+ * Read-only List&lt;String&gt; views are available for code that still expects lists.
+ * Not thread-safe: build it on one thread, then publish it.
+ */
+public class TextCorpus {
+
+    /** Epoch-day value used for rows without a date. */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private byte[] textBytes;
+    private int byteLength = 0;
+    private int[] offsets;          // text i spans [offsets[i], offsets[i + 1])
+    private int[] days;
+    private byte[] sources;
+    private int size = 0;
+
+    private final List<String> sourceNames = new ArrayList<>();
+    // Dates that are present but not dd/MM/yyyy are rare; keep their original text by row
+    private final Map<Integer, String> unparsedDates = new HashMap<>();
+
+    public TextCorpus() {
+        this(1024);
+    }
+
+    public TextCorpus(int expectedRows) {
+        int rows = Math.max(16, expectedRows);
+        this.textBytes = new byte[rows * 64];
+        this.offsets = new int[rows + 1];
+        this.days = new int[rows];
+        this.sources = new byte[rows];
+    }
+
+    /** Builds a corpus from the classic parallel lists. {@code dates} may be null or shorter than {@code texts}. */
+    public static TextCorpus of(List<String> texts, List<String> dates, String source) {
+        TextCorpus corpus = new TextCorpus(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            String date = (dates != null && i < dates.size()) ? dates.get(i) : null;
+            corpus.add(texts.get(i), date, source);
+        }
+        return corpus;
+    }
+
+    public void add(String text, String date, String source) {
+        ensureRowCapacity(size + 1);
+
+        byte[] encoded = (text != null ? text : "").getBytes(StandardCharsets.UTF_8);
+        ensureByteCapacity(byteLength + encoded.length);
+        System.arraycopy(encoded, 0, textBytes, byteLength, encoded.length);
+        byteLength += encoded.length;
+        offsets[size + 1] = byteLength;
+
+        int day = parseDay(date);
+        days[size] = day;
+        if (day == NO_DATE && date != null) unparsedDates.put(size, date);
+
+        sources[size] = sourceCode(source);
+        size++;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public String getText(int index) {
+        checkIndex(index);
+        return new String(textBytes, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /** Date as dd/MM/yyyy (or the original text if it was not in that format, null if absent). */
+    public String getDate(int index) {
+        checkIndex(index);
+        int day = days[index];
+        return day != NO_DATE ? formatDay(day) : unparsedDates.get(index);
+    }
+
+    /** Days since 1970-01-01, or {@link #NO_DATE}. */
+    public int getEpochDay(int index) {
+        checkIndex(index);
+        return days[index];
+    }
+
+    public String getSource(int index) {
+        checkIndex(index);
+        int code = sources[index] & 0xFF;
+        return code == 0 ? null : sourceNames.get(code - 1);
+    }
+
+    /** Read-only view of the texts; each get() decodes one entry. */
+    public List<String> texts() {
+        return new AbstractList<>() {
+            @Override public String get(int index) { return getText(index); }
+            @Override public int size() { return size; }
+        };
+    }
+
+    /** Read-only view of the dates in dd/MM/yyyy form. */
+    public List<String> dates() {
+        return new AbstractList<>() {
+            @Override public String get(int index) { return getDate(index); }
+            @Override public int size() { return size; }
+        };
+    }
+
+    /** Approximate heap held by the columns, for status/logging. */
+    public long estimatedBytes() {
+        return textBytes.length + 4L * offsets.length + 4L * days.length + sources.length;
+    }
+
+    /** Releases spare capacity once loading is finished. */
+    public void trimToSize() {
+        textBytes = Arrays.copyOf(textBytes, byteLength);
+        offsets = Arrays.copyOf(offsets, size + 1);
+        days = Arrays.copyOf(days, size);
+        sources = Arrays.copyOf(sources, size);
+    }
+
+    // --- Date helpers (dd/MM/yyyy <-> epoch day) ---
+
+    /** Parses d/M/yyyy or dd/MM/yyyy; returns {@link #NO_DATE} for anything else. */
+    public static int parseDay(String date) {
+        if (date == null) return NO_DATE;
+        int len = date.length();
+        int firstSlash = date.indexOf('/');
+        int secondSlash = firstSlash < 0 ? -1 : date.indexOf('/', firstSlash + 1);
+        if (firstSlash < 1 || firstSlash > 2 || secondSlash - firstSlash < 2 || secondSlash - firstSlash > 3 || len - secondSlash != 5) {
+            return NO_DATE;
+        }
+        int d = digits(date, 0, firstSlash);
+        int m = digits(date, firstSlash + 1, secondSlash);
+        int y = digits(date, secondSlash + 1, len);
+        if (d < 0 || m < 0 || y < 0) return NO_DATE;
+        try {
+            return (int) LocalDate.of(y, m, d).toEpochDay();
+        } catch (DateTimeException e) {
+            return NO_DATE;
+        }
+    }
+
+    public static String formatDay(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        char[] out = new char[10];
+        int d = date.getDayOfMonth(), m = date.getMonthValue(), y = date.getYear();
+        out[0] = (char) ('0' + d / 10); out[1] = (char) ('0' + d % 10); out[2] = '/';
+        out[3] = (char) ('0' + m / 10); out[4] = (char) ('0' + m % 10); out[5] = '/';
+        out[6] = (char) ('0' + y / 1000 % 10); out[7] = (char) ('0' + y / 100 % 10);
+        out[8] = (char) ('0' + y / 10 % 10); out[9] = (char) ('0' + y % 10);
+        return new String(out);
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // --- Internals ---
+
+    private byte sourceCode(String source) {
+        if (source == null) return 0;
+        int idx = sourceNames.indexOf(source);
+        if (idx < 0) {
+            if (sourceNames.size() >= 255) throw new IllegalStateException("Too many distinct sources in one corpus");
+            sourceNames.add(source);
+            idx = sourceNames.size() - 1;
+        }
+        return (byte) (idx + 1);
+    }
+
+    private void ensureRowCapacity(int rows) {
+        if (rows <= days.length) return;
+        int newRows = Math.max(rows, days.length + (days.length >> 1));
+        offsets = Arrays.copyOf(offsets, newRows + 1);
+        days = Arrays.copyOf(days, newRows);
+        sources = Arrays.copyOf(sources, newRows);
+    }
+
+    private void ensureByteCapacity(int bytes) {
+        if (bytes <= textBytes.length) return;
+        long grown = Math.max((long) bytes, textBytes.length + ((long) textBytes.length >> 1));
+        if (grown > Integer.MAX_VALUE - 8) {
+            if (bytes > Integer.MAX_VALUE - 8) throw new IllegalStateException("Corpus exceeds 2 GB of text");
+            grown = Integer.MAX_VALUE - 8;
+        }
+        textBytes = Arrays.copyOf(textBytes, (int) grown);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+    }
+}
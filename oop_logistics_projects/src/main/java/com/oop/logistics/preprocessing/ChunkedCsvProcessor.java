@@ -0,0 +1,138 @@
+package com.oop.logistics.preprocessing;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rewrites a big CSV record by record on several threads, keeping the record order.
+ *
+ * The input is memory-mapped and cut into chunks of about {@link #CHUNK_BYTES}. A cut is only
+ * made after a '\n' outside quotes, found by one sequential scan that tracks the quote parity
+ * (in UTF-8 '"' and '\n' are never part of a multi-byte character, so bytes can be scanned
+ * directly). Workers decode, parse, transform and re-encode whole chunks; the calling thread
+ * writes their results strictly in chunk order, with at most a few chunks per worker in
+ * flight so memory stays bounded.
+ *
+ * The output is byte-for-byte what a single {@link CsvReader}/{@link CsvWriter} pass produces:
+ * the header record is copied as read, every other record goes through {@code transform}.
+ */
+final class ChunkedCsvProcessor {
+
+    static final int CHUNK_BYTES = 2 << 20;
+    private static final int SCAN_WINDOW = 64 << 20;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private ChunkedCsvProcessor() {}
+
+    static void process(Path input, Path output, int threads, boolean quoteAll,
+                        UnaryOperator<List<String>> transform) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "csv-chunk-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            if (size == 0) return;
+
+            // Header: the first record, copied as read
+            long start = nextBoundary(in, 0, 0, size);
+            try (CsvReader header = new CsvReader(decode(in, 0, start)).keepRaw(true)) {
+                if (header.next()) write(out, (header.raw() + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+            }
+
+            // Reordering buffer: futures in chunk order, the oldest is written first
+            ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+            int maxInFlight = threads * 2;
+            while (start < size) {
+                long end = nextBoundary(in, start, start + CHUNK_BYTES, size);
+                long from = start;
+                inFlight.add(pool.submit(() -> transformChunk(in, from, end, quoteAll, transform)));
+                start = end;
+
+                if (inFlight.size() >= maxInFlight) write(out, await(inFlight.poll()));
+            }
+            while (!inFlight.isEmpty()) write(out, await(inFlight.poll()));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Position just after the first '\n' at or beyond {@code minEnd} that is outside quotes,
+     * scanning from {@code from} (a record boundary). Returns {@code size} if there is none.
+     */
+    static long nextBoundary(FileChannel in, long from, long minEnd, long size) throws IOException {
+        boolean quoted = false;
+        long position = from;
+        while (position < size) {
+            int length = (int) Math.min(SCAN_WINDOW, size - position);
+            MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted && position + i >= minEnd) {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    private static byte[] transformChunk(FileChannel in, long from, long to, boolean quoteAll,
+                                         UnaryOperator<List<String>> transform) throws IOException {
+        StringWriter text = new StringWriter((int) Math.min(Integer.MAX_VALUE / 2, (to - from) * 2));
+        try (CsvReader reader = new CsvReader(decode(in, from, to));
+             CsvWriter writer = new CsvWriter(text).quoteAll(quoteAll)) {
+            while (reader.next()) writer.writeRecord(transform.apply(reader.fields()));
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static CharArrayReader decode(FileChannel in, long from, long to) throws IOException {
+        // Same error handling as CsvReader.open: malformed bytes become U+FFFD
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = decoder.decode(in.map(FileChannel.MapMode.READ_ONLY, from, to - from));
+        return new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+    }
+
+    private static byte[] await(Future<byte[]> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing CSV chunks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("CSV chunk failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static void write(FileChannel out, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) out.write(buffer);
+    }
+}
@@ -0,0 +1,80 @@
+package com.oop.logistics.preprocessing;
+
+import java.text.Normalizer;
+
+/**
+ * 64-bit fingerprint of a text's normalized content, used to recognise the same
+ * comment/article when it is crawled again.
+ *
+ * Normalization: Unicode NFC, lower case, and only runs of letters/digits count
+ * (punctuation, emoji and whitespace differences are ignored). So "Cầu nguyện!!! 🙏"
+ * and "cầu   nguyện" share one hash.
+ */
+public final class ContentHash {
+
+    /** Returned for texts with no letters or digits at all. */
+    public static final long EMPTY = 0L;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ContentHash() {}
+
+    public static long of(String text) {
+        if (text == null || text.isEmpty()) return EMPTY;
+        String nfc = Normalizer.isNormalized(text, Normalizer.Form.NFC) ? text : Normalizer.normalize(text, Normalizer.Form.NFC);
+
+        long hash = FNV_OFFSET;
+        boolean any = false;
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < nfc.length(); ) {
+            int cp = nfc.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (Character.isLetterOrDigit(cp)) {
+                if (pendingSpace && any) hash = mix(hash, ' ');
+                hash = mix(hash, Character.toLowerCase(cp));
+                any = true;
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        if (!any) return EMPTY;
+
+        long h = finish(hash);
+        return h == EMPTY ? 1L : h; // keep EMPTY reserved
+    }
+
+    /** Hash of the text exactly as given (no normalization); EMPTY only for null/"". */
+    public static long exact(String text) {
+        if (text == null || text.isEmpty()) return EMPTY;
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        long h = finish(hash);
+        return h == EMPTY ? 1L : h;
+    }
+
+    private static long mix(long hash, int codePoint) {
+        // FNV-1a over the code point's bytes (up to 3 significant bytes)
+        hash = (hash ^ (codePoint & 0xFF)) * FNV_PRIME;
+        hash = (hash ^ ((codePoint >>> 8) & 0xFF)) * FNV_PRIME;
+        hash = (hash ^ (codePoint >>> 16)) * FNV_PRIME;
+        return hash;
+    }
+
+    private static long finish(long h) {
+        // MurmurHash3 fmix64: spreads FNV's weak low bits across the whole word
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
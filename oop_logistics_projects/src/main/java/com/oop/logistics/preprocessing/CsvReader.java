@@ -0,0 +1,222 @@
+package com.oop.logistics.preprocessing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming CSV reader (RFC 4180) shared by every CSV import/export of the app.
+ *
+ * One state machine walks a large char buffer, so a record is read in a single pass however
+ * many lines its quoted fields span - nothing is rescanned and only the current record is in
+ * memory. Like the hand-written parsers it replaces it is lenient: a quote in the middle of a
+ * field opens a quoted part too, line breaks inside quotes come back as '\n', and an
+ * unterminated quote at the end of the file just ends the last record. A blank line is a
+ * record with one empty field.
+ *
+ * <pre>
+ * try (CsvReader csv = CsvReader.open(path).selectColumns(0, 1)) {
+ *     csv.next(); // header
+ *     while (csv.next()) use(csv.get(0), csv.get(1));
+ * }
+ * </pre>
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+
+    private boolean[] selected;             // null = every column
+    private StringBuilder raw;              // text of the current record, when requested
+
+    private String[] fields = new String[16];
+    private int fieldCount = 0;
+    private char[] field = new char[256];
+    private int fieldLength = 0;
+    private long recordNumber = 0;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Opens a UTF-8 file through a file channel; malformed bytes are replaced, not fatal. */
+    public static CsvReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new CsvReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), BUFFER_SIZE));
+    }
+
+    /**
+     * Only these columns (0-based) are turned into Strings; the others are skipped while
+     * parsing and {@link #get} returns null for them. Call with no arguments to keep all.
+     */
+    public CsvReader selectColumns(int... columns) {
+        if (columns.length == 0) {
+            selected = null;
+            return this;
+        }
+        int max = Arrays.stream(columns).max().getAsInt();
+        selected = new boolean[max + 1];
+        for (int column : columns) selected[column] = true;
+        return this;
+    }
+
+    /** Also keep the text of each record (without its line break), for callers that copy rows unchanged. */
+    public CsvReader keepRaw(boolean keep) {
+        raw = keep ? new StringBuilder() : null;
+        return this;
+    }
+
+    /** Reads the next record. Returns false at the end of the input. */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        fieldLength = 0;
+        if (raw != null) raw.setLength(0);
+        if (!fill()) return false;
+
+        boolean quoted = false;
+        boolean quoteSeen = false; // inside quotes, the previous char was a quote
+        while (fill()) {
+            char c = buffer[position++];
+
+            if (quoted) {
+                if (quoteSeen) {
+                    quoteSeen = false;
+                    if (c == '"') {           // "" is an escaped quote
+                        append('"');
+                        appendRaw(c);
+                        continue;
+                    }
+                    quoted = false;           // closing quote, handle c as unquoted below
+                } else if (c == '"') {
+                    quoteSeen = true;
+                    appendRaw(c);
+                    continue;
+                } else {
+                    if (c == '\r') {
+                        skipLineFeed();
+                        c = '\n';
+                    }
+                    append(c);
+                    appendRaw(c);
+                    continue;
+                }
+            }
+
+            if (c == '"') {
+                quoted = true;
+                appendRaw(c);
+            } else if (c == ',') {
+                endField();
+                appendRaw(c);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') skipLineFeed();
+                endField();
+                recordNumber++;
+                return true;
+            } else {
+                append(c);
+                appendRaw(c);
+            }
+        }
+        if (quoted && !quoteSeen) {
+            // Unterminated quote: the file's final line break is not part of the field
+            if (fieldLength > 0 && field[fieldLength - 1] == '\n' && isSelected(fieldCount)) fieldLength--;
+            if (raw != null && raw.length() > 0 && raw.charAt(raw.length() - 1) == '\n') raw.setLength(raw.length() - 1);
+        }
+        endField();
+        recordNumber++;
+        return true;
+    }
+
+    /** Number of fields in the current record, selected or not. */
+    public int size() {
+        return fieldCount;
+    }
+
+    /** Field of the current record, or null if the record is shorter or the column is not selected. */
+    public String get(int column) {
+        return column < fieldCount ? fields[column] : null;
+    }
+
+    /** All fields of the current record (null for unselected columns). */
+    public List<String> fields() {
+        return new ArrayList<>(Arrays.asList(fields).subList(0, fieldCount));
+    }
+
+    /** Text of the current record; only available after {@code keepRaw(true)}. */
+    public String raw() {
+        if (raw == null) throw new IllegalStateException("keepRaw(true) was not set");
+        return raw.toString();
+    }
+
+    /** 1-based number of the current record, header included. */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // --- Internals ---
+
+    private boolean isSelected(int column) {
+        return selected == null || (column < selected.length && selected[column]);
+    }
+
+    private void append(char c) {
+        if (!isSelected(fieldCount)) return;
+        if (fieldLength == field.length) field = Arrays.copyOf(field, field.length * 2);
+        field[fieldLength++] = c;
+    }
+
+    private void appendRaw(char c) {
+        if (raw != null) raw.append(c);
+    }
+
+    private void endField() {
+        if (fieldCount == fields.length) fields = Arrays.copyOf(fields, fields.length * 2);
+        fields[fieldCount] = isSelected(fieldCount) ? new String(field, 0, fieldLength) : null;
+        fieldCount++;
+        fieldLength = 0;
+    }
+
+    /** Consumes the '\n' of a "\r\n" pair. */
+    private void skipLineFeed() throws IOException {
+        if (fill() && buffer[position] == '\n') position++;
+    }
+
+    /** Makes sure at least one char is buffered; false at the end of the input. */
+    private boolean fill() throws IOException {
+        if (position < limit) return true;
+        if (eof) return false;
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.oop.logistics.preprocessing;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming CSV writer, the counterpart of {@link CsvReader}.
+ *
+ * Output goes through a large char buffer to a file channel. Fields are quoted when they
+ * need it (comma, quote, line break) or always with {@code quoteAll(true)}; quotes inside a
+ * field are doubled. Records end with the platform line separator, like PrintWriter.println.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int length = 0;
+    private boolean quoteAll = false;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /** Creates (or truncates) a UTF-8 file. */
+    public static CsvWriter open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new CsvWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE));
+    }
+
+    public CsvWriter quoteAll(boolean quoteAll) {
+        this.quoteAll = quoteAll;
+        return this;
+    }
+
+    /** Writes one record; null fields are written empty. */
+    public void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) write(',');
+            writeField(fields.get(i));
+        }
+        writeLine("");
+    }
+
+    public void writeRecord(String... fields) throws IOException {
+        writeRecord(Arrays.asList(fields));
+    }
+
+    /** Writes an already encoded record (e.g. {@link CsvReader#raw()}) followed by a line break. */
+    public void writeLine(String line) throws IOException {
+        write(line);
+        write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    // --- Internals ---
+
+    private void writeField(String value) throws IOException {
+        if (value == null) value = "";
+        boolean quote = quoteAll || needsQuotes(value);
+        if (!quote) {
+            write(value);
+            return;
+        }
+        write('"');
+        int from = 0;
+        for (int i = value.indexOf('"'); i >= 0; i = value.indexOf('"', i + 1)) {
+            write(value, from, i + 1);
+            write('"');
+            from = i + 1;
+        }
+        write(value, from, value.length());
+        write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private void write(char c) throws IOException {
+        if (length == buffer.length) drain();
+        buffer[length++] = c;
+    }
+
+    private void write(String s) throws IOException {
+        write(s, 0, s.length());
+    }
+
+    private void write(String s, int from, int to) throws IOException {
+        while (from < to) {
+            if (length == buffer.length) drain();
+            int n = Math.min(to - from, buffer.length - length);
+            s.getChars(from, from + n, buffer, length);
+            length += n;
+            from += n;
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+}
@@ -1,70 +1,282 @@
 package com.oop.logistics.preprocessing;
 
 import com.oop.logistics.database.DatabaseManager;
+import com.oop.logistics.database.SchemaMigrations;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.HashSet;
-import java.util.Set;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
+/**
+ * Cleans, date-normalizes and de-duplicates the stored rows of one disaster/source.
+ *
+ * Rows are read in id order, one chunk at a time (keyset pagination), so memory stays
+ * bounded no matter how big the disaster is. Each chunk is split by id range across the
+ * fork-join pool for cleanText/formatDate, while this thread - the only writer - applies
+ * the previous chunk's UPDATE/DELETE batch in its own transaction.
+ * Duplicates are tracked as 64-bit hashes of the cleaned text, not as Strings.
+ *
+ * Runs are incremental: preprocess_state keeps the highest id already handled for each
+ * disaster/source, so only rows crawled since the last run are read. The CROSS JOINs pin the
+ * row table as the outer loop, making that a rowid range scan instead of a walk over every
+ * row of the disaster for each chunk. Rows from earlier runs
+ * are checked for duplicates through their stored clean_hash (an index lookup per new row).
+ *
+ * The locations of each cleaned row are extracted in the same fork-join pass and written to
+ * text_locations in the chunk's transaction (see LocationIndex), so hotspot analysis never has
+ * to rescan the texts.
+ *
+ * Rows that survive exact de-duplication are then matched against earlier texts of the
+ * disaster/source for near-duplicates (see NearDuplicateIndex). A near-duplicate is kept, so
+ * its date and locations still count, but points at its cluster's representative through
+ * duplicate_of; the analysis query sends the representative once with the cluster size as
+ * its weight, so the copies are not billed as separate model inferences.
+ */
 public class DatabasePreprocessor {
 
+    static final int CHUNK_SIZE = 2000;
+    private static final int SPLIT_THRESHOLD = 128; // rows per fork-join leaf task
+
+    // Highest id already handled for the disaster/source (0 when it was never preprocessed)
+    private static final String WATERMARK_SQL =
+        "COALESCE((SELECT s.last_id FROM preprocess_state s JOIN disasters sd ON s.disaster_id = sd.id " +
+        "WHERE sd.name = ? AND s.source_type = ?), 0)";
+
     public static void preprocessDisasterData(String disasterName, String sourceType) throws Exception {
-        String selectSql, updateSql, deleteSql;
+        preprocessDisasterData(disasterName, sourceType, null);
+    }
+
+    /**
+     * Same as above, reporting progress (0.0 - 1.0) after each written chunk.
+     * Progress is called from the preprocessing thread, the UI must hop to its own thread.
+     */
+    public static void preprocessDisasterData(String disasterName, String sourceType, Consumer<Double> onProgress) throws Exception {
+        String fromSql, selectSql, updateSql, deleteSql, processedSql;
 
         if ("News".equalsIgnoreCase(sourceType)) {
-            selectSql = "SELECT n.id, n.content, n.published_date FROM news n JOIN disasters d ON n.disaster_id = d.id WHERE d.name = ? AND n.source_type = ?";
-            updateSql = "UPDATE news SET content = ?, published_date = ? WHERE id = ?";
+            fromSql = "FROM news n CROSS JOIN disasters d ON n.disaster_id = d.id WHERE d.name = ? AND n.source_type = ? AND n.id > MAX(?, " + WATERMARK_SQL + ")";
+            selectSql = "SELECT n.id, n.content, n.published_date, d.id AS disaster_id " + fromSql + " ORDER BY n.id LIMIT ?";
+            updateSql = "UPDATE news SET content = ?1, published_date = ?2, published_day = " + SchemaMigrations.epochDaySql("?2") +
+                        ", clean_hash = ?3, duplicate_of = ?4 WHERE id = ?5";
             deleteSql = "DELETE FROM news WHERE id = ?";
+            processedSql = "SELECT 1 FROM news n JOIN disasters d ON n.disaster_id = d.id WHERE n.clean_hash = ? AND d.name = ? AND n.source_type = ? LIMIT 1";
         } else {
-            selectSql = "SELECT c.id, c.content, c.published_date FROM comments c JOIN news n ON c.news_id = n.id JOIN disasters d ON n.disaster_id = d.id WHERE d.name = ? AND n.source_type = ?";
-            updateSql = "UPDATE comments SET content = ?, published_date = ? WHERE id = ?";
+            fromSql = "FROM comments c CROSS JOIN news n ON c.news_id = n.id CROSS JOIN disasters d ON n.disaster_id = d.id WHERE d.name = ? AND n.source_type = ? AND c.id > MAX(?, " + WATERMARK_SQL + ")";
+            selectSql = "SELECT c.id, c.content, c.published_date, d.id AS disaster_id " + fromSql + " ORDER BY c.id LIMIT ?";
+            updateSql = "UPDATE comments SET content = ?1, published_date = ?2, published_day = " + SchemaMigrations.epochDaySql("?2") +
+                        ", clean_hash = ?3, duplicate_of = ?4 WHERE id = ?5";
             deleteSql = "DELETE FROM comments WHERE id = ?";
+            processedSql = "SELECT 1 FROM comments c JOIN news n ON c.news_id = n.id JOIN disasters d ON n.disaster_id = d.id WHERE c.clean_hash = ? AND d.name = ? AND n.source_type = ? LIMIT 1";
         }
+        String watermarkSql = "INSERT INTO preprocess_state(disaster_id, source_type, last_id) SELECT id, ?, ? FROM disasters WHERE name = ? " +
+                              "ON CONFLICT(disaster_id, source_type) DO UPDATE SET last_id = excluded.last_id, updated_at = CURRENT_TIMESTAMP";
+
+        LocationExtractor.Matcher locations = LocationExtractor.matcher();
+        LongHashSet seenTexts = new LongHashSet();
+        int processed = 0, duplicates = 0, nearDuplicates = 0;
+        long start = System.nanoTime();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // Chunks are read through a reader; the single writer is leased per chunk, only for its
+        // transaction, so crawls and caches can write in between
+        Map<Integer, long[]> shingleCache = NearDuplicateIndex.newShingleCache();
+        try (Connection readConn = DatabaseManager.getReadConnection();
+             PreparedStatement selectStmt = readConn.prepareStatement(selectSql)) {
+            int total = onProgress != null ? countRows(readConn, "SELECT COUNT(*) " + fromSql, disasterName, sourceType) : 0;
+            bindScope(selectStmt, disasterName, sourceType);
+
+            Chunk chunk = readChunk(selectStmt, 0, locations);
+            ForkJoinTask<?> cleaning = chunk.size > 0 ? pool.submit(new CleanTask(chunk, 0, chunk.size)) : null;
+
+            while (cleaning != null) {
+                cleaning.join();
+                Chunk cleaned = chunk;
+
+                // Start cleaning the next chunk while this one is written
+                chunk = cleaned.size < CHUNK_SIZE ? null : readChunk(selectStmt, cleaned.lastId(), locations);
+                cleaning = (chunk != null && chunk.size > 0) ? pool.submit(new CleanTask(chunk, 0, chunk.size)) : null;
+
+                try (Connection conn = DatabaseManager.getConnection();
+                     PreparedStatement updateStmt = conn.prepareStatement(updateSql);
+                     PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
+                     PreparedStatement processedStmt = conn.prepareStatement(processedSql);
+                     PreparedStatement watermarkStmt = conn.prepareStatement(watermarkSql);
+                     LocationIndex.Writer locationWriter = new LocationIndex.Writer(conn, sourceType, locations);
+                     NearDuplicateIndex.Writer clusterWriter = new NearDuplicateIndex.Writer(conn, sourceType, shingleCache)) {
+                    processedStmt.setString(2, disasterName);
+                    processedStmt.setString(3, sourceType);
+
+                    conn.setAutoCommit(false);
+                    try {
+                        clusterWriter.prefetch(cleaned.disasterId, cleaned.bands, cleaned.size);
+                        for (int i = 0; i < cleaned.size; i++) {
+                            // Detect and delete duplicates (first occurrence in id order wins,
+                            // rows kept by earlier runs always come first)
+                            if (cleaned.cleanTexts[i].isEmpty() || !seenTexts.add(cleaned.hashes[i])
+                                    || isAlreadyProcessed(processedStmt, cleaned.hashes[i])) {
+                                deleteStmt.setInt(1, cleaned.ids[i]);
+                                deleteStmt.addBatch();
+                                duplicates++;
+                            } else {
+                                // Near-duplicates join the cluster of the first similar text
+                                int representative = 0;
+                                if (cleaned.bands[i] != null) {
+                                    representative = clusterWriter.representative(cleaned.disasterId, cleaned.bands[i], cleaned.cleanTexts[i]);
+                                    if (representative == 0) {
+                                        clusterWriter.add(cleaned.disasterId, cleaned.ids[i], cleaned.bands[i], cleaned.cleanTexts[i]);
+                                    } else {
+                                        nearDuplicates++;
+                                    }
+                                }
+                                updateStmt.setString(1, cleaned.cleanTexts[i]);
+                                updateStmt.setString(2, cleaned.cleanDates[i]);
+                                updateStmt.setLong(3, cleaned.hashes[i]);
+                                if (representative == 0) updateStmt.setNull(4, Types.INTEGER);
+                                else updateStmt.setInt(4, representative);
+                                updateStmt.setInt(5, cleaned.ids[i]);
+                                updateStmt.addBatch();
+                                locationWriter.add(cleaned.disasterId, cleaned.ids[i], cleaned.locations[i]);
+                                processed++;
+                            }
+                        }
+                        updateStmt.executeBatch();
+                        deleteStmt.executeBatch();
+                        // After the UPDATEs: a text change drops the row's band keys (trigger)
+                        clusterWriter.flush();
+                        locationWriter.flush();
+                        locationWriter.advance(cleaned.disasterId, cleaned.lastId());
 
-        Set<String> seenTexts = new HashSet<>();
-        int processed = 0, duplicates = 0;
-
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-            
-            selectStmt.setString(1, disasterName);
-            selectStmt.setString(2, sourceType);
-            ResultSet rs = selectStmt.executeQuery();
-
-            try (PreparedStatement updateStmt = conn.prepareStatement(updateSql);
-                 PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
-                
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String rawText = rs.getString("content");
-                    String rawDate = rs.getString("published_date");
-
-                    // 1. Clean Text (Stopwords, punctuation, emojis) via ProcessCSV
-                    String cleanText = ProcessCSV.cleanText(rawText);
-                    
-                    // 2. Normalize Date via DateExtract
-                    String cleanDate = DateExtract.formatDateToDDMMYYYY(rawDate);
-
-                    // 3. Detect and Delete Duplicates
-                    if (cleanText.isEmpty() || seenTexts.contains(cleanText)) {
-                        deleteStmt.setInt(1, id);
-                        deleteStmt.addBatch();
-                        duplicates++;
-                    } else {
-                        seenTexts.add(cleanText);
-                        updateStmt.setString(1, cleanText);
-                        updateStmt.setString(2, cleanDate);
-                        updateStmt.setInt(3, id);
-                        updateStmt.addBatch();
-                        processed++;
+                        // Move the high-water mark in the same transaction as the chunk
+                        watermarkStmt.setString(1, sourceType);
+                        watermarkStmt.setInt(2, cleaned.lastId());
+                        watermarkStmt.setString(3, disasterName);
+                        watermarkStmt.executeUpdate();
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        if (cleaning != null) cleaning.cancel(true);
+                        throw e;
                     }
                 }
-                
-                updateStmt.executeBatch();
-                deleteStmt.executeBatch();
+
+                if (onProgress != null && total > 0) {
+                    onProgress.accept(Math.min(1.0, (processed + duplicates) / (double) total));
+                }
+            }
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (processed + duplicates == 0) {
+            System.out.println("✅ Preprocessing complete: no new " + sourceType + " rows since the last run.");
+            return;
+        }
+        System.out.println("✅ Preprocessing complete: Cleaned " + processed + " records, Removed " + duplicates + " duplicates, " +
+                "Grouped " + nearDuplicates + " near-duplicates. (" + millis + " ms)");
+    }
+
+    /** Binds the disaster/source pair used by the row filter and by the watermark subquery. */
+    private static void bindScope(PreparedStatement stmt, String disasterName, String sourceType) throws SQLException {
+        stmt.setString(1, disasterName);
+        stmt.setString(2, sourceType);
+        stmt.setInt(3, 0);
+        stmt.setString(4, disasterName);
+        stmt.setString(5, sourceType);
+    }
+
+    /** True if a row kept by an earlier run of this disaster/source has the same cleaned text. */
+    private static boolean isAlreadyProcessed(PreparedStatement processedStmt, long hash) throws SQLException {
+        processedStmt.setLong(1, hash);
+        try (ResultSet rs = processedStmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private static int countRows(Connection conn, String countSql, String disasterName, String sourceType) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(countSql)) {
+            bindScope(stmt, disasterName, sourceType);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /** Reads the next CHUNK_SIZE rows with id > afterId. */
+    private static Chunk readChunk(PreparedStatement selectStmt, int afterId, LocationExtractor.Matcher locations) throws SQLException {
+        selectStmt.setInt(3, afterId);
+        selectStmt.setInt(6, CHUNK_SIZE);
+        Chunk chunk = new Chunk(locations);
+        try (ResultSet rs = selectStmt.executeQuery()) {
+            while (chunk.size < CHUNK_SIZE && rs.next()) {
+                int i = chunk.size++;
+                chunk.ids[i] = rs.getInt("id");
+                chunk.rawTexts[i] = rs.getString("content");
+                chunk.rawDates[i] = rs.getString("published_date");
+                chunk.disasterId = rs.getInt("disaster_id");
+            }
+        }
+        return chunk;
+    }
+
+    /** One page of rows plus the cleaned results, filled in place by the fork-join tasks. */
+    private static final class Chunk {
+        final int[] ids = new int[CHUNK_SIZE];
+        final String[] rawTexts = new String[CHUNK_SIZE];
+        final String[] rawDates = new String[CHUNK_SIZE];
+        final String[] cleanTexts = new String[CHUNK_SIZE];
+        final String[] cleanDates = new String[CHUNK_SIZE];
+        final long[] hashes = new long[CHUNK_SIZE];
+        final int[][] locations = new int[CHUNK_SIZE][];
+        final long[][] bands = new long[CHUNK_SIZE][];
+        final LocationExtractor.Matcher matcher;
+        int disasterId;
+        int size = 0;
+
+        Chunk(LocationExtractor.Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        int lastId() { return ids[size - 1]; }
+    }
+
+    /** Splits [from, to) of a chunk until it is small enough, then cleans it. */
+    private static final class CleanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Chunk chunk;
+        private final int from, to;
+
+        CleanTask(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CleanTask(chunk, from, mid), new CleanTask(chunk, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                // 1. Clean Text (Stopwords, punctuation, emojis) via ProcessCSV
+                String cleanText = ProcessCSV.cleanText(chunk.rawTexts[i]);
+                chunk.cleanTexts[i] = cleanText;
+                chunk.hashes[i] = ContentHash.exact(cleanText);
+                chunk.locations[i] = chunk.matcher.find(cleanText);
+                chunk.bands[i] = NearDuplicateIndex.bands(cleanText);
+                // 2. Normalize Date via DateExtract
+                chunk.cleanDates[i] = DateExtract.formatDateToDDMMYYYY(chunk.rawDates[i]);
+                // Raw values are not needed any more
+                chunk.rawTexts[i] = null;
+                chunk.rawDates[i] = null;
             }
         }
-        System.out.println("✅ Preprocessing complete: Cleaned " + processed + " records, Removed " + duplicates + " duplicates.");
     }
-}
\ No newline at end of file
+}
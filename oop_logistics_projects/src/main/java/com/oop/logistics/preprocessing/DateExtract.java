@@ -1,8 +1,10 @@
 package com.oop.logistics.preprocessing;
 
-import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 public class DateExtract {
 
@@ -23,62 +25,48 @@ public class DateExtract {
             String date
     ) {
 
-        // Read logical CSV records (handle quoted fields that contain newlines)
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(inputCsv))) {
-            String raw;
-            StringBuilder buf = new StringBuilder();
-            while ((raw = br.readLine()) != null) {
-                if (buf.length() > 0) buf.append('\n');
-                buf.append(raw);
-
-                // Count quotes to detect record boundary. When quotes count is even, record likely complete.
-                int quoteCount = 0;
-                for (int i = 0; i < buf.length(); i++) if (buf.charAt(i) == '"') quoteCount++;
-
-                if (quoteCount % 2 == 0) {
-                    lines.add(buf.toString());
-                    buf.setLength(0);
-                }
-            }
-            if (buf.length() > 0) { // leftover (malformed file) -> add as-is
-                lines.add(buf.toString());
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("❌ Cannot read CSV file", e);
-        }
-
-        if (lines.isEmpty()) {
-            System.out.println("⚠ CSV file is empty");
-            return;
-        }
+        // Stream record by record (quoted fields may span lines) into a temp file next to the
+        // output, so inputCsv and outputCsv may be the same file
+        Path output = Paths.get(outputCsv).toAbsolutePath();
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
 
-        // Header stays untouched
-        String header = lines.get(0);
+        boolean empty;
+        try (CsvReader reader = CsvReader.open(Paths.get(inputCsv)).keepRaw(true);
+             CsvWriter writer = CsvWriter.open(temp)) {
 
-        List<String> output = new ArrayList<>();
-        output.add(header);
+            empty = !reader.next();
+            // Header stays untouched
+            if (!empty) writer.writeLine(reader.raw());
 
-        int dataRowIndex = 0; // counts data rows (excluding header)
+            int dataRowIndex = 0; // counts data rows (excluding header)
+            while (!empty && reader.next()) {
+                dataRowIndex++;
 
-        for (int i = 1; i < lines.size(); i++) {
-            String row = lines.get(i);
-            dataRowIndex++;
+                String row = reader.raw();
+                if (dataRowIndex >= fromIndex && dataRowIndex <= toIndex) {
+                    row = replaceDateColumn(row, date);
+                }
 
-            if (dataRowIndex >= fromIndex && dataRowIndex <= toIndex) {
-                row = replaceDateColumn(row, date);
+                // Preserve original row exactly (except when replaced above)
+                writer.writeLine(row);
             }
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new RuntimeException("❌ Cannot process CSV file", e);
+        }
 
-            // Preserve original row exactly (except when replaced above)
-            output.add(row);
+        if (empty) {
+            deleteQuietly(temp);
+            System.out.println("⚠ CSV file is empty");
+            return;
         }
 
-        try (PrintWriter pw = new PrintWriter(new FileWriter(outputCsv))) {
-            for (String l : output) {
-                pw.println(l);
-            }
+        try {
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             throw new RuntimeException("❌ Cannot write CSV file", e);
+        } finally {
+            deleteQuietly(temp);
         }
 
         System.out.printf(
@@ -87,6 +75,12 @@ public class DateExtract {
         );
     }
 
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {}
+    }
+
     /**
      * Replace the first CSV column (Date) safely
      */
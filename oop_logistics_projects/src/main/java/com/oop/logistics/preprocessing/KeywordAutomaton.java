@@ -0,0 +1,172 @@
+package com.oop.logistics.preprocessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed list of keywords.
+ *
+ * One left-to-right pass over the text reports every occurrence of every keyword, so the
+ * cost no longer grows with the size of the dictionary the way a contains() per keyword does.
+ * Transitions live in one open-addressing table keyed by (state, char) to avoid a map object
+ * per trie node. Matching is exact (case, accents); callers normalise both sides the same way.
+ *
+ * Immutable and thread-safe once built.
+ */
+public final class KeywordAutomaton {
+
+    /**
+     * Receives one occurrence: the keyword's index in the constructor list and the text span.
+     * A keyword listed twice is reported under its first index only.
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int keyword, int start, int end);
+    }
+
+    private final int[] lengths;       // keyword length by index
+    private final int[] fail;          // longest proper suffix state
+    private final int[] output;        // keyword ending exactly at the state, -1 if none
+    private final int[] nextOutput;    // nearest suffix state with an output (-1 if none)
+    private final int[] emptyKeywords; // "" matches everywhere, reported once at position 0
+
+    // Most characters of a text leave the root straight back to it, so the root has a direct
+    // table for the BMP range that covers Vietnamese; everything else goes through the hash table
+    private static final int ROOT_TABLE_SIZE = 0x2000;
+    private final int[] rootNext = new int[ROOT_TABLE_SIZE];
+
+    // (state << 16 | char) -> state
+    private final long[] edgeKeys;
+    private final int[] edgeTargets;
+    private final int edgeMask;
+
+    public KeywordAutomaton(List<String> keywords) {
+        lengths = new int[keywords.size()];
+
+        // 1. Trie
+        List<long[]> edges = new ArrayList<>();
+        int states = 1;
+        List<Integer> outputs = new ArrayList<>(List.of(-1));
+        List<Integer> empties = new ArrayList<>();
+        Map<Long, Integer> trie = new HashMap<>(); // only while inserting
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            lengths[k] = keyword.length();
+            if (keyword.isEmpty()) {
+                empties.add(k);
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                long key = ((long) state << 16) | c;
+                int next = trie.getOrDefault(key, -1);
+                if (next < 0) {
+                    next = states++;
+                    trie.put(key, next);
+                    edges.add(new long[]{state, c, next});
+                    outputs.add(-1);
+                }
+                state = next;
+            }
+            if (outputs.get(state) < 0) outputs.set(state, k);
+        }
+        emptyKeywords = empties.stream().mapToInt(Integer::intValue).toArray();
+
+        int capacity = Integer.highestOneBit(Math.max(4, edges.size() * 2 - 1)) << 1;
+        edgeKeys = new long[capacity];
+        edgeTargets = new int[capacity];
+        Arrays.fill(edgeKeys, -1L);
+        edgeMask = capacity - 1;
+        Arrays.fill(rootNext, -1);
+        for (long[] e : edges) {
+            putEdge((int) e[0], (char) e[1], (int) e[2]);
+            if (e[0] == 0 && e[1] < ROOT_TABLE_SIZE) rootNext[(int) e[1]] = (int) e[2];
+        }
+
+        output = outputs.stream().mapToInt(Integer::intValue).toArray();
+        fail = new int[states];
+        nextOutput = new int[states];
+        Arrays.fill(nextOutput, -1);
+
+        // 2. Failure links, breadth-first (edges were created in insertion order, so sort by depth)
+        int[] depth = new int[states];
+        List<List<long[]>> byDepth = new ArrayList<>();
+        for (long[] e : edges) {
+            int d = depth[(int) e[0]] + 1;
+            depth[(int) e[2]] = d;
+            while (byDepth.size() <= d) byDepth.add(new ArrayList<>());
+            byDepth.get(d).add(e);
+        }
+        for (List<long[]> level : byDepth) {
+            for (long[] e : level) {
+                int parent = (int) e[0], child = (int) e[2];
+                char c = (char) e[1];
+                int f = fail[parent];
+                int target = 0;
+                if (parent != 0) {
+                    while (true) {
+                        int next = edge(f, c);
+                        if (next >= 0) { target = next; break; }
+                        if (f == 0) break;
+                        f = fail[f];
+                    }
+                }
+                fail[child] = target;
+                nextOutput[child] = output[target] >= 0 ? target : nextOutput[target];
+            }
+        }
+    }
+
+    public int keywordCount() { return lengths.length; }
+
+    /** Reports every occurrence, overlapping ones included, in order of their end position. */
+    public void findAll(CharSequence text, MatchHandler handler) {
+        for (int k : emptyKeywords) handler.onMatch(k, 0, 0);
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = edge(state, c)) < 0 && state != 0) state = fail[state];
+            state = Math.max(next, 0);
+
+            for (int s = output[state] >= 0 ? state : nextOutput[state]; s >= 0; s = nextOutput[s]) {
+                int k = output[s];
+                handler.onMatch(k, i + 1 - lengths[k], i + 1);
+            }
+        }
+    }
+
+    /** Sets present[k] for every keyword k found in the text. */
+    public void markPresent(CharSequence text, boolean[] present) {
+        findAll(text, (k, start, end) -> present[k] = true);
+    }
+
+    private int edge(int state, char c) {
+        if (state == 0 && c < ROOT_TABLE_SIZE) return rootNext[c];
+        long key = ((long) state << 16) | c;
+        int slot = mix(key) & edgeMask;
+        while (true) {
+            long k = edgeKeys[slot];
+            if (k == key) return edgeTargets[slot];
+            if (k == -1L) return -1;
+            slot = (slot + 1) & edgeMask;
+        }
+    }
+
+    private void putEdge(int state, char c, int target) {
+        long key = ((long) state << 16) | c;
+        int slot = mix(key) & edgeMask;
+        while (edgeKeys[slot] != -1L) slot = (slot + 1) & edgeMask;
+        edgeKeys[slot] = key;
+        edgeTargets[slot] = target;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -2,95 +2,75 @@ package com.oop.logistics.preprocessing;
 
 import com.oop.logistics.config.KeywordManager;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.text.Normalizer;
 import java.util.*;
 
 /**
  * Extracts location information from text (Static Utility)
+ *
+ * All provinces and cities are compiled into one Aho-Corasick automaton, so a text is scanned
+ * once no matter how many locations are known. A match only counts on whole words ("Vinh" is not
+ * found inside "Vinhomes"), and each location maps to its display name through a precomputed
+ * table. With diacritic folding on, "ha noi" also finds Hà Nội.
  */
 public class LocationExtractor {
-    
-    private static final Set<String> provinces = new HashSet<>();
-    private static final Set<String> cities = new HashSet<>();
-    
+
+    private static final Set<String> provinces = new LinkedHashSet<>();
+    private static final Set<String> cities = new LinkedHashSet<>();
+
+    // Rebuilt lazily after the locations or the folding flag change
+    private static volatile Matcher matcher;
+    private static volatile boolean foldDiacritics = false;
+
     // Load data when the class is first accessed
     static {
         loadLocations();
     }
-    
+
     private LocationExtractor() {}
 
-    /**
-     * Traverses up the directory tree to reliably locate the external config file.
-     * This acts like Python's os.path manipulation.
-     */
-    private static String resolveConfigPath(String fileName) {
-        // Start at the current working directory
-        Path currentPath = Paths.get("").toAbsolutePath();
-        
-        while (currentPath != null) {
-            // Try matching exactly in the current directory
-            Path directPath = currentPath.resolve("external config").resolve(fileName);
-            if (Files.exists(directPath)) {
-                return directPath.toString();
-            }
-            
-            // Try matching inside the oop_logistics_projects subfolder
-            Path subfolderPath = currentPath.resolve("oop_logistics_projects").resolve("external config").resolve(fileName);
-            if (Files.exists(subfolderPath)) {
-                return subfolderPath.toString();
-            }
-            
-            // Move one directory up (os.path.dirname equivalent)
-            currentPath = currentPath.getParent();
-        }
-        
-        // Fallback if not found (will let the system throw a standard IOException later)
-        return "external config/" + fileName;
-    }
-    
     public static void loadLocations() {
         KeywordManager manager = new KeywordManager();
-        String resolvedPath = resolveConfigPath("location_keywords.json");
-        
+        String resolvedPath = KeywordManager.resolveConfigPath("location_keywords.json");
+
         try {
             manager.loadFromJson(resolvedPath);
-            provinces.clear();
-            cities.clear();
-            provinces.addAll(manager.getKeywords("province"));
-            cities.addAll(manager.getKeywords("city"));
+            synchronized (LocationExtractor.class) {
+                provinces.clear();
+                cities.clear();
+                provinces.addAll(manager.getKeywords("province"));
+                cities.addAll(manager.getKeywords("city"));
+                matcher = null;
+            }
         } catch (IOException e) {
             System.err.println("Failed to load location keywords from " + resolvedPath + ": " + e.getMessage());
         }
     }
-    
+
     /**
-     * Extract all possible locations from text, case-insensitive and deduplicated.
+     * Also match texts written without accents ("ha noi", "da nang"). Off by default: folded
+     * names can collide with ordinary words, which the exact match never does.
+     */
+    public static void setFoldDiacritics(boolean fold) {
+        synchronized (LocationExtractor.class) {
+            foldDiacritics = fold;
+            matcher = null;
+        }
+    }
+
+    /**
+     * Extract all possible locations from text, case-insensitive and deduplicated,
+     * in order of first mention.
      */
     public static List<String> extractAllLocations(String text) {
-        Set<String> uniqueLocations = new HashSet<>();
-        
         if (text == null || text.isEmpty()) return new ArrayList<>();
-        
-        // Convert text to lowercase once for faster, case-insensitive searching
-        String lowerText = text.toLowerCase();
-        
-        for (String province : provinces) {
-            if (lowerText.contains(province.toLowerCase())) {
-                uniqueLocations.add(capitalizeWords(province));
-            }
-        }
-        for (String city : cities) {
-            if (lowerText.contains(city.toLowerCase())) {
-                uniqueLocations.add(capitalizeWords(city));
-            }
-        }
-        
-        return new ArrayList<>(uniqueLocations);
+
+        Matcher m = matcher();
+        List<String> locations = new ArrayList<>();
+        for (int k : m.find(text)) locations.add(m.name(k));
+        return locations;
     }
-    
+
     /**
      * Helper to ensure all locations are formatted beautifully for the UI (e.g. "bắc ninh" -> "Bắc Ninh")
      */
@@ -98,7 +78,7 @@ public class LocationExtractor {
         if (text == null || text.isEmpty()) return "";
         String[] words = text.split("\\s+");
         StringBuilder capitalized = new StringBuilder();
-        
+
         for (String word : words) {
             if (word.length() > 0) {
                 capitalized.append(Character.toUpperCase(word.charAt(0)))
@@ -108,19 +88,132 @@ public class LocationExtractor {
         }
         return capitalized.toString().trim();
     }
-    
+
     /**
      * Add custom location to the recognizer in memory
      */
     public static void addProvince(String province) {
         if (province != null && !province.trim().isEmpty()) {
-            provinces.add(province.trim());
+            synchronized (LocationExtractor.class) {
+                provinces.add(province.trim());
+                matcher = null;
+            }
         }
     }
-    
+
     public static void addCity(String city) {
         if (city != null && !city.trim().isEmpty()) {
-            cities.add(city.trim());
+            synchronized (LocationExtractor.class) {
+                cities.add(city.trim());
+                matcher = null;
+            }
+        }
+    }
+
+    // --- Matching internals ---
+
+    /**
+     * Compiled automaton plus the display name of each of its keywords. Immutable, so code that
+     * counts over many texts (LocationIndex) takes one and uses it for the whole run.
+     */
+    static final class Matcher {
+        private static final int[] NONE = new int[0];
+
+        private final KeywordAutomaton automaton;
+        private final String[] names;
+        private final boolean folded;
+        private final long fingerprint;
+
+        Matcher(KeywordAutomaton automaton, String[] names, boolean folded) {
+            this.automaton = automaton;
+            this.names = names;
+            this.folded = folded;
+            this.fingerprint = ContentHash.exact(folded + "\u0001" + String.join("\u0001", names));
+        }
+
+        /** Number of distinct locations; location ids are 0 .. size() - 1. */
+        int size() { return names.length; }
+
+        String name(int location) { return names[location]; }
+
+        /** Changes whenever the location list or the folding flag changes; stored with persisted results. */
+        long fingerprint() { return fingerprint; }
+
+        /** Ids of the locations mentioned in the text, deduplicated, in order of first mention. */
+        int[] find(String text) {
+            if (text == null || text.isEmpty()) return NONE;
+            String normalized = normalize(text, folded);
+            int[][] found = { NONE };
+            int[] count = { 0 };
+            automaton.findAll(normalized, (k, start, end) -> {
+                if (!isWordBoundary(normalized, start - 1) || !isWordBoundary(normalized, end)) return;
+                int[] ids = found[0];
+                for (int i = 0; i < count[0]; i++) {
+                    if (ids[i] == k) return;
+                }
+                if (count[0] == ids.length) found[0] = ids = Arrays.copyOf(ids, Math.max(4, ids.length * 2));
+                ids[count[0]++] = k;
+            });
+            return count[0] == found[0].length ? found[0] : Arrays.copyOf(found[0], count[0]);
+        }
+    }
+
+    static Matcher matcher() {
+        Matcher m = matcher;
+        if (m != null) return m;
+        synchronized (LocationExtractor.class) {
+            if (matcher == null) {
+                // Provinces first, so a name listed as both keeps the province spelling
+                Map<String, String> byKey = new LinkedHashMap<>();
+                for (Set<String> locations : List.of(provinces, cities)) {
+                    for (String location : locations) {
+                        byKey.putIfAbsent(normalize(location, foldDiacritics), capitalizeWords(location));
+                    }
+                }
+                matcher = new Matcher(new KeywordAutomaton(new ArrayList<>(byKey.keySet())),
+                                      byKey.values().toArray(new String[0]), foldDiacritics);
+            }
+            return matcher;
+        }
+    }
+
+    private static boolean isWordBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    /** Lower case (NFC), and with folding also without accents and with đ -> d. */
+    static String normalize(String text, boolean fold) {
+        if (!Normalizer.isNormalized(text, Normalizer.Form.NFC)) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (!fold) return lower;
+
+        char[] out = new char[lower.length()];
+        int n = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c >= '\u0300' && c <= '\u036F') continue; // stray combining mark
+            out[n++] = c < Folding.TABLE.length ? Folding.TABLE[c] : c;
+        }
+        return new String(out, 0, n);
+    }
+
+    /** Base letter of every precomposed Latin character (Vietnamese lives in 00C0-024F and 1E00-1EFF). */
+    private static final class Folding {
+        static final char[] TABLE = new char[0x1F00];
+
+        static {
+            for (int c = 0; c < TABLE.length; c++) {
+                TABLE[c] = (char) c;
+                boolean latin = (c >= 0x00C0 && c <= 0x024F) || c >= 0x1E00;
+                if (latin) {
+                    String decomposed = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFD);
+                    TABLE[c] = decomposed.charAt(0);
+                }
+            }
+            TABLE['đ'] = 'd';
+            TABLE['Đ'] = 'D';
         }
     }
-}
\ No newline at end of file
+}
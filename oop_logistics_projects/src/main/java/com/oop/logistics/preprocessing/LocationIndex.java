@@ -0,0 +1,325 @@
+package com.oop.logistics.preprocessing;
+
+import com.oop.logistics.database.DatabaseManager;
+import com.oop.logistics.models.TextCorpus;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Location hotspots: how many texts of a disaster/source mention each location.
+ *
+ * For stored data the locations of every row are extracted once and kept in text_locations
+ * (see SchemaMigrations v7). DatabasePreprocessor writes them for the rows it cleans and
+ * {@link #update} catches up on anything newer than the location_state watermark, so asking
+ * for the hotspots again is a single GROUP BY on idx_text_locations_scope.
+ * Editing location_keywords.json changes the location fingerprint, which re-indexes the
+ * disaster/source on the next update.
+ *
+ * In-memory corpora (CSV loads) are counted with a fork-join reduction instead.
+ */
+public class LocationIndex {
+
+    static final int CHUNK_SIZE = 2000;
+    private static final int SPLIT_THRESHOLD = 256; // texts per fork-join leaf task
+
+    private LocationIndex() {}
+
+    /**
+     * Extracts the locations of every row of the disaster/source that is not indexed yet.
+     * Returns the number of rows read. Progress (0.0 - 1.0) is reported after each chunk.
+     */
+    public static int update(String disasterName, String sourceType, Consumer<Double> onProgress) throws SQLException {
+        boolean news = isNews(sourceType);
+        String fromSql = news
+            ? "FROM news n WHERE n.disaster_id = ? AND n.source_type = ? AND n.id > ?"
+            : "FROM comments c CROSS JOIN news n ON c.news_id = n.id WHERE n.disaster_id = ? AND n.source_type = ? AND c.id > ?";
+        String rowId = news ? "n.id" : "c.id";
+        String selectSql = "SELECT " + rowId + ", " + (news ? "n" : "c") + ".content " + fromSql + " ORDER BY " + rowId + " LIMIT ?";
+
+        LocationExtractor.Matcher matcher = LocationExtractor.matcher();
+        long start = System.nanoTime();
+        int indexed = 0;
+
+        // The writer is leased for the watermark check and then once per chunk, never for the
+        // whole run: rows are read through a reader so other writers get their turn in between
+        int disasterId, lastId;
+        try (Connection conn = DatabaseManager.getConnection();
+             Writer writer = new Writer(conn, sourceType, matcher)) {
+            disasterId = disasterId(conn, disasterName);
+            if (disasterId < 0) return 0;
+
+            lastId = writer.watermark(disasterId);
+            if (lastId < 0) {
+                // Never indexed, or indexed with another location list: start over
+                conn.setAutoCommit(false);
+                writer.clear(disasterId);
+                conn.commit();
+                lastId = 0;
+            }
+        }
+
+        try (Connection readConn = DatabaseManager.getReadConnection();
+             PreparedStatement selectStmt = readConn.prepareStatement(selectSql)) {
+            int total = onProgress != null ? countRows(readConn, "SELECT COUNT(*) " + fromSql, disasterId, sourceType, lastId) : 0;
+
+            selectStmt.setInt(1, disasterId);
+            selectStmt.setString(2, sourceType);
+            selectStmt.setInt(4, CHUNK_SIZE);
+
+            while (true) {
+                selectStmt.setInt(3, lastId);
+                int[] ids = new int[CHUNK_SIZE];
+                String[] texts = new String[CHUNK_SIZE];
+                int size = 0;
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    while (size < CHUNK_SIZE && rs.next()) {
+                        ids[size] = rs.getInt(1);
+                        texts[size++] = rs.getString(2);
+                    }
+                }
+                if (size == 0) break;
+
+                int[][] found = new int[size][];
+                IntStream.range(0, size).parallel().forEach(i -> found[i] = matcher.find(texts[i]));
+
+                try (Connection conn = DatabaseManager.getConnection();
+                     Writer writer = new Writer(conn, sourceType, matcher)) {
+                    conn.setAutoCommit(false);
+                    try {
+                        for (int i = 0; i < size; i++) writer.add(disasterId, ids[i], found[i]);
+                        writer.flush();
+                        lastId = ids[size - 1];
+                        writer.setWatermark(disasterId, lastId);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                }
+
+                indexed += size;
+                if (onProgress != null && total > 0) onProgress.accept(Math.min(1.0, indexed / (double) total));
+                if (size < CHUNK_SIZE) break;
+            }
+        }
+
+        if (indexed > 0) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("📍 Indexed locations of " + indexed + " " + sourceType + " rows. (" + millis + " ms)");
+        }
+        return indexed;
+    }
+
+    /**
+     * The most mentioned locations of an indexed disaster/source, by number of texts that
+     * mention them (call {@link #update} first). Highest count first, ties by name.
+     */
+    public static List<Map.Entry<String, Integer>> topLocations(String disasterName, String sourceType, int limit) throws SQLException {
+        String sql = "SELECT l.location, COUNT(*) AS mentions FROM text_locations l " +
+                     "JOIN disasters d ON l.disaster_id = d.id " +
+                     "WHERE d.name = ? AND l.source_type = ? " +
+                     "GROUP BY l.location ORDER BY mentions DESC, l.location LIMIT ?";
+
+        List<Map.Entry<String, Integer>> top = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, disasterName);
+            stmt.setString(2, sourceType);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) top.add(Map.entry(rs.getString(1), rs.getInt(2)));
+            }
+        }
+        return top;
+    }
+
+    /** Same as above for an in-memory corpus: every text is scanned once, in parallel. */
+    public static List<Map.Entry<String, Integer>> topLocations(TextCorpus corpus, int limit) {
+        LocationExtractor.Matcher matcher = LocationExtractor.matcher();
+        long[] counts = ForkJoinPool.commonPool().invoke(new CountTask(corpus, matcher, 0, corpus.size()));
+
+        List<Map.Entry<String, Integer>> top = new ArrayList<>();
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] > 0) top.add(Map.entry(matcher.name(k), (int) counts[k]));
+        }
+        top.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    static boolean isNews(String sourceType) {
+        return "News".equalsIgnoreCase(sourceType);
+    }
+
+    private static int disasterId(Connection conn, String disasterName) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM disasters WHERE name = ?")) {
+            stmt.setString(1, disasterName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    private static int countRows(Connection conn, String countSql, int disasterId, String sourceType, int afterId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(countSql)) {
+            stmt.setInt(1, disasterId);
+            stmt.setString(2, sourceType);
+            stmt.setInt(3, afterId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Writes locations of one source type, inside the caller's transaction. Shared with
+     * DatabasePreprocessor so cleaned rows are indexed in the same commit as their new text.
+     */
+    static final class Writer implements AutoCloseable {
+        private final String sourceType;
+        private final String table;
+        private final LocationExtractor.Matcher matcher;
+        private final PreparedStatement insertStmt;
+        private final PreparedStatement stateStmt;
+        private final PreparedStatement advanceStmt;
+        private final PreparedStatement seedStmt;
+
+        Writer(Connection conn, String sourceType, LocationExtractor.Matcher matcher) throws SQLException {
+            this.sourceType = sourceType;
+            this.table = isNews(sourceType) ? "news" : "comments";
+            this.matcher = matcher;
+            // A row whose text changed already lost its old locations (trigger), so inserting is enough
+            this.insertStmt = conn.prepareStatement("INSERT OR IGNORE INTO text_locations(source_table, row_id, disaster_id, source_type, location) VALUES(?,?,?,?,?)");
+            this.stateStmt = conn.prepareStatement("INSERT INTO location_state(disaster_id, source_type, last_id, dictionary_hash) VALUES(?,?,?,?) " +
+                    "ON CONFLICT(disaster_id, source_type) DO UPDATE SET last_id = excluded.last_id, dictionary_hash = excluded.dictionary_hash, updated_at = CURRENT_TIMESTAMP");
+            // Only follows the preprocessor when the index already covers every row it handled before
+            this.advanceStmt = conn.prepareStatement("UPDATE location_state SET last_id = ?, updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE disaster_id = ? AND source_type = ? AND dictionary_hash = ? AND last_id < ? " +
+                    "AND last_id >= COALESCE((SELECT p.last_id FROM preprocess_state p WHERE p.disaster_id = ? AND p.source_type = ?), 0)");
+            // ...or starts the index, when this is the preprocessor's very first chunk
+            this.seedStmt = conn.prepareStatement("INSERT OR IGNORE INTO location_state(disaster_id, source_type, last_id, dictionary_hash) SELECT ?, ?, ?, ? " +
+                    "WHERE COALESCE((SELECT p.last_id FROM preprocess_state p WHERE p.disaster_id = ? AND p.source_type = ?), 0) = 0");
+        }
+
+        /** Highest indexed row id, or -1 if the disaster/source was never indexed with the current location list. */
+        int watermark(int disasterId) throws SQLException {
+            try (PreparedStatement stmt = insertStmt.getConnection().prepareStatement(
+                    "SELECT last_id, dictionary_hash FROM location_state WHERE disaster_id = ? AND source_type = ?")) {
+                stmt.setInt(1, disasterId);
+                stmt.setString(2, sourceType);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() && rs.getLong(2) == matcher.fingerprint() ? rs.getInt(1) : -1;
+                }
+            }
+        }
+
+        /** Drops every indexed location of the disaster/source and resets its watermark. */
+        void clear(int disasterId) throws SQLException {
+            try (PreparedStatement stmt = insertStmt.getConnection().prepareStatement(
+                    "DELETE FROM text_locations WHERE disaster_id = ? AND source_type = ?")) {
+                stmt.setInt(1, disasterId);
+                stmt.setString(2, sourceType);
+                stmt.executeUpdate();
+            }
+            setWatermark(disasterId, 0);
+        }
+
+        /** Queues the locations of a row (ids from the matcher). */
+        void add(int disasterId, int rowId, int[] locations) throws SQLException {
+            for (int k : locations) {
+                insertStmt.setString(1, table);
+                insertStmt.setInt(2, rowId);
+                insertStmt.setInt(3, disasterId);
+                insertStmt.setString(4, sourceType);
+                insertStmt.setString(5, matcher.name(k));
+                insertStmt.addBatch();
+            }
+        }
+
+        void flush() throws SQLException {
+            insertStmt.executeBatch();
+        }
+
+        void setWatermark(int disasterId, int lastId) throws SQLException {
+            stateStmt.setInt(1, disasterId);
+            stateStmt.setString(2, sourceType);
+            stateStmt.setInt(3, lastId);
+            stateStmt.setLong(4, matcher.fingerprint());
+            stateStmt.executeUpdate();
+        }
+
+        /**
+         * For the preprocessor, before it moves its own watermark past a chunk: every row up to
+         * toId is now indexed if the index covered everything the preprocessor had handled so far
+         * (or the preprocessor had handled nothing yet). Otherwise the watermark stays put and
+         * {@link LocationIndex#update} fills the gap later.
+         */
+        void advance(int disasterId, int toId) throws SQLException {
+            advanceStmt.setInt(1, toId);
+            advanceStmt.setInt(2, disasterId);
+            advanceStmt.setString(3, sourceType);
+            advanceStmt.setLong(4, matcher.fingerprint());
+            advanceStmt.setInt(5, toId);
+            advanceStmt.setInt(6, disasterId);
+            advanceStmt.setString(7, sourceType);
+            advanceStmt.executeUpdate();
+
+            seedStmt.setInt(1, disasterId);
+            seedStmt.setString(2, sourceType);
+            seedStmt.setInt(3, toId);
+            seedStmt.setLong(4, matcher.fingerprint());
+            seedStmt.setInt(5, disasterId);
+            seedStmt.setString(6, sourceType);
+            seedStmt.executeUpdate();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (insertStmt; stateStmt; advanceStmt; seedStmt) {
+                // closes all statements, even if one of them fails
+            }
+        }
+    }
+
+    /** Location counts of [from, to) of the corpus, split until small enough and summed on the way back. */
+    private static final class CountTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient TextCorpus corpus;
+        private final transient LocationExtractor.Matcher matcher;
+        private final int from, to;
+
+        CountTask(TextCorpus corpus, LocationExtractor.Matcher matcher, int from, int to) {
+            this.corpus = corpus;
+            this.matcher = matcher;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                CountTask left = new CountTask(corpus, matcher, from, mid);
+                left.fork();
+                long[] counts = new CountTask(corpus, matcher, mid, to).compute();
+                long[] leftCounts = left.join();
+                for (int k = 0; k < counts.length; k++) counts[k] += leftCounts[k];
+                return counts;
+            }
+            long[] counts = new long[matcher.size()];
+            for (int i = from; i < to; i++) {
+                for (int k : matcher.find(corpus.getText(i))) counts[k]++;
+            }
+            return counts;
+        }
+    }
+}
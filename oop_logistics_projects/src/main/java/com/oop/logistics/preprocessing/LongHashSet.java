@@ -0,0 +1,81 @@
+package com.oop.logistics.preprocessing;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive longs (linear probing).
+ * Around 8-16 bytes per entry instead of a boxed Long or a whole String in a HashSet.
+ * Not thread-safe.
+ */
+final class LongHashSet {
+
+    private static final long FREE = 0L;
+
+    private long[] slots;
+    private int size = 0;
+    private boolean containsFree = false; // 0 cannot live in the table, it marks an empty slot
+
+    LongHashSet() {
+        this(1024);
+    }
+
+    LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+        this.slots = new long[capacity];
+    }
+
+    /** Adds the value; returns false if it was already present. */
+    boolean add(long value) {
+        if (value == FREE) {
+            if (containsFree) return false;
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int i = spread(value) & mask;
+        while (slots[i] != FREE) {
+            if (slots[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size * 2 > slots.length) grow();
+        return true;
+    }
+
+    boolean contains(long value) {
+        if (value == FREE) return containsFree;
+        int mask = slots.length - 1;
+        int i = spread(value) & mask;
+        while (slots[i] != FREE) {
+            if (slots[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() { return size; }
+
+    void clear() {
+        Arrays.fill(slots, FREE);
+        size = 0;
+        containsFree = false;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value == FREE) continue;
+            int i = spread(value) & mask;
+            while (slots[i] != FREE) i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+
+    private static int spread(long value) {
+        long h = value * 0x9E3779B97F4A7C15L; // Fibonacci hashing, top bits are the best mixed
+        return (int) (h >>> 32);
+    }
+}
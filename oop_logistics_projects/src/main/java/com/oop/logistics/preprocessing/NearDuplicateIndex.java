@@ -0,0 +1,268 @@
+package com.oop.logistics.preprocessing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Finds near-duplicate texts (copy-pasted prayers, spam with one word changed) for the
+ * preprocessor, without comparing every pair.
+ *
+ * Each cleaned text gets a MinHash signature over its character 3-grams. The signature is cut
+ * into BANDS bands of ROWS values and every band is hashed to one key (LSH banding): two
+ * texts with Jaccard similarity s share at least one key with probability 1 - (1 - s^ROWS)^BANDS,
+ * about 95% at 0.75 and under 5% at 0.3. Rows sharing a key are only candidates; a candidate is
+ * confirmed by the exact Jaccard similarity of the two 3-gram sets.
+ *
+ * The keys of cluster representatives are stored in near_duplicate_bands (scoped to the
+ * disaster/source), so the rows of a chunk find their candidates with one query, whether the
+ * representative came from this run or an earlier one.
+ * Texts shorter than MIN_CHARS are left to exact de-duplication: a changed word in a short
+ * comment usually changes its meaning too.
+ */
+final class NearDuplicateIndex {
+
+    static final int MIN_CHARS = 40;
+    static final double THRESHOLD = 0.75;
+    static final int BANDS = 8;
+    static final int ROWS = 4;
+    private static final int HASHES = BANDS * ROWS;
+    private static final int SHINGLE = 3;
+    private static final int MAX_CANDIDATES = 8; // verified per row, best band overlap first
+    private static final int MAX_PER_BAND = 16;  // rows kept per band key, bounds a crowded bucket
+    private static final int CACHED_SHINGLES = 1024; // representatives whose 3-grams are kept between rows
+
+    // Fixed seeds: band keys are persisted, so they must not change between runs
+    private static final int[] MULTIPLIERS = new int[HASHES];
+    private static final int[] OFFSETS = new int[HASHES];
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextInt() | 1;
+            OFFSETS[i] = random.nextInt();
+        }
+    }
+
+    private NearDuplicateIndex() {}
+
+    /** LSH band keys of a cleaned text (not yet scoped), or null if it is too short to compare. */
+    static long[] bands(String text) {
+        if (text == null || text.length() < MIN_CHARS) return null;
+
+        int[] shingles = new int[text.length() - SHINGLE + 1];
+        for (int i = 0; i < shingles.length; i++) shingles[i] = (int) shingle(text, i);
+
+        // One min-reduction per hash function (32-bit multiply-add family, 31 bits kept so a
+        // signed min works). A tight int loop over an array, which the JIT turns into SIMD.
+        int[] signature = new int[HASHES];
+        for (int h = 0; h < HASHES; h++) {
+            int multiplier = MULTIPLIERS[h], offset = OFFSETS[h];
+            int min = Integer.MAX_VALUE;
+            for (int shingle : shingles) min = Math.min(min, (shingle * multiplier + offset) >>> 1);
+            signature[h] = min;
+        }
+
+        long[] bands = new long[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            long hash = b + 1;
+            for (int r = 0; r < ROWS; r++) hash = hash * 0x9E3779B97F4A7C15L + signature[b * ROWS + r];
+            bands[b] = mix(hash);
+        }
+        return bands;
+    }
+
+    /** Exact Jaccard similarity of the 3-gram sets of two texts. */
+    static double similarity(String a, String b) {
+        return similarity(shingles(a), shingles(b));
+    }
+
+    private static double similarity(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) return 0;
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) { common++; i++; j++; }
+            else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return common / (double) (a.length + b.length - common);
+    }
+
+    /** Sorted, distinct 3-gram hashes. */
+    private static long[] shingles(String text) {
+        if (text == null || text.length() < SHINGLE) return new long[0];
+        long[] hashes = new long[text.length() - SHINGLE + 1];
+        for (int i = 0; i < hashes.length; i++) hashes[i] = shingle(text, i);
+        Arrays.sort(hashes);
+        int distinct = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) hashes[distinct++] = hashes[i];
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    private static long shingle(String text, int at) {
+        return mix(((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2));
+    }
+
+    private static long mix(long h) {
+        // MurmurHash3 fmix64
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** Popular representatives are candidates again and again: this keeps their 3-gram sets (LRU). */
+    static Map<Integer, long[]> newShingleCache() {
+        return new LinkedHashMap<>(CACHED_SHINGLES * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+                return size() > CACHED_SHINGLES;
+            }
+        };
+    }
+
+    /**
+     * Cluster lookups and representative keys for one preprocessing chunk, on the caller's
+     * connection and transaction. Per chunk: prefetch() reads every stored key the chunk's rows
+     * hit in one query, representative()/add() run row by row, flush() writes the new keys.
+     * Representatives added since the last flush() are also kept in memory: their cleaned text
+     * is not written yet, and their keys are not in the table.
+     */
+    static final class Writer implements AutoCloseable {
+        private final String table;
+        private final long scopeSalt;
+        private final PreparedStatement candidateStmt;
+        private final PreparedStatement contentStmt;
+        private final PreparedStatement insertStmt;
+        private final Map<Long, List<Integer>> storedKeys = new HashMap<>();
+        private final Map<Long, Integer> pendingKeys = new HashMap<>();
+        private final Map<Integer, String> pendingTexts = new HashMap<>();
+        private final Map<Integer, long[]> shingleCache;
+
+        Writer(Connection conn, String sourceType) throws SQLException {
+            this(conn, sourceType, newShingleCache());
+        }
+
+        /** With a cache from {@link #newShingleCache()} that outlives this writer (one writer per chunk). */
+        Writer(Connection conn, String sourceType, Map<Integer, long[]> shingleCache) throws SQLException {
+            this.shingleCache = shingleCache;
+            this.table = "News".equalsIgnoreCase(sourceType) ? "news" : "comments";
+            this.scopeSalt = ContentHash.exact(table + '\u0000' + sourceType);
+            // The CROSS JOIN keeps the key list outside, so each key is one primary key lookup
+            this.candidateStmt = conn.prepareStatement(
+                    "SELECT b.band_key, b.row_id FROM json_each(?) j " +
+                    "CROSS JOIN near_duplicate_bands b ON b.band_key = j.value AND b.source_table = ?");
+            this.contentStmt = conn.prepareStatement("SELECT content FROM " + table + " WHERE id = ?");
+            this.insertStmt = conn.prepareStatement(
+                    "INSERT OR IGNORE INTO near_duplicate_bands(band_key, source_table, row_id) VALUES(?, ?, ?)");
+        }
+
+        /** Loads the stored representatives sharing a key with any of the first {@code size} rows. */
+        void prefetch(int disasterId, long[][] bands, int size) throws SQLException {
+            storedKeys.clear();
+            StringBuilder json = new StringBuilder("[");
+            Set<Long> distinct = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                if (bands[i] == null) continue;
+                for (long key : scoped(disasterId, bands[i])) {
+                    if (!distinct.add(key)) continue;
+                    if (json.length() > 1) json.append(',');
+                    json.append(key);
+                }
+            }
+            if (distinct.isEmpty()) return;
+
+            candidateStmt.setString(1, json.append(']').toString());
+            candidateStmt.setString(2, table);
+            try (ResultSet rs = candidateStmt.executeQuery()) {
+                while (rs.next()) {
+                    List<Integer> ids = storedKeys.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>());
+                    if (ids.size() < MAX_PER_BAND) ids.add(rs.getInt(2));
+                }
+            }
+        }
+
+        /** Id of the representative this text is a near-duplicate of, or 0 if it starts its own cluster. */
+        int representative(int disasterId, long[] bands, String text) throws SQLException {
+            // Rows sharing a band with this text, stored or from this chunk
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (long key : scoped(disasterId, bands)) {
+                for (int id : storedKeys.getOrDefault(key, List.of())) shared.merge(id, 1, Integer::sum);
+                Integer pending = pendingKeys.get(key);
+                if (pending != null) shared.merge(pending, 1, Integer::sum);
+            }
+            if (shared.isEmpty()) return 0;
+
+            // Most shared bands first, then the oldest row
+            List<Map.Entry<Integer, Integer>> candidates = new ArrayList<>(shared.entrySet());
+            candidates.sort((a, b) -> a.getValue().equals(b.getValue()) ? Integer.compare(a.getKey(), b.getKey()) : b.getValue() - a.getValue());
+            long[] mine = shingles(text);
+            for (int c = 0; c < Math.min(MAX_CANDIDATES, candidates.size()); c++) {
+                int id = candidates.get(c).getKey();
+                if (similarity(mine, representativeShingles(id)) >= THRESHOLD) return id;
+            }
+            return 0;
+        }
+
+        /** Registers a row as the representative of a new cluster. */
+        void add(int disasterId, int rowId, long[] bands, String text) throws SQLException {
+            for (long key : scoped(disasterId, bands)) {
+                insertStmt.setLong(1, key);
+                insertStmt.setString(2, table);
+                insertStmt.setInt(3, rowId);
+                insertStmt.addBatch();
+                pendingKeys.putIfAbsent(key, rowId);
+            }
+            pendingTexts.put(rowId, text);
+        }
+
+        /** Writes the staged keys; call after the chunk's cleaned texts are written. */
+        void flush() throws SQLException {
+            insertStmt.executeBatch();
+            pendingKeys.clear();
+            pendingTexts.clear();
+        }
+
+        private long[] scoped(int disasterId, long[] bands) {
+            long salt = mix(scopeSalt + disasterId * 0x9E3779B97F4A7C15L);
+            long[] keys = new long[bands.length];
+            for (int b = 0; b < bands.length; b++) keys[b] = mix(bands[b] ^ salt);
+            return keys;
+        }
+
+        private long[] representativeShingles(int id) throws SQLException {
+            long[] cached = shingleCache.get(id);
+            if (cached != null) return cached;
+            String text = pendingTexts.get(id);
+            if (text == null) {
+                contentStmt.setInt(1, id);
+                try (ResultSet rs = contentStmt.executeQuery()) {
+                    text = rs.next() ? rs.getString(1) : null;
+                }
+            }
+            long[] shingles = shingles(text);
+            shingleCache.put(id, shingles);
+            return shingles;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (candidateStmt; contentStmt; insertStmt) {
+                // closes all statements, even if one of them fails
+            }
+        }
+    }
+}
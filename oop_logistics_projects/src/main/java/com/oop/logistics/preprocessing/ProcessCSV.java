@@ -2,12 +2,29 @@ package com.oop.logistics.preprocessing;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class ProcessCSV {
 
     // Danh sách từ dừng sẽ được nạp từ file stopwords.txt
     private static final Set<String> STOP_WORDS = new HashSet<>();
+    // Same words in an open-addressing table, looked up straight from a char buffer (no String per word)
+    private static StopWordTable stopWordTable = new StopWordTable(STOP_WORDS);
+
+    // cleanText keeps letters, numbers, punctuation and separators (\p{L}\p{N}\p{P}\p{Z})
+    private static final int LETTER_OR_NUMBER =
+        (1 << Character.UPPERCASE_LETTER) | (1 << Character.LOWERCASE_LETTER) | (1 << Character.TITLECASE_LETTER) |
+        (1 << Character.MODIFIER_LETTER) | (1 << Character.OTHER_LETTER) |
+        (1 << Character.DECIMAL_DIGIT_NUMBER) | (1 << Character.LETTER_NUMBER) | (1 << Character.OTHER_NUMBER);
+    private static final int KEPT = LETTER_OR_NUMBER |
+        (1 << Character.CONNECTOR_PUNCTUATION) | (1 << Character.DASH_PUNCTUATION) | (1 << Character.START_PUNCTUATION) |
+        (1 << Character.END_PUNCTUATION) | (1 << Character.INITIAL_QUOTE_PUNCTUATION) | (1 << Character.FINAL_QUOTE_PUNCTUATION) |
+        (1 << Character.OTHER_PUNCTUATION) |
+        (1 << Character.SPACE_SEPARATOR) | (1 << Character.LINE_SEPARATOR) | (1 << Character.PARAGRAPH_SEPARATOR);
+
+    // Per-thread scratch buffers for cleanText (the preprocessor runs it on every fork-join worker)
+    private static final ThreadLocal<Cleaner> CLEANER = ThreadLocal.withInitial(Cleaner::new);
 
     // Khối static này sẽ chạy một lần duy nhất khi lớp được nạp
     static {
@@ -32,64 +49,44 @@ public class ProcessCSV {
                     }
                 }
             }
+            stopWordTable = new StopWordTable(STOP_WORDS);
             System.out.println("✅ Đã nạp " + STOP_WORDS.size() + " từ dừng (stopwords).");
         } catch (IOException e) {
             System.err.println("⚠ Lỗi khi đọc file stopwords: " + e.getMessage());
         }
     }
 
+    // Files at least this big are cleaned in parallel chunks (see ChunkedCsvProcessor)
+    static final long PARALLEL_THRESHOLD_BYTES = 8L << 20;
+
     public static void processFile(String inputFile, String outputFile) {
+        boolean large = new File(inputFile).length() >= PARALLEL_THRESHOLD_BYTES;
+        processFile(inputFile, outputFile, large ? Runtime.getRuntime().availableProcessors() : 1);
+    }
+
+    /**
+     * Same as above with an explicit number of worker threads. With more than one the file is
+     * memory-mapped and cleaned in chunks on a worker pool; the output is identical either way.
+     */
+    public static void processFile(String inputFile, String outputFile, int threads) {
         File tempFile = new File(outputFile + ".tmp");
-        
-        try (
-            BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8));
-            PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8))
-        ) {
-            System.out.println("Đang xử lý file: " + inputFile);
-
-            String rawLine;
-            StringBuilder buffer = new StringBuilder();
-            boolean isHeader = true;
-
-            while ((rawLine = br.readLine()) != null) {
-                if (buffer.length() > 0) buffer.append('\n');
-                buffer.append(rawLine);
-
-                // Kiểm tra xem bản ghi CSV đã đầy đủ chưa (số lượng dấu ngoặc kép chẵn)
-                if (isRecordComplete(buffer.toString())) {
-                    String fullRecord = buffer.toString();
-                    
-                    if (isHeader) {
-                        pw.println(fullRecord); 
-                        isHeader = false;
-                    } else {
-                        List<String> columns = parseCsvRow(fullRecord);
-                        
-                        // Giả sử cột nội dung là cột thứ 3 (index 2)
-                        if (columns.size() >= 3) {
-                            String originalText = columns.get(2);
-                            String cleanedText = cleanText(originalText);
-                            columns.set(2, cleanedText);
-                        }
-
-                        pw.println(toCsvRow(columns));
-                    }
-                    buffer.setLength(0); // Xóa buffer cho dòng tiếp theo
-                }
-            }
-            
-            if (buffer.length() > 0) {
-                pw.println(buffer.toString());
-            }
+        long start = System.nanoTime();
 
+        try {
+            if (threads > 1) {
+                System.out.println("Đang xử lý file: " + inputFile + " (" + threads + " luồng)");
+                ChunkedCsvProcessor.process(Paths.get(inputFile), tempFile.toPath(), threads, true, ProcessCSV::cleanRecord);
+            } else {
+                System.out.println("Đang xử lý file: " + inputFile);
+                processSequentially(inputFile, tempFile);
+            }
         } catch (IOException e) {
             // In lỗi rõ ràng hơn thay vì ném RuntimeException
             System.err.println("❌ Lỗi xử lý file CSV: " + e.getMessage());
             e.printStackTrace();
             return;
         }
+        long millis = (System.nanoTime() - start) / 1_000_000;
 
         // Đổi tên file tạm thành file chính thức
         File original = new File(outputFile);
@@ -100,83 +97,182 @@ public class ProcessCSV {
         if (!tempFile.renameTo(original)) {
             System.err.println("⚠ Không thể đổi tên file tạm thành: " + outputFile);
         } else {
-            System.out.println("✅ Hoàn tất. Kết quả lưu tại: " + outputFile);
+            System.out.println("✅ Hoàn tất. Kết quả lưu tại: " + outputFile + " (" + millis + " ms)");
         }
     }
 
-    private static boolean isRecordComplete(String s) {
-        int quotes = 0;
-        for (char c : s.toCharArray()) {
-            if (c == '"') quotes++;
+    private static void processSequentially(String inputFile, File tempFile) throws IOException {
+        try (
+            CsvReader reader = CsvReader.open(Paths.get(inputFile)).keepRaw(true);
+            CsvWriter writer = CsvWriter.open(tempFile.toPath()).quoteAll(true)
+        ) {
+            // Header giữ nguyên như trong file gốc
+            if (reader.next()) {
+                writer.writeLine(reader.raw());
+            }
+            reader.keepRaw(false);
+
+            while (reader.next()) {
+                writer.writeRecord(cleanRecord(reader.fields()));
+            }
         }
-        return quotes % 2 == 0;
     }
 
-    private static List<String> parseCsvRow(String row) {
-        List<String> columns = new ArrayList<>();
-        StringBuilder field = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < row.length(); i++) {
-            char c = row.charAt(i);
-            if (inQuotes) {
-                if (c == '"') {
-                    if (i + 1 < row.length() && row.charAt(i + 1) == '"') {
-                        field.append('"');
-                        i++;
-                    } else {
-                        inQuotes = false;
-                    }
+    private static List<String> cleanRecord(List<String> columns) {
+        // Giả sử cột nội dung là cột thứ 3 (index 2)
+        if (columns.size() >= 3) {
+            columns.set(2, cleanText(columns.get(2)));
+        }
+        return columns;
+    }
+
+    /**
+     * Removes emojis/special characters, collapses spaces and drops stop words.
+     *
+     * One pass over the code points: a character outside \p{L}\p{N}\p{P}\p{Z} counts as a
+     * space, a word is kept as written unless its letters and digits, lower-cased, form a stop
+     * word (or it has none). Output is exactly that of the former replaceAll/split version:
+     * only ' ' separates words, so other separators such as a non-breaking space stay inside them.
+     */
+    public static String cleanText(String text) {
+        if (text == null || text.isEmpty()) return "";
+        return CLEANER.get().clean(text);
+    }
+
+    /** Reusable buffers for one thread: the output so far and the lower-cased key of the current word. */
+    private static final class Cleaner {
+        private static final int MAX_RETAINED = 1 << 16; // do not pin the buffers of one huge text
+
+        // String.toLowerCase() has context/locale rules for these; use it for such words to stay identical
+        private static final boolean LOCALE_CASING = Set.of("tr", "az", "lt").contains(Locale.getDefault().getLanguage());
+
+        // Character class and lower case of the range Vietnamese text lives in, so the common case is two array reads
+        private static final int TABLE_SIZE = 0x2000;
+        private static final byte CLASS_KEPT = 1, CLASS_KEY = 2;
+        private static final byte[] CLASSES = new byte[TABLE_SIZE];
+        private static final char[] LOWER = new char[TABLE_SIZE];
+
+        static {
+            for (int c = 0; c < TABLE_SIZE; c++) {
+                int type = Character.getType(c);
+                if ((KEPT & (1 << type)) != 0 && c != ' ') CLASSES[c] |= CLASS_KEPT;
+                if ((LETTER_OR_NUMBER & (1 << type)) != 0) CLASSES[c] |= CLASS_KEY;
+                LOWER[c] = Character.toLowerCase((char) c);
+            }
+        }
+
+        private StringBuilder out = new StringBuilder(256);
+        private char[] key = new char[64];
+
+        String clean(String text) {
+            StopWordTable stopWords = stopWordTable;
+            StringBuilder out = this.out;
+            out.setLength(0);
+
+            int wordStart = -1;     // index in out of the current word, -1 between words
+            int keyLength = 0;
+            boolean specialCase = LOCALE_CASING;
+
+            for (int i = 0, n = text.length(); i <= n; ) {
+                int cp;
+                int charClass;
+                char c = i < n ? text.charAt(i) : ' ';
+                if (c < TABLE_SIZE) {
+                    cp = c;
+                    charClass = CLASSES[c];
+                    i++;
                 } else {
-                    field.append(c);
+                    cp = text.codePointAt(i);
+                    i += Character.charCount(cp);
+                    int type = Character.getType(cp);
+                    charClass = ((KEPT & (1 << type)) != 0 ? CLASS_KEPT : 0) | ((LETTER_OR_NUMBER & (1 << type)) != 0 ? CLASS_KEY : 0);
                 }
-            } else {
-                if (c == '"') {
-                    inQuotes = true;
-                } else if (c == ',') {
-                    columns.add(field.toString());
-                    field.setLength(0);
+
+                if ((charClass & CLASS_KEPT) == 0) {
+                    // A space (or a character that becomes one) ends the word: drop it again
+                    // if it is a stop word or has no letters/digits
+                    if (wordStart >= 0) {
+                        boolean drop = keyLength == 0 || (specialCase
+                                ? stopWords.contains(slowKey(out, wordStart))
+                                : stopWords.contains(key, keyLength));
+                        if (drop) out.setLength(wordStart > 0 ? wordStart - 1 : 0);
+                        wordStart = -1;
+                        keyLength = 0;
+                        specialCase = LOCALE_CASING;
+                    }
+                    continue;
+                }
+
+                if (wordStart < 0) {
+                    if (out.length() > 0) out.append(' ');
+                    wordStart = out.length();
+                }
+
+                if (cp < TABLE_SIZE) {
+                    out.append((char) cp);
+                    if ((charClass & CLASS_KEY) != 0) {
+                        if (cp == '\u0130' || cp == '\u03A3') specialCase = true;
+                        if (keyLength == key.length) key = Arrays.copyOf(key, key.length * 2);
+                        key[keyLength++] = LOWER[cp];
+                    }
                 } else {
-                    field.append(c);
+                    out.appendCodePoint(cp);
+                    if ((charClass & CLASS_KEY) != 0) {
+                        if (keyLength + 2 > key.length) key = Arrays.copyOf(key, key.length * 2);
+                        keyLength += Character.toChars(Character.toLowerCase(cp), key, keyLength);
+                    }
                 }
             }
+
+            String result = out.toString();
+            if (out.capacity() > MAX_RETAINED) this.out = new StringBuilder(256);
+            if (key.length > MAX_RETAINED) key = new char[64];
+            return result;
         }
-        columns.add(field.toString());
-        return columns;
-    }
 
-    private static String toCsvRow(List<String> columns) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < columns.size(); i++) {
-            String field = columns.get(i);
-            if (field == null) field = "";
-            field = field.replace("\"", "\"\"");
-            sb.append('"').append(field).append('"');
-            if (i < columns.size() - 1) sb.append(",");
+        /** The original per-word rule, for the rare words where per-character lower-casing could differ. */
+        private static String slowKey(StringBuilder out, int wordStart) {
+            StringBuilder raw = new StringBuilder();
+            for (int i = wordStart; i < out.length(); ) {
+                int cp = out.codePointAt(i);
+                i += Character.charCount(cp);
+                if ((LETTER_OR_NUMBER & (1 << Character.getType(cp))) != 0) raw.appendCodePoint(cp);
+            }
+            return raw.toString().toLowerCase();
         }
-        return sb.toString();
     }
 
-    public static String cleanText(String text) {
-        if (text == null || text.isEmpty()) return "";
+    /** Read-only open-addressing hash set of stop words, queried with a char buffer. */
+    private static final class StopWordTable {
+        private final String[] slots;
+        private final int mask;
 
-        // 1. Loại bỏ ký tự đặc biệt (giữ lại chữ, số, dấu câu cơ bản)
-        String noEmoji = text.replaceAll("[^\\p{L}\\p{N}\\p{P}\\p{Z}]", " ");
-
-        // 2. Chuẩn hóa khoảng trắng
-        String normalized = noEmoji.replaceAll("\\s+", " ").trim();
+        StopWordTable(Set<String> words) {
+            int capacity = Integer.highestOneBit(Math.max(16, words.size() * 3)) << 1;
+            slots = new String[capacity];
+            mask = capacity - 1;
+            for (String word : words) {
+                int slot = word.hashCode() & mask;
+                while (slots[slot] != null) slot = (slot + 1) & mask;
+                slots[slot] = word;
+            }
+        }
 
-        // 3. Loại bỏ Stop Words
-        String[] words = normalized.split(" ");
-        StringBuilder cleanBuilder = new StringBuilder();
-        
-        for (String word : words) {
-            String rawWord = word.replaceAll("[^\\p{L}\\p{N}]", "").toLowerCase();
-            if (!STOP_WORDS.contains(rawWord) && !rawWord.isEmpty()) {
-                cleanBuilder.append(word).append(" ");
+        boolean contains(char[] chars, int length) {
+            int hash = 0;
+            for (int i = 0; i < length; i++) hash = 31 * hash + chars[i];
+            for (int slot = hash & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+                String word = slots[slot];
+                if (word.length() != length) continue;
+                int i = 0;
+                while (i < length && word.charAt(i) == chars[i]) i++;
+                if (i == length) return true;
             }
+            return false;
         }
 
-        return cleanBuilder.toString().trim();
+        boolean contains(String word) {
+            return contains(word.toCharArray(), word.length());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,9 @@
 package com.oop.logistics.search;
 
+import com.oop.logistics.crawler.WebDriverPool;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,9 +18,8 @@ public class BingDirectStrategy implements SearchStrategy {
 
     @Override
     public void search(String domain, String keyword, Map<String, UrlWithDate> results) {
-        WebDriver driver = null;
-        try {
-            driver = setupWebDriver();
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             for (int page = 1; page <= 5; page++) {
                 String encoded = URLEncoder.encode("site:" + domain + " " + keyword, StandardCharsets.UTF_8);
                 String url = "https://www.bing.com/search?q=" + encoded + "&first=" + ((page - 1) * 10 + 1);
@@ -48,15 +46,6 @@ public class BingDirectStrategy implements SearchStrategy {
             }
         } catch (Exception e) {
             logger.error("Bing Debug Selenium Error for domain {} keyword {}", domain, e);
-        } finally {
-            // CRITICAL: Do NOT call driver.quit() here, or it will close your active Chrome window!
         }
     }
-
-    private WebDriver setupWebDriver() {
-        ChromeOptions options = new ChromeOptions();
-        // Connect to the existing Chrome instance opened with --remote-debugging-port=9222
-        options.setExperimentalOption("debuggerAddress", "127.0.0.1:9222");
-        return new ChromeDriver(options);
-    }
 }
\ No newline at end of file
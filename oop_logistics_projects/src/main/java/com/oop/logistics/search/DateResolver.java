@@ -0,0 +1,142 @@
+package com.oop.logistics.search;
+
+import com.oop.logistics.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Looks up the publication date of article pages in the background, so a search never waits
+ * for an article download.
+ *
+ * Search adds a URL whose date is not in the feed or the URL as a pending {@link UrlWithDate}
+ * and moves on; the page is fetched here on a virtual thread. At most {@code maxDownloads}
+ * pages are downloaded at once, and each news site gets its own {@link RateLimiter} so the
+ * lookups of one search do not hammer a single host.
+ *
+ * Results are kept in url_dates: a page is downloaded for its date once, and a page without
+ * a date is only tried again after {@link #RETRY_UNDATED_MILLIS}. Several searches finding
+ * the same URL at the same time share one lookup. The returned futures never fail - any
+ * problem (network, database) ends as a null date. Thread-safe.
+ */
+final class DateResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(DateResolver.class);
+
+    private static final int MAX_DOWNLOADS = 8;
+    private static final double PER_HOST_RATE = 2.0; // pages per second per news site
+    static final long RETRY_UNDATED_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final DateResolver SHARED = new DateResolver(MAX_DOWNLOADS, PER_HOST_RATE, DateUtils::fetchDateFromPage);
+
+    private final Semaphore downloads;
+    private final double perHostRate;
+    private final Function<String, LocalDate> fetchPage;
+    private final Map<String, RateLimiter> hosts = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<LocalDate>> inFlight = new ConcurrentHashMap<>();
+
+    DateResolver(int maxDownloads, double perHostRate, Function<String, LocalDate> fetchPage) {
+        this.downloads = new Semaphore(maxDownloads);
+        this.perHostRate = perHostRate;
+        this.fetchPage = fetchPage;
+    }
+
+    static DateResolver shared() {
+        return SHARED;
+    }
+
+    /** The date of the page at {@code url}; completes with null if it has none. */
+    CompletableFuture<LocalDate> resolve(String url) {
+        CompletableFuture<LocalDate> created = new CompletableFuture<>();
+        CompletableFuture<LocalDate> existing = inFlight.putIfAbsent(url, created);
+        if (existing != null) return existing;
+
+        Thread.ofVirtual().name("date-resolver").start(() -> {
+            LocalDate date = null;
+            try {
+                date = lookup(url);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Date lookup failed for {}: {}", url, e.getMessage());
+            } finally {
+                inFlight.remove(url, created);
+                created.complete(date);
+            }
+        });
+        return created;
+    }
+
+    private LocalDate lookup(String url) throws InterruptedException {
+        Cached cached = load(url);
+        if (cached != null && (cached.date != null || System.currentTimeMillis() - cached.resolvedAt < RETRY_UNDATED_MILLIS)) {
+            return cached.date;
+        }
+
+        // Politeness first: a URL waiting for its site's turn does not hold a download slot
+        hosts.computeIfAbsent(host(url), h -> new RateLimiter(perHostRate, 1)).acquire();
+        downloads.acquire();
+        LocalDate date;
+        try {
+            date = fetchPage.apply(url);
+        } finally {
+            downloads.release();
+        }
+        store(url, date);
+        if (date != null) logger.info("  ~ Date resolved: {} [{}]", url, date);
+        return date;
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    // --- url_dates ---
+
+    private record Cached(LocalDate date, long resolvedAt) {}
+
+    private static Cached load(String url) {
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT published_date, resolved_at FROM url_dates WHERE url = ?")) {
+            stmt.setString(1, url);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return null;
+                String date = rs.getString(1);
+                return new Cached(date != null ? LocalDate.parse(date) : null, rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            logger.debug("Date cache lookup failed for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void store(String url, LocalDate date) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO url_dates(url, published_date, resolved_at) VALUES(?,?,?)")) {
+            stmt.setString(1, url);
+            stmt.setString(2, date != null ? date.toString() : null);
+            stmt.setLong(3, System.currentTimeMillis());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.debug("Could not cache the date of {}: {}", url, e.getMessage());
+        }
+    }
+}
@@ -19,6 +19,18 @@ public class DateUtils {
      * Main method to get a date from a URL (pattern) or by fetching the page content.
      */
     public static LocalDate determineDate(String url, String pubDateString) {
+        LocalDate date = quickDate(url, pubDateString);
+        if (date != null) return date;
+
+        // 3. Fetch Page
+        return fetchDateFromPage(url);
+    }
+
+    /**
+     * The date that is known without downloading anything (RSS pubDate, then the URL pattern),
+     * or null. Search uses this inline and leaves the page download to {@link DateResolver}.
+     */
+    public static LocalDate quickDate(String url, String pubDateString) {
         // 1. Try RSS pubDate
         if (pubDateString != null && !pubDateString.isEmpty()) {
             LocalDate date = parseRSSDate(pubDateString);
@@ -26,14 +38,10 @@ public class DateUtils {
         }
 
         // 2. Try URL Pattern
-        LocalDate dateFromUrl = extractDateFromUrl(url);
-        if (dateFromUrl != null) return dateFromUrl;
-
-        // 3. Fetch Page
-        return fetchDateFromPage(url);
+        return extractDateFromUrl(url);
     }
 
-    private static LocalDate fetchDateFromPage(String url) {
+    static LocalDate fetchDateFromPage(String url) {
         try {
             logger.debug("Fetching date from page: {}", url);
             Document doc = Jsoup.connect(url)
@@ -66,9 +74,6 @@ public class DateUtils {
                     if (d != null) return d;
                 }
             }
-            
-            // Delay to be polite
-            Thread.sleep(500);
 
         } catch (Exception e) {
             logger.warn("Failed to fetch/parse date from page {}: {}", url, e.getMessage());
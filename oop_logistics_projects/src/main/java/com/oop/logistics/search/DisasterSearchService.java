@@ -2,6 +2,7 @@ package com.oop.logistics.search;
 
 import java.io.FileWriter;
 import java.io.PrintWriter;
+import java.time.Duration;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,31 +14,42 @@ public class DisasterSearchService {
     );
     private static final String OUTPUT = "URL.csv";
     
-    // The list of strategies
-    private final List<SearchStrategy> strategies;
+    // Requests per second each engine tolerates before it starts throttling or showing captchas
+    private static final double BING_RSS_RATE = 0.5;
+    private static final double GOOGLE_NEWS_RATE = 0.5;
+    private static final double BING_DIRECT_RATE = 0.2;  // each call walks up to 5 result pages
+    private static final double DUCKDUCKGO_RATE = 0.25;
+
+    // Repeating a search (e.g. clicking "Set" again) within this time is answered from search_cache
+    private static final Duration SEARCH_CACHE_TTL = Duration.ofHours(6);
+    private static final int SEARCH_CACHE_ENTRIES = 5_000;
+
+    // The engines, in the order their results are merged
+    private final SearchScheduler scheduler;
 
     private static final Logger logger = LoggerFactory.getLogger(DisasterSearchService.class);
 
     public DisasterSearchService() {
-        this.strategies = List.of(
-            new BingRssStrategy(),
-            new GoogleNewsRssStrategy(),
-            new BingDirectStrategy(),
-            new DuckDuckGoStrategy()
-        );
+        this(new SearchCache(SEARCH_CACHE_TTL, SEARCH_CACHE_ENTRIES));
+    }
+
+    public DisasterSearchService(SearchCache cache) {
+        this.scheduler = new SearchScheduler(List.of(
+            new SearchScheduler.Engine("Bing RSS", new BingRssStrategy(), new RateLimiter(BING_RSS_RATE, 1)),
+            new SearchScheduler.Engine("Google News RSS", new GoogleNewsRssStrategy(), new RateLimiter(GOOGLE_NEWS_RATE, 1)),
+            new SearchScheduler.Engine("Bing Direct", new BingDirectStrategy(), new RateLimiter(BING_DIRECT_RATE, 1)),
+            new SearchScheduler.Engine("DuckDuckGo", new DuckDuckGoStrategy(), new RateLimiter(DUCKDUCKGO_RATE, 1))
+        ), cache);
     }
     public void searchFacebookUrls(String keyword) {
         logger.info("Searching Facebook URLs for: {}", keyword);
-        Map<String, UrlWithDate> urlMap = new LinkedHashMap<>();
 
         // We use site:facebook.com to find posts related to the disaster
         String domain = "facebook.com";
         logger.info("=== Searching domain: {} ===", domain);
         
-        for (SearchStrategy strategy : strategies) {
-            // Bing and DuckDuckGo strategies are usually best for FB links
-            strategy.search(domain, keyword, urlMap);
-        }
+        // Bing and DuckDuckGo strategies are usually best for FB links
+        Map<String, UrlWithDate> urlMap = search(List.of(domain), List.of(keyword));
         
         writeCsv(urlMap);
         logger.info("=== DONE: total FB URLs = {} ===", urlMap.size());
@@ -50,18 +62,9 @@ public class DisasterSearchService {
             baseKeyword + " thiệt hại" // Adds "damage" context
         );
 
-        Map<String, UrlWithDate> urlMap = new LinkedHashMap<>();
-
-        for (String domain : DOMAINS) {
-            logger.info("=== Searching domain: {} ===", domain);
-            for (String keyword : keywords) {
-                logger.debug(" -> Using query: {}", keyword);
-                for (SearchStrategy strategy : strategies) {
-                    strategy.search(domain, keyword, urlMap);
-                }
-                try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
-            }
-        }
+        // Every (domain, keyword, engine) search runs concurrently, paced per engine
+        logger.info("=== Searching domains: {} ===", DOMAINS);
+        Map<String, UrlWithDate> urlMap = search(DOMAINS, keywords);
 
         writeCsv(urlMap);
         logger.info("=== DONE: total URLs = {} ===", urlMap.size());
@@ -70,8 +73,6 @@ public class DisasterSearchService {
     
     public void searchSocialUrls(String keyword, String platform) {
         logger.info("Searching {} URLs for: {}", platform, keyword);
-        Map<String, UrlWithDate> urlMap = new LinkedHashMap<>();
-
         String domain = switch (platform.toLowerCase()) {
             case "youtube" -> "youtube.com";
             case "tiktok" -> "tiktok.com";
@@ -109,12 +110,7 @@ public class DisasterSearchService {
             searchVariations = List.of(keyword, keyword + " review", keyword + " thảo luận");
         }
 
-        for (String query : searchVariations) {
-            for (SearchStrategy strategy : strategies) {
-                strategy.search(domain, query, urlMap);
-            }
-            try { Thread.sleep(2000); } catch (InterruptedException ignored) {} 
-        }
+        Map<String, UrlWithDate> urlMap = search(List.of(domain), searchVariations);
         
         // 2. STRICT URL FILTERING
         // Search engines often return user profiles, tags, or group hubs.
@@ -174,6 +170,17 @@ public class DisasterSearchService {
         writeCsv(filteredMap);
         logger.info("=== DONE: total {} URLs = {} ===", platform, filteredMap.size());
     }
+    private Map<String, UrlWithDate> search(List<String> domains, List<String> queries) {
+        try {
+            return scheduler.run(domains, queries);
+        } catch (InterruptedException e) {
+            // Keep the interrupt for the caller; the searches that finished are lost, like before
+            Thread.currentThread().interrupt();
+            logger.warn("Search interrupted, no URLs written");
+            return new LinkedHashMap<>();
+        }
+    }
+
     private void writeCsv(Map<String, UrlWithDate> urlMap) {
         // Removed 'true' to overwrite the file cleanly for the new disaster
         try (PrintWriter pw = new PrintWriter(new FileWriter(OUTPUT))) {
@@ -1,10 +1,9 @@
 package com.oop.logistics.search;
 
+import com.oop.logistics.crawler.WebDriverPool;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,9 +18,8 @@ public class DuckDuckGoStrategy implements SearchStrategy {
 
     @Override
     public void search(String domain, String keyword, Map<String, UrlWithDate> results) {
-        WebDriver driver = null;
-        try {
-            driver = setupWebDriver();
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.OWN_CHROME)) {
+            WebDriver driver = lease.driver();
             String encoded = URLEncoder.encode("site:" + domain + " " + keyword, StandardCharsets.UTF_8);
             // Switch from html.duckduckgo to standard duckduckgo for better Selenium rendering
             String url = "https://duckduckgo.com/?q=" + encoded;
@@ -42,20 +40,6 @@ public class DuckDuckGoStrategy implements SearchStrategy {
             }
         } catch (Exception e) {
             logger.error("DDG Selenium Error for domain {} keyword {}", domain, e);
-        } finally {
-            if (driver != null) {
-                driver.quit();
-            }
         }
     }
-
-    private WebDriver setupWebDriver() {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1920,1080");
-        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        return new ChromeDriver(options);
-    }
 }
\ No newline at end of file
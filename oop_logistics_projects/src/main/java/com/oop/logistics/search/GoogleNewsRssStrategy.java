@@ -1,16 +1,18 @@
 package com.oop.logistics.search;
 
+import com.oop.logistics.crawler.WebDriverPool;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class GoogleNewsRssStrategy implements SearchStrategy {
@@ -19,42 +21,53 @@ public class GoogleNewsRssStrategy implements SearchStrategy {
 
     @Override
     public void search(String domain, String keyword, Map<String, UrlWithDate> results) {
-        WebDriver driver = null;
+        String encoded = URLEncoder.encode(keyword + " site:" + domain, StandardCharsets.UTF_8);
+        String rssUrl = "https://news.google.com/rss/search?q=" + encoded + "&hl=vi&gl=VN&ceid=VN:vi";
+
+        // Plain HTTP first; the debug Chrome is only needed when Google refuses it
+        List<RssFetcher.Item> items;
         try {
-            driver = setupWebDriver();
-            String encoded = URLEncoder.encode(keyword + " site:" + domain, StandardCharsets.UTF_8);
-            String rssUrl = "https://news.google.com/rss/search?q=" + encoded + "&hl=vi&gl=VN&ceid=VN:vi";
+            items = RssFetcher.fetch(rssUrl);
+            logger.info("Google News RSS (HTTP) {} items: {}", items.size(), rssUrl);
+        } catch (RssFetcher.BlockedException e) {
+            logger.warn("Google News RSS blocked over HTTP ({}), retrying in Chrome", e.getMessage());
+            items = fetchWithChrome(rssUrl);
+        } catch (IOException e) {
+            logger.error("Google News RSS HTTP Error for domain {} keyword {}", domain, keyword, e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (RssFetcher.Item item : items) {
+            String url = UrlUtils.extractActualUrl(item.link());
+            
+            // --- ADDED VISIBILITY LOG ---
+            logger.info(" -> Google News Found URL: {}", url);
+            
+            SearchUtils.processResult(url, domain, item.pubDate(), results);
+        }
+    }
+
+    private List<RssFetcher.Item> fetchWithChrome(String rssUrl) {
+        List<RssFetcher.Item> items = new ArrayList<>();
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            WebDriver driver = lease.driver();
             logger.info("Google News RSS (Debug Chrome): {}", rssUrl);
 
             // 1. Load the RSS feed in the trusted debug browser
             driver.get(rssUrl);
             Thread.sleep(3000); // Wait for Chrome to render the XML
 
-            // 2. Extract the raw XML from Chrome's DOM
-            String pageSource = driver.getPageSource();
-            
-            // 3. Pass the unblocked XML string directly into Jsoup for standard parsing
-            Document doc = Jsoup.parse(pageSource);
-            
+            // 2. Extract the raw XML from Chrome's DOM and parse it with Jsoup
+            Document doc = Jsoup.parse(driver.getPageSource());
             for (Element item : doc.select("item")) {
-                String url = UrlUtils.extractActualUrl(item.select("link").text());
-                String pubDate = item.select("pubDate").text();
-                
-                // --- ADDED VISIBILITY LOG ---
-                logger.info(" -> Google News Found URL: {}", url);
-                
-                SearchUtils.processResult(url, domain, pubDate, results);
+                items.add(new RssFetcher.Item(item.select("link").text(), item.select("pubDate").text()));
             }
         } catch (Exception e) {
-            logger.error("Google News Debug Error for domain {} keyword {}", domain, e);
-        } finally {
-            // CRITICAL: Do NOT call driver.quit() here!
+            logger.error("Google News Debug Error for {}", rssUrl, e);
         }
+        return items;
     }
-
-    private WebDriver setupWebDriver() {
-        ChromeOptions options = new ChromeOptions();
-        options.setExperimentalOption("debuggerAddress", "127.0.0.1:9222");
-        return new ChromeDriver(options);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.oop.logistics.search;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket for one search engine: up to {@code burst} requests go out at once, after that
+ * one every 1/{@code permitsPerSecond} seconds.
+ *
+ * A caller reserves its token under the lock and sleeps outside it, so waiting callers queue
+ * up in order instead of all waking at the same moment.
+ */
+final class RateLimiter {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+
+    RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) throw new IllegalArgumentException("rate and burst must be positive");
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /** Blocks until the next request to this engine may go out. */
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    /** Takes one token (possibly one not refilled yet) and returns how long to wait for it. */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+        tokens -= 1;
+        // A negative balance is the queue of callers already waiting
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
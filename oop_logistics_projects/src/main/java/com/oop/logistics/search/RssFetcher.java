@@ -0,0 +1,203 @@
+package com.oop.logistics.search;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.oop.logistics.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches RSS feeds over plain HTTP instead of rendering them in Chrome.
+ *
+ * One HttpClient is shared by every feed, so connections are kept alive between queries.
+ * Responses are requested gzip-compressed and parsed as a stream (StAX): only the link and
+ * pubDate of each &lt;item&gt; are kept, the document is never built in memory.
+ *
+ * The last response of each feed is kept in rss_feed_cache with its ETag / Last-Modified, and
+ * the next fetch sends them back (If-None-Match / If-Modified-Since). An unchanged feed answers
+ * 304 without a body and the stored items are reused.
+ *
+ * A refused request (403, 429, 503) or a body that is not a feed (a captcha page) throws
+ * {@link BlockedException}; the strategies then fall back to the trusted debug Chrome.
+ */
+final class RssFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RssFetcher.class);
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0 Safari/537.36";
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+    private static final long KEEP_FEEDS_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+    static {
+        // Feeds come from the internet: no DTDs, no external entities
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XML.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    }
+
+    /** One feed entry, as written in the feed (the link may still be a redirect wrapper). */
+    record Item(String link, String pubDate) {}
+
+    /** The feed refused the request or answered with something that is not a feed. */
+    static final class BlockedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BlockedException(String message) {
+            super(message);
+        }
+    }
+
+    private RssFetcher() {}
+
+    static List<Item> fetch(String url) throws IOException, InterruptedException {
+        Stored stored = load(url);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/rss+xml, application/xml;q=0.9, */*;q=0.5")
+                .header("Accept-Encoding", "gzip");
+        if (stored != null && stored.etag != null) request.header("If-None-Match", stored.etag);
+        if (stored != null && stored.lastModified != null) request.header("If-Modified-Since", stored.lastModified);
+
+        HttpResponse<InputStream> response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status == 304 && stored != null) {
+                logger.debug("RSS not modified: {}", url);
+                return stored.items;
+            }
+            if (status == 403 || status == 429 || status == 503) throw new BlockedException("HTTP " + status + " for " + url);
+            if (status != 200) throw new IOException("HTTP " + status + " for " + url);
+
+            boolean gzip = response.headers().firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false);
+            List<Item> items = parse(gzip ? new GZIPInputStream(body) : body);
+            store(url, response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null), items);
+            return items;
+        }
+    }
+
+    /** Streams the &lt;item&gt; elements of an RSS document. */
+    static List<Item> parse(InputStream in) throws IOException {
+        List<Item> items = new ArrayList<>();
+        XMLStreamReader xml = null;
+        try {
+            xml = XML.createXMLStreamReader(in);
+            if (xml.nextTag() != XMLStreamConstants.START_ELEMENT || !isFeedRoot(xml.getLocalName())) {
+                throw new BlockedException("Not an RSS feed (root element " + xml.getLocalName() + ")");
+            }
+            String link = null, pubDate = null;
+            boolean inItem = false;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if (name.equals("item")) {
+                        inItem = true;
+                        link = null;
+                        pubDate = null;
+                    } else if (inItem && name.equals("link")) {
+                        link = xml.getElementText().trim();
+                    } else if (inItem && name.equals("pubDate")) {
+                        pubDate = xml.getElementText().trim();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("item")) {
+                    inItem = false;
+                    if (link != null && !link.isEmpty()) items.add(new Item(link, pubDate == null ? "" : pubDate));
+                }
+            }
+        } catch (XMLStreamException e) {
+            // Usually an HTML error or captcha page
+            throw new BlockedException("Unreadable feed: " + e.getMessage());
+        } finally {
+            if (xml != null) {
+                try { xml.close(); } catch (XMLStreamException ignored) {}
+            }
+        }
+        return items;
+    }
+
+    private static boolean isFeedRoot(String name) {
+        return name.equals("rss") || name.equals("RDF");
+    }
+
+    // --- rss_feed_cache ---
+
+    private record Stored(String etag, String lastModified, List<Item> items) {}
+
+    private static Stored load(String url) {
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT etag, last_modified, items FROM rss_feed_cache WHERE url = ?")) {
+            stmt.setString(1, url);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return null;
+                List<Item> items = new ArrayList<>();
+                for (JsonElement element : JsonParser.parseString(rs.getString(3)).getAsJsonArray()) {
+                    JsonArray pair = element.getAsJsonArray();
+                    items.add(new Item(pair.get(0).getAsString(), pair.get(1).getAsString()));
+                }
+                return new Stored(rs.getString(1), rs.getString(2), items);
+            }
+        } catch (SQLException e) {
+            logger.debug("No stored RSS validators for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void store(String url, String etag, String lastModified, List<Item> items) {
+        if (etag == null && lastModified == null) return; // nothing to revalidate with
+
+        JsonArray json = new JsonArray();
+        for (Item item : items) {
+            JsonArray pair = new JsonArray();
+            pair.add(item.link());
+            pair.add(item.pubDate());
+            json.add(pair);
+        }
+        long now = System.currentTimeMillis();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO rss_feed_cache(url, etag, last_modified, items, fetched_at) VALUES(?,?,?,?,?)");
+             PreparedStatement prune = conn.prepareStatement("DELETE FROM rss_feed_cache WHERE fetched_at < ?")) {
+            insert.setString(1, url);
+            insert.setString(2, etag);
+            insert.setString(3, lastModified);
+            insert.setString(4, json.toString());
+            insert.setLong(5, now);
+            insert.executeUpdate();
+            prune.setLong(1, now - KEEP_FEEDS_MILLIS);
+            prune.executeUpdate();
+        } catch (SQLException e) {
+            logger.debug("Could not store RSS validators for {}: {}", url, e.getMessage());
+        }
+    }
+}
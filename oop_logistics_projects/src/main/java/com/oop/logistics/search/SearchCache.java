@@ -0,0 +1,130 @@
+package com.oop.logistics.search;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.oop.logistics.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of one search engine call, keyed by (engine, domain, query), in the search_cache table.
+ *
+ * An entry is the whole output of the call - every result page the strategy walked, with the
+ * dates already resolved - so a hit needs neither a browser nor a date lookup. Entries older
+ * than the TTL are misses; past {@code maxEntries} the least recently used are evicted.
+ * Empty results are not stored: a blocked or failed call looks the same and should be retried.
+ * Any database problem is logged and treated as a miss - the cache must never break a search.
+ * Thread-safe.
+ */
+public class SearchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchCache.class);
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public SearchCache(Duration ttl, int maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    /** Cached results in their original order, or null on a miss or an expired entry. */
+    public Map<String, UrlWithDate> get(String engine, String domain, String query) {
+        long now = System.currentTimeMillis();
+        String json;
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT results FROM search_cache WHERE engine = ? AND domain = ? AND query = ? AND fetched_at >= ?")) {
+            stmt.setString(1, engine);
+            stmt.setString(2, domain);
+            stmt.setString(3, query);
+            stmt.setLong(4, now - ttlMillis);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return null;
+                json = rs.getString(1);
+            }
+        } catch (SQLException e) {
+            logger.warn("Search cache lookup failed, searching again: {}", e.getMessage());
+            return null;
+        }
+
+        touch(engine, domain, query, now);
+        Map<String, UrlWithDate> results = new LinkedHashMap<>();
+        for (JsonElement element : JsonParser.parseString(json).getAsJsonArray()) {
+            JsonArray pair = element.getAsJsonArray();
+            String url = pair.get(0).getAsString();
+            LocalDate date = pair.get(1).isJsonNull() ? null : LocalDate.parse(pair.get(1).getAsString());
+            results.put(url, new UrlWithDate(url, date));
+        }
+        return results;
+    }
+
+    /** Stores the results of one call and evicts expired and least recently used entries. */
+    public void put(String engine, String domain, String query, Map<String, UrlWithDate> results) {
+        if (results.isEmpty()) return;
+
+        JsonArray json = new JsonArray();
+        for (UrlWithDate found : results.values()) {
+            JsonArray pair = new JsonArray();
+            pair.add(found.getUrl());
+            pair.add(found.getDate() != null ? found.getDate().toString() : null);
+            json.add(pair);
+        }
+
+        long now = System.currentTimeMillis();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(
+                         "INSERT OR REPLACE INTO search_cache(engine, domain, query, results, fetched_at, used_at) VALUES(?,?,?,?,?,?)");
+                 PreparedStatement expire = conn.prepareStatement("DELETE FROM search_cache WHERE fetched_at < ?");
+                 PreparedStatement evict = conn.prepareStatement(
+                         "DELETE FROM search_cache WHERE rowid IN (SELECT rowid FROM search_cache ORDER BY used_at " +
+                         "LIMIT MAX(0, (SELECT COUNT(*) FROM search_cache) - ?))")) {
+                insert.setString(1, engine);
+                insert.setString(2, domain);
+                insert.setString(3, query);
+                insert.setString(4, json.toString());
+                insert.setLong(5, now);
+                insert.setLong(6, now);
+                insert.executeUpdate();
+
+                expire.setLong(1, now - ttlMillis);
+                expire.executeUpdate();
+                evict.setInt(1, maxEntries);
+                evict.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not cache {} results of {} for '{}': {}", results.size(), engine, query, e.getMessage());
+        }
+    }
+
+    private void touch(String engine, String domain, String query, long now) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE search_cache SET used_at = ? WHERE engine = ? AND domain = ? AND query = ?")) {
+            stmt.setLong(1, now);
+            stmt.setString(2, engine);
+            stmt.setString(3, domain);
+            stmt.setString(4, query);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.debug("Could not update search cache LRU order: {}", e.getMessage());
+        }
+    }
+}
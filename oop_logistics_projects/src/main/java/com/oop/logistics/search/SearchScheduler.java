@@ -0,0 +1,154 @@
+package com.oop.logistics.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the (domain, query, engine) searches of one request concurrently.
+ *
+ * Every engine works through its own queue on its own thread, paced by its {@link RateLimiter},
+ * so the engines run side by side and the wall-clock time is set by the slowest engine rather
+ * than by the sum of all calls. Browser sessions come from the WebDriverPool, which gives each
+ * engine a tab of its own.
+ *
+ * With a {@link SearchCache}, a task whose (engine, domain, query) was searched within the TTL
+ * takes the cached results and skips both the rate limiter and the browser.
+ *
+ * Dates that have to be read from the article page are resolved by the {@link DateResolver}
+ * in the background while the engines keep searching. Only when every engine is done does the
+ * scheduler wait for the dates still pending (at most {@link #DATE_WAIT}), then caches the
+ * fresh results and drops the ones dated outside the search range.
+ *
+ * Each task fills its own map. The maps are merged in the order of the old nested loop
+ * (domain, then query, then engine) with putIfAbsent, so the result - which URLs, which date,
+ * and the CSV order - is the same as a sequential run.
+ */
+final class SearchScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchScheduler.class);
+
+    // After this, URLs whose page still has not answered are written without a date
+    static final Duration DATE_WAIT = Duration.ofMinutes(2);
+
+    /** One search engine: its strategy and its rate limit. */
+    record Engine(String name, SearchStrategy strategy, RateLimiter limiter) {}
+
+    private final List<Engine> engines;
+    private final SearchCache cache;
+
+    SearchScheduler(List<Engine> engines) {
+        this(engines, null);
+    }
+
+    SearchScheduler(List<Engine> engines, SearchCache cache) {
+        this.engines = List.copyOf(engines);
+        this.cache = cache;
+    }
+
+    Map<String, UrlWithDate> run(List<String> domains, List<String> queries) throws InterruptedException {
+        int perEngine = domains.size() * queries.size();
+        // Task (d, q, e) has index (d * queries + q) * engines + e: the position in the old loop
+        Map<Integer, Map<String, UrlWithDate>> taskResults = new ConcurrentHashMap<>();
+        AtomicInteger cached = new AtomicInteger();
+        Set<Integer> searched = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int e = 0; e < engines.size(); e++) {
+                Engine engine = engines.get(e);
+                int engineIndex = e;
+                executor.submit(() -> {
+                    for (int t = 0; t < perEngine; t++) {
+                        String domain = domains.get(t / queries.size());
+                        String query = queries.get(t % queries.size());
+                        Map<String, UrlWithDate> found = cache != null ? cache.get(engine.name(), domain, query) : null;
+                        if (found != null) {
+                            cached.incrementAndGet();
+                        } else {
+                            found = new LinkedHashMap<>();
+                            try {
+                                search(engine, domain, query, found);
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                            searched.add(t * engines.size() + engineIndex);
+                        }
+                        taskResults.put(t * engines.size() + engineIndex, found);
+                    }
+                });
+            }
+        } // close() waits for every engine to finish its queue
+
+        if (Thread.interrupted()) throw new InterruptedException("Search was interrupted");
+        if (cached.get() > 0) logger.info("{} of {} searches answered from the search cache", cached.get(), perEngine * engines.size());
+
+        awaitDates(taskResults.values());
+        if (cache != null) {
+            // Cached only now, so the entries carry the resolved dates
+            for (int i : searched) {
+                if (taskResults.get(i).values().stream().anyMatch(UrlWithDate::isPending)) continue; // timed out, retry next time
+                String domain = domains.get(i / engines.size() / queries.size());
+                String query = queries.get(i / engines.size() % queries.size());
+                cache.put(engines.get(i % engines.size()).name(), domain, query, taskResults.get(i));
+            }
+        }
+
+        Map<String, UrlWithDate> urlMap = new LinkedHashMap<>();
+        for (int i = 0; i < perEngine * engines.size(); i++) {
+            Map<String, UrlWithDate> found = taskResults.get(i);
+            if (found == null) continue;
+            for (UrlWithDate result : found.values()) {
+                if (SearchUtils.isInRange(result.getDate())) urlMap.putIfAbsent(result.getUrl(), result);
+            }
+        }
+        return urlMap;
+    }
+
+    private static void awaitDates(Iterable<Map<String, UrlWithDate>> results) throws InterruptedException {
+        List<CompletableFuture<LocalDate>> pending = new ArrayList<>();
+        for (Map<String, UrlWithDate> found : results) {
+            for (UrlWithDate result : found.values()) {
+                if (result.isPending()) pending.add(result.resolvedDate());
+            }
+        }
+        if (pending.isEmpty()) return;
+
+        logger.info("Waiting for the dates of {} article pages", pending.size());
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get(DATE_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            long left = pending.stream().filter(f -> !f.isDone()).count();
+            logger.warn("{} article dates still unresolved after {}s, writing them without a date", left, DATE_WAIT.toSeconds());
+        } catch (ExecutionException e) {
+            // DateResolver futures complete with null instead of failing
+            logger.warn("Date lookup failed: {}", e.getMessage());
+        }
+    }
+
+    private static void search(Engine engine, String domain, String query, Map<String, UrlWithDate> found) throws InterruptedException {
+        engine.limiter().acquire();
+        try {
+            logger.debug(" -> {} query '{}' on {}", engine.name(), query, domain);
+            engine.strategy().search(domain, query, found);
+        } catch (RuntimeException e) {
+            // One failing call must not stop the rest of this engine's queue
+            logger.error("{} search failed for domain {} query {}", engine.name(), domain, query, e);
+        }
+    }
+}
@@ -16,19 +16,26 @@ public class SearchUtils {
         url = UrlUtils.cleanFacebookUrl(url);
         if (!UrlUtils.isValidArticleUrl(url, domain)) return;
 
-        LocalDate date = DateUtils.determineDate(url, pubDateRaw);
+        LocalDate date = DateUtils.quickDate(url, pubDateRaw);
 
         if (date != null) {
             // Now it accepts almost any valid date
-            if (!date.isBefore(START_DATE) && !date.isAfter(END_DATE)) {
+            if (isInRange(date)) {
                 if (output.putIfAbsent(url, new UrlWithDate(url, date)) == null) {
                     logger.info("  + NEW URL Added: {} [{}]", url, date);
                 }
             }
-        } else {
-            output.putIfAbsent(url, new UrlWithDate(url, null));
-            logger.info("  + Found (No Date): {}", url);
+        } else if (!output.containsKey(url)) {
+            // The page itself has to be read for the date: that happens in the background,
+            // SearchScheduler waits for it (and applies the date range) once the search is done
+            output.put(url, UrlWithDate.pending(url, DateResolver.shared().resolve(url)));
+            logger.info("  + Found (date pending): {}", url);
         }
     }
+
+    /** Whether a result with this date is kept; a URL without a date is always kept. */
+    static boolean isInRange(LocalDate date) {
+        return date == null || (!date.isBefore(START_DATE) && !date.isAfter(END_DATE));
+    }
     
 }
\ No newline at end of file
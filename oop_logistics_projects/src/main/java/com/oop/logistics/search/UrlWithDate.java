@@ -2,18 +2,44 @@ package com.oop.logistics.search;
 
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 public class UrlWithDate {
     private final String url;
     private final LocalDate date;
+    // Set while the date is being looked up on the article page (see DateResolver)
+    private final CompletableFuture<LocalDate> pendingDate;
 
     public UrlWithDate(String url, LocalDate date) {
+        this(url, date, null);
+    }
+
+    private UrlWithDate(String url, LocalDate date, CompletableFuture<LocalDate> pendingDate) {
         this.url = url;
         this.date = date;
+        this.pendingDate = pendingDate;
+    }
+
+    /** A URL whose date will be known when {@code date} completes (with null if the page has none). */
+    public static UrlWithDate pending(String url, CompletableFuture<LocalDate> date) {
+        return new UrlWithDate(url, null, date);
     }
 
     public String getUrl() { return url; }
-    public LocalDate getDate() { return date; }
+
+    /** The date, or null when it is unknown - or not resolved yet, see {@link #isPending()}. */
+    public LocalDate getDate() {
+        return pendingDate != null ? pendingDate.getNow(null) : date;
+    }
+
+    public boolean isPending() {
+        return pendingDate != null && !pendingDate.isDone();
+    }
+
+    /** Completes with the date once it is resolved (immediately for a URL that was found with its date). */
+    public CompletableFuture<LocalDate> resolvedDate() {
+        return pendingDate != null ? pendingDate : CompletableFuture.completedFuture(date);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -27,4 +53,4 @@ public class UrlWithDate {
     public int hashCode() {
         return Objects.hash(url);
     }
-}
\ No newline at end of file
+}
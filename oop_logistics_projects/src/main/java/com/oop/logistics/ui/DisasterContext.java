@@ -1,22 +1,29 @@
 package com.oop.logistics.ui;
 
+import com.oop.logistics.analysis.AnalysisAPI;
+import com.oop.logistics.analysis.KeywordAnalysisClient;
 import com.oop.logistics.analysis.PythonAnalysisClient;
+import com.oop.logistics.models.TextCorpus;
+import com.oop.logistics.preprocessing.CsvReader;
 import javafx.application.Platform;
 import javafx.scene.control.Label;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.List;
 
 public class DisasterContext {
     private final PythonAnalysisClient client;
-    private final List<String> rawTexts = new ArrayList<>();
-    private final List<String> rawDates = new ArrayList<>();
+    // "keyword" runs in-process, no backend needed
+    private final KeywordAnalysisClient keywordClient = new KeywordAnalysisClient();
+    // Columnar working set (UTF-8 text + epoch-day dates); swapped as a whole, never mutated after publish
+    private volatile TextCorpus corpus = new TextCorpus(16);
     private String dataSource;
     private Label statusLabel;
     private String disasterName;
     private boolean readyMode = false;
+    // When true the working set lives in SQLite and is streamed on demand instead of held in rawTexts
+    private boolean databaseBacked = false;
+    private int databaseRecordCount = 0;
     public void setReadyMode(boolean readyMode) { this.readyMode = readyMode; }
     public boolean isReadyMode() { return readyMode; }
     // Removed unused uiCallback and currentKeywordConfigPath if they aren't used elsewhere
@@ -38,14 +45,40 @@ public class DisasterContext {
 
     public void setDataSource(String source) { this.dataSource = source; }
     public String getDataSource() { return dataSource; }
-    public List<String> getTexts() { return rawTexts; }
-    public List<String> getDates() { return rawDates; }
+    /** Read-only view of the loaded texts. */
+    public List<String> getTexts() { return corpus.texts(); }
+    /** Read-only view of the loaded dates (dd/MM/yyyy). */
+    public List<String> getDates() { return corpus.dates(); }
+    public TextCorpus getCorpus() { return corpus; }
     public PythonAnalysisClient getClient() { return client; }
+
+    /** Provider for a model type: keyword matching in-process, everything else on the Python backend. */
+    public AnalysisAPI getClient(String modelType) {
+        return "keyword".equals(modelType) ? keywordClient : client;
+    }
     
     public void clearData() {
-        rawTexts.clear();
-        rawDates.clear();
+        corpus = new TextCorpus(16);
         dataSource = null;
+        databaseBacked = false;
+        databaseRecordCount = 0;
+    }
+
+    /**
+     * Switches the working set to the database rows of the current disaster/source.
+     * Nothing is copied into memory; analyses stream the rows from SQLite.
+     */
+    public void useDatabaseRecords(int recordCount) {
+        this.corpus = new TextCorpus(16);
+        this.databaseBacked = true;
+        this.databaseRecordCount = recordCount;
+    }
+
+    public boolean isDatabaseBacked() { return databaseBacked; }
+
+    /** Number of texts in the working set, wherever it lives. */
+    public int getRecordCount() {
+        return databaseBacked ? databaseRecordCount : corpus.size();
     }
 
     public void loadCsvData(String csvFile) {
@@ -54,31 +87,23 @@ public class DisasterContext {
                 File f = new File(csvFile);
                 if (!f.exists()) { setStatus("CSV file not found: " + csvFile, true); return; }
 
-                synchronized (rawTexts) {
-                    rawTexts.clear();
-                    rawDates.clear();
-                    
-                    try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                        String line;
-                        StringBuilder sb = new StringBuilder();
-                        br.readLine(); // Skip header
+                // Build off to the side and publish once complete, so readers never see a half-loaded set
+                TextCorpus loaded = new TextCorpus();
+                String source = dataSource;
+                // Only the date (0) and text (1) columns are materialized
+                try (CsvReader csv = CsvReader.open(f.toPath()).selectColumns(0, 1)) {
+                    csv.next(); // Skip header
 
-                        while ((line = br.readLine()) != null) {
-                            sb.append(line);
-                            if (countQuotes(sb.toString()) % 2 == 0) {
-                                List<String> fields = parseCsvLine(sb.toString());
-                                if (fields.size() >= 2) {
-                                    rawDates.add(normalizeDateFormat(fields.get(0).trim()));
-                                    rawTexts.add(fields.get(1).trim());
-                                }
-                                sb.setLength(0);
-                            } else {
-                                sb.append("\n");
-                            }
+                    while (csv.next()) {
+                        if (csv.size() >= 2) {
+                            loaded.add(csv.get(1).trim(), normalizeDateFormat(csv.get(0).trim()), source);
                         }
                     }
                 }
-                setStatus("✅ Loaded " + rawTexts.size() + " records from " + csvFile, false);
+                loaded.trimToSize();
+                databaseBacked = false;
+                corpus = loaded;
+                setStatus("✅ Loaded " + loaded.size() + " records from " + csvFile, false);
             } catch (Exception ex) {
                 ex.printStackTrace();
                 setStatus("Error loading CSV: " + ex.getMessage(), true);
@@ -87,35 +112,6 @@ public class DisasterContext {
     }
 
     // --- Helper Methods ---
-    private int countQuotes(String s) {
-        int count = 0;
-        for (char c : s.toCharArray()) if (c == '"') count++;
-        return count;
-    }
-
-    private List<String> parseCsvLine(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"'); i++;
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                fields.add(current.toString());
-                current.setLength(0);
-            } else {
-                current.append(c);
-            }
-        }
-        fields.add(current.toString());
-        return fields;
-    }
-
     private String normalizeDateFormat(String dateStr) {
         if (dateStr == null || dateStr.isEmpty()) return dateStr;
         if (dateStr.matches("\\d{1,2}/\\d{1,2}/\\d{4}")) {
@@ -134,17 +130,21 @@ public class DisasterContext {
     public PythonAnalysisClient getApi() {
         return this.client;
     }
+    /** Replaces the working set; dates are matched to texts by position. */
+    public void setData(List<String> texts, List<String> dates) {
+        this.databaseBacked = false;
+        TextCorpus loaded = TextCorpus.of(texts != null ? texts : List.of(), dates, dataSource);
+        loaded.trimToSize();
+        this.corpus = loaded;
+    }
+
     public void setTexts(List<String> texts) {
-        this.rawTexts.clear();
-        if (texts != null) {
-            this.rawTexts.addAll(texts);
-        }
+        // Keep whatever dates are already loaded for the same positions
+        List<String> currentDates = new ArrayList<>(corpus.dates());
+        setData(texts, currentDates);
     }
 
     public void setDates(List<String> dates) {
-        this.rawDates.clear();
-        if (dates != null) {
-            this.rawDates.addAll(dates);
-        }
+        setData(new ArrayList<>(corpus.texts()), dates);
     }
 }
\ No newline at end of file
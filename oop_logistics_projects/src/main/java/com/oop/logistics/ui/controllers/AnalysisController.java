@@ -1,6 +1,8 @@
 package com.oop.logistics.ui.controllers;
 import com.oop.logistics.preprocessing.*;
 import com.oop.logistics.database.DataRepository;
+import com.oop.logistics.models.AnalysisRecord;
+import com.oop.logistics.models.SentimentTimeSeries;
 import com.oop.logistics.ui.DisasterContext;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -8,10 +10,12 @@ import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class AnalysisController {
 
@@ -44,7 +48,7 @@ public class AnalysisController {
         
         // Route exactly to the literals expected by your Python Pydantic schemas
         if (selection.contains("Keyword")) {
-            return "keyword";
+            return "keyword"; // answered in-process by KeywordAnalysisClient, see DisasterContext.getClient(type)
         } else if (selection.contains("XGBoost")) {
             return "xgboost";
         } else if (selection.contains("SVM")) {
@@ -63,17 +67,29 @@ public class AnalysisController {
     }
 
     private boolean checkData(boolean requireDates) {
-        if (context.getTexts().isEmpty()) {
+        if (context.getRecordCount() == 0) {
             context.setStatus("⚠️ No data loaded! Please load or crawl data first.", true);
             return true;
         }
-        if (requireDates && context.getDates().isEmpty()) {
+        if (requireDates && !context.isDatabaseBacked() && context.getDates().isEmpty()) {
             context.setStatus("⚠️ No dates available for time-series analysis.", true);
             return true;
         }
         return false;
     }
 
+    /**
+     * Opens the current working set as a stream of records. Database-backed sets are read
+     * through a cursor, so memory stays bounded by the analysis batch size.
+     * The caller must close the stream.
+     */
+    private Stream<AnalysisRecord> openRecords() throws SQLException {
+        if (context.isDatabaseBacked()) {
+            return new DataRepository().streamAnalysisData(context.getDisasterName(), context.getDataSource());
+        }
+        return AnalysisRecord.stream(context.getCorpus());
+    }
+
     private void displayChart(Chart chart) {
         chartContainer.getChildren().clear();
         chart.setMinHeight(400);
@@ -109,7 +125,7 @@ public class AnalysisController {
         // Run network request on a background thread to prevent UI freezing
         new Thread(() -> {
             try {
-                String result = context.getApi().testSingleSentiment(textToTest, modelType);
+                String result = context.getClient(modelType).testSingleSentiment(textToTest, modelType);
                 
                 // Update UI back on the JavaFX Application Thread
                 Platform.runLater(() -> {
@@ -139,18 +155,16 @@ public class AnalysisController {
         
         new Thread(() -> {
             DataRepository repo = new DataRepository();
-            // Pass the sourceType to the repository
-            DataRepository.AnalysisData data = repo.getAnalysisData(disasterName, sourceType); 
+            // Only count here: the rows themselves are streamed from SQLite when an analysis runs
+            int count = repo.countAnalysisData(disasterName, sourceType);
             
             Platform.runLater(() -> {
-                if (data.texts.isEmpty()) {
+                if (count == 0) {
                     context.setStatus("⚠️ No " + sourceType + " data found in database for: " + disasterName, true);
-                    context.getTexts().clear(); 
-                    context.getDates().clear();
+                    context.setData(null, null);
                 } else {
-                    context.setTexts(data.texts); 
-                    context.setDates(data.dates);
-                    context.setStatus("✅ Successfully loaded " + data.texts.size() + " " + sourceType + " items from Database.", false);
+                    context.useDatabaseRecords(count);
+                    context.setStatus("✅ Successfully loaded " + count + " " + sourceType + " items from Database.", false);
                     updateProgress(1.0);
                 }
             });
@@ -164,12 +178,12 @@ public class AnalysisController {
         if (checkData(true)) return;
         updateProgress(0);
         new Thread(() -> {
-            try {
+            try (Stream<AnalysisRecord> records = openRecords()) {
                 String type = getModelType();
                 context.setStatus("Processing Problem 1 (" + type + ")...", false);
                 
-                var data = context.getClient().getSentimentTimeSeries(
-                    context.getTexts(), context.getDates(), type, this::updateProgress
+                var data = context.getClient(type).getSentimentSeries(
+                    records, context.getRecordCount(), type, this::updateProgress
                 );
                 
                 Platform.runLater(() -> displaySentimentTimeSeries(data));
@@ -177,7 +191,7 @@ public class AnalysisController {
         }).start();
     }
     
-    private void displaySentimentTimeSeries(List<Map<String, Object>> data) {
+    private void displaySentimentTimeSeries(SentimentTimeSeries data) {
         CategoryAxis xAxis = new CategoryAxis(); xAxis.setLabel("Date");
         NumberAxis yAxis = new NumberAxis(); yAxis.setLabel("Count");
         LineChart<String, Number> chart = new LineChart<>(xAxis, yAxis);
@@ -187,11 +201,11 @@ public class AnalysisController {
         XYChart.Series<String, Number> neg = new XYChart.Series<>(); neg.setName("Negative");
         XYChart.Series<String, Number> neu = new XYChart.Series<>(); neu.setName("Neutral");
 
-        for (Map<String, Object> point : data) {
-            String d = (String) point.get("date");
-            pos.getData().add(new XYChart.Data<>(d, ((Number) point.get("positive")).intValue()));
-            neg.getData().add(new XYChart.Data<>(d, ((Number) point.get("negative")).intValue()));
-            neu.getData().add(new XYChart.Data<>(d, ((Number) point.get("neutral")).intValue()));
+        for (int p = 0; p < data.size(); p++) {
+            String d = data.date(p);
+            pos.getData().add(new XYChart.Data<>(d, data.count(p, SentimentTimeSeries.POSITIVE)));
+            neg.getData().add(new XYChart.Data<>(d, data.count(p, SentimentTimeSeries.NEGATIVE)));
+            neu.getData().add(new XYChart.Data<>(d, data.count(p, SentimentTimeSeries.NEUTRAL)));
         }
         chart.getData().addAll(pos, neg, neu);
         displayChart(chart);
@@ -205,12 +219,12 @@ public class AnalysisController {
         if (checkData(false)) return;
         updateProgress(0);
         new Thread(() -> {
-            try {
+            try (Stream<AnalysisRecord> records = openRecords()) {
                 String type = getModelType();
                 context.setStatus("Processing Problem 2 (" + type + ")...", false);
                 
-                var data = context.getClient().getDamageClassification(
-                    context.getTexts(), type, this::updateProgress
+                var data = context.getClient(type).getDamageClassification(
+                    records, context.getRecordCount(), type, this::updateProgress
                 );
                 
                 Platform.runLater(() -> displayDamageTypes(data));
@@ -243,11 +257,11 @@ public class AnalysisController {
         if (checkData(false)) return;
         updateProgress(0);
         new Thread(() -> {
-            try {
+            try (Stream<AnalysisRecord> records = openRecords()) {
                 String type = getModelType();
                 context.setStatus("Processing Problem 3...", false);
-                var data = context.getClient().getReliefSentiment(
-                    context.getTexts(), type, this::updateProgress
+                var data = context.getClient(type).getReliefSentiment(
+                    records, context.getRecordCount(), type, this::updateProgress
                 );
                 Platform.runLater(() -> displayReliefSentiment(data));
             } catch (Exception ex) { context.setStatus("Error: " + ex.getMessage(), true); }
@@ -280,18 +294,18 @@ public class AnalysisController {
         if (checkData(true)) return;
         updateProgress(0);
         new Thread(() -> {
-            try {
+            try (Stream<AnalysisRecord> records = openRecords()) {
                 String type = getModelType();
                 context.setStatus("Processing Problem 4...", false);
-                var data = context.getClient().getReliefTimeSeries(
-                    context.getTexts(), context.getDates(), type, this::updateProgress
+                var data = context.getClient(type).getReliefSeries(
+                    records, context.getRecordCount(), type, this::updateProgress
                 );
                 Platform.runLater(() -> displayReliefTimeSeries(data));
             } catch (Exception ex) { context.setStatus("Error: " + ex.getMessage(), true); }
         }).start();
     }
 
-    private void displayReliefTimeSeries(List<Map<String, Object>> data) {
+    private void displayReliefTimeSeries(SentimentTimeSeries data) {
         CategoryAxis xAxis = new CategoryAxis(); xAxis.setLabel("Date");
         NumberAxis yAxis = new NumberAxis(); yAxis.setLabel("Positive Mentions");
         LineChart<String, Number> chart = new LineChart<>(xAxis, yAxis);
@@ -299,10 +313,10 @@ public class AnalysisController {
 
         Map<String, XYChart.Series<String, Number>> seriesMap = new HashMap<>();
 
-        for (Map<String, Object> p : data) {
-            String cat = (String) p.get("category");
-            String date = (String) p.get("date");
-            Number val = (Number) p.get("positive");
+        for (int p = 0; p < data.size(); p++) {
+            String cat = data.category(p);
+            String date = data.date(p);
+            Number val = data.count(p, SentimentTimeSeries.POSITIVE);
 
             if (cat == null || cat.equals("Other")) continue;
 
@@ -323,12 +337,12 @@ public class AnalysisController {
         updateProgress(0);
         
         new Thread(() -> {
-            try {
+            try (Stream<AnalysisRecord> records = openRecords()) {
                 String type = getModelType();
                 context.setStatus("Processing Problem 5 (Supply vs Demand)...", false);
                 
-                Map<String, Integer> data = context.getClient().getIntentClassification(
-                    context.getTexts(), type, this::updateProgress
+                Map<String, Integer> data = context.getClient(type).getIntentClassification(
+                    records, context.getRecordCount(), type, this::updateProgress
                 );
                 
                 Platform.runLater(() -> displayIntentClassification(data));
@@ -369,21 +383,22 @@ public class AnalysisController {
         
         new Thread(() -> {
             context.setStatus("Mapping disaster locations...", false);
-            Map<String, Integer> locationCounts = new HashMap<>();
-
-            // 1. Scan all loaded texts for locations
-            List<String> texts = context.getTexts();
-            for (int i = 0; i < texts.size(); i++) {
-                List<String> foundLocations = LocationExtractor.extractAllLocations(texts.get(i));
-                for (String loc : foundLocations) {
-                    locationCounts.put(loc, locationCounts.getOrDefault(loc, 0) + 1);
+            List<Map.Entry<String, Integer>> sortedLocations;
+
+            // Stored rows keep their locations in text_locations: only rows not indexed yet are
+            // scanned, then SQLite counts. A loaded CSV is counted in parallel in memory.
+            try {
+                if (context.isDatabaseBacked()) {
+                    LocationIndex.update(context.getDisasterName(), context.getDataSource(), this::updateProgress);
+                    sortedLocations = LocationIndex.topLocations(context.getDisasterName(), context.getDataSource(), 10);
+                } else {
+                    sortedLocations = LocationIndex.topLocations(context.getCorpus(), 10);
                 }
-                if (i % 50 == 0) updateProgress((double) i / texts.size());
+            } catch (Exception e) {
+                context.setStatus("Error: " + e.getMessage(), true);
+                return;
             }
-
-            // 2. Sort to find the Top 10 most mentioned locations
-            List<Map.Entry<String, Integer>> sortedLocations = new ArrayList<>(locationCounts.entrySet());
-            sortedLocations.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+            updateProgress(1.0);
 
             Platform.runLater(() -> displayLocationChart(sortedLocations));
         }).start();
@@ -20,6 +20,7 @@ import javafx.scene.layout.HBox;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 
 public class InputController {
@@ -29,6 +30,9 @@ public class InputController {
     @FXML private Label lblDate, lblCookies;
     @FXML private HBox cookieBox;
 
+    // Crawled articles are saved every this many, not only at the end of the URL list
+    private static final int NEWS_FLUSH_SIZE = 50;
+
     private DisasterContext context;
 
     public void setContext(DisasterContext context) {
@@ -119,15 +123,18 @@ public class InputController {
                         if (fbData != null) {
                             int newsId = repo.saveNews(disasterId, url, "Facebook Post", fbData.content, date, "Facebook");
                             if (newsId != -1 && fbData.comments != null) {
+                                List<SocialResult> comments = new ArrayList<>();
                                 for (Object obj : fbData.comments) {
                                     // Compatibility safety check for string vs structured object
                                     if (obj instanceof String) {
-                                        repo.saveComment(newsId, (String) obj, "Facebook User", date);
+                                        comments.add(new SocialResult("Facebook", "Facebook User", (String) obj, 0, date));
                                     } else if (obj instanceof FacebookResult.CommentData) {
                                         FacebookResult.CommentData cd = (FacebookResult.CommentData) obj;
-                                        repo.saveComment(newsId, cd.text, cd.author, cd.date);
+                                        comments.add(new SocialResult("Facebook", cd.author, cd.text, 0, cd.date));
                                     }
                                 }
+                                // One transaction for the whole comment thread
+                                repo.saveCommentsBatch(newsId, comments);
                             }
                             successCount++;
                         }
@@ -158,35 +165,48 @@ public class InputController {
                             
                             if (parentId != -1) {
                                 for (SocialResult r : results) {
-                                    String commentDate = (r.getTimestamp() != null && !r.getTimestamp().isEmpty()) ? r.getTimestamp() : defaultDate;
-                                    repo.saveComment(parentId, r.getContent(), r.getAuthor(), commentDate);
+                                    if (r.getTimestamp() == null || r.getTimestamp().isEmpty()) r.setTimestamp(defaultDate);
                                 }
+                                repo.saveCommentsBatch(parentId, results);
                             }
                             successCount++; // Count as 1 successful URL crawled
                         }
                     }
 
                 } else {
-                    // Loop through all News URLs
-                    for (String url : urls) {
-                        url = url.trim();
-                        if (url.isEmpty()) continue;
-
-                        final String currentUrl = url;
-                        Platform.runLater(() -> context.setStatus("Crawling News: " + currentUrl, false));
-
-                        try {
-                            NewsCrawler crawler = NewsCrawlerFactory.getCrawler(url);
-                            NewsResult article = crawler.crawl(url); 
+                    // Articles are written in batches: one transaction per NEWS_FLUSH_SIZE articles,
+                    // so a crash mid-crawl loses at most one batch and memory stays bounded
+                    List<NewsResult> articles = new ArrayList<>();
+
+                    try {
+                        // Loop through all News URLs
+                        for (String url : urls) {
+                            url = url.trim();
+                            if (url.isEmpty()) continue;
+
+                            final String currentUrl = url;
+                            Platform.runLater(() -> context.setStatus("Crawling News: " + currentUrl, false));
+
+                            try {
+                                NewsCrawler crawler = NewsCrawlerFactory.getCrawler(url);
+                                NewsResult article = crawler.crawl(url); 
                             
-                            if (article != null) {
-                                String cleanDate = DateExtract.formatDateToDDMMYYYY(article.date);
-                                repo.saveNews(disasterId, article.url, article.title, article.text, cleanDate, "News");
-                                successCount++;
+                                if (article != null) {
+                                    String cleanDate = DateExtract.formatDateToDDMMYYYY(article.date);
+                                    articles.add(new NewsResult(article.url, article.title, cleanDate, article.text));
+                                    successCount++;
+                                    if (articles.size() >= NEWS_FLUSH_SIZE) {
+                                        repo.saveNewsBatch(disasterId, articles, "News");
+                                        articles.clear();
+                                    }
+                                }
+                            } catch (Exception e) {
+                                System.out.println("Skipped unsupported/failed URL: " + url);
                             }
-                        } catch (Exception e) {
-                            System.out.println("Skipped unsupported/failed URL: " + url);
                         }
+                    } finally {
+                        // Whatever is left, also when the crawl stops early
+                        repo.saveNewsBatch(disasterId, articles, "News");
                     }
                 }
 
@@ -216,7 +236,10 @@ public class InputController {
         new Thread(() -> {
             try {
                 // Run the DB cleaner, stop-word remover, and deduplicator
-                DatabasePreprocessor.preprocessDisasterData(currentDisaster, sourceType);
+                DatabasePreprocessor.preprocessDisasterData(currentDisaster, sourceType, progress ->
+                    Platform.runLater(() -> context.setStatus(
+                        String.format("⚙️ Cleaning & Preprocessing %s data... %.0f%%", sourceType, progress * 100), false))
+                );
                 
                 Platform.runLater(() -> 
                     context.setStatus("✅ Preprocessing complete! Data is clean. Proceed to 'Load Database' in Analysis.", false)
@@ -0,0 +1,66 @@
+package com.oop.logistics.analysis;
+
+import com.oop.logistics.models.AnalysisRecord;
+import com.oop.logistics.models.SentimentTimeSeries;
+import com.oop.logistics.models.TextCorpus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Expected labels were produced by the Python keyword paths on the same "external config" files. */
+@DisplayName("KeywordAnalysisClient Tests")
+class TestKeywordAnalysisClient {
+
+    private final KeywordAnalysisClient client = new KeywordAnalysisClient();
+
+    @Test
+    @DisplayName("Per-text labels should match the Python keyword services")
+    void testRulesMatchPython() throws Exception {
+        assertEquals("negative", client.sentiment("Bão to khiếp quá"));
+        assertEquals("positive", client.sentiment("Khẩn cấp cần hỗ trợ"));
+        assertEquals("neutral", client.sentiment("Trời hôm nay đẹp"));
+
+        assertEquals("Infrastructure", client.damage("Mất điện cả làng"));
+        // Plain substring matching, like `kw in text`: "cầu" (bridge) is inside "cầu mong"
+        assertEquals("Infrastructure", client.damage("Cầu mong mọi người bình an"));
+        assertEquals("Other", client.damage("Trời hôm nay đẹp"));
+
+        assertEquals(List.of("Food_Water", "Transportation", "Rescue"), client.reliefCategories("Bà con cần gạo và thuyền để di chuyển"));
+        assertEquals(List.of("Other"), client.reliefCategories(""));
+
+        assertEquals("Request", client.intent("Bà con cần gạo và thuyền để di chuyển"));
+        assertEquals("Offer", client.intent("Chúng tôi tặng 100 thùng mì"));
+        assertEquals("News", client.intent("Trời hôm nay đẹp"));
+    }
+
+    @Test
+    @DisplayName("Aggregations should work without any backend")
+    void testAggregationsOffline() throws Exception {
+        List<String> texts = List.of("Bão to khiếp quá", "Cầu mong mọi người bình an", "Chúng tôi tặng 100 thùng mì", "Bà con cần gạo và thuyền để di chuyển");
+        List<String> dates = Arrays.asList("8/9/2024", "07/09/2024", "07/09/2024", null);
+
+        SentimentTimeSeries series = client.getSentimentSeries(AnalysisRecord.stream(texts, dates), texts.size(), "keyword", null);
+        assertEquals(2, series.size());
+        assertEquals("07/09/2024", series.date(0));
+        assertEquals(1, series.count(0, SentimentTimeSeries.POSITIVE));
+        assertEquals(1, series.count(0, SentimentTimeSeries.NEUTRAL));
+        assertEquals(1, series.count(1, SentimentTimeSeries.NEGATIVE));
+
+        // A corpus hands over epoch days instead of date text; the series must not change
+        TextCorpus corpus = TextCorpus.of(texts, dates, "Facebook");
+        SentimentTimeSeries fromCorpus = client.getSentimentSeries(AnalysisRecord.stream(corpus), corpus.size(), "keyword", null);
+        assertEquals(series.toMaps(), fromCorpus.toMaps());
+
+        assertEquals(List.of("Other", "Infrastructure", "Other", "Other"), client.getDamageClassification(texts, "keyword", null));
+        assertEquals(Map.of("Request", 1, "Offer", 1, "News", 2), client.getIntentClassification(texts, "keyword", null));
+
+        Map<String, Map<String, Double>> relief = client.getReliefSentiment(texts, "keyword", null);
+        assertEquals(3.0, relief.get("Other").values().stream().mapToDouble(Double::doubleValue).sum());
+        assertEquals(1.0, relief.get("Food_Water").get("neutral"));
+    }
+}
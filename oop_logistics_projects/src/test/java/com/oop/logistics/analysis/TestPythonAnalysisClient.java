@@ -0,0 +1,199 @@
+package com.oop.logistics.analysis;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.oop.logistics.database.DatabaseManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PythonAnalysisClient Tests")
+class TestPythonAnalysisClient {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger textsSent = new AtomicInteger();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("cache.db"));
+        DatabaseManager.initializeDatabase();
+
+        // Fake backend: "mưa" texts are negative, everything else positive
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> respond(exchange.getResponseBody(), exchange, "{\"status\":\"running\",\"model_version\":\"test-v1\"}"));
+        HttpHandler labeller = exchange -> {
+            JsonObject body = new Gson().fromJson(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), JsonObject.class);
+            List<String> labels = new ArrayList<>();
+            body.getAsJsonArray("texts").forEach(t -> labels.add(t.getAsString().contains("mưa") ? "negative" : "positive"));
+            textsSent.addAndGet(labels.size());
+            batchSizes.add(labels.size());
+            respond(exchange.getResponseBody(), exchange, new Gson().toJson(labels));
+        };
+        server.createContext("/labels/sentiment", labeller);
+        server.createContext("/analyze/damage", labeller);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+        DatabaseManager.resetDatabaseUrl();
+    }
+
+    private static void respond(OutputStream out, HttpExchange exchange, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        out.write(bytes);
+        out.close();
+    }
+
+    @Test
+    @DisplayName("Only texts never analysed before should reach the backend")
+    void testRepeatedAnalysisUsesCache() throws Exception {
+        List<String> texts = List.of("Trời mưa to", "Được hỗ trợ kịp thời", "Trời mưa to");
+        List<String> dates = List.of("07/09/2024", "07/09/2024", "08/09/2024");
+
+        PythonAnalysisClient client = new PythonAnalysisClient(baseUrl);
+        List<Map<String, Object>> first = client.getSentimentTimeSeries(texts, dates, "ai", null);
+        assertEquals(2, textsSent.get(), "Duplicate texts in one batch are sent once");
+
+        List<Map<String, Object>> second = client.getSentimentTimeSeries(texts, dates, "ai", null);
+        assertEquals(2, textsSent.get(), "Second run should be served from the cache");
+        assertEquals(first, second);
+
+        assertEquals("07/09/2024", first.get(0).get("date"));
+        assertEquals(1.0, first.get(0).get("negative"));
+        assertEquals(1.0, first.get(0).get("positive"));
+        assertEquals(1.0, first.get(1).get("negative"));
+    }
+
+    @Test
+    @DisplayName("Cached results should survive a restart but not a model type change")
+    void testCacheIsPersistentAndKeyedByModel() throws Exception {
+        List<String> texts = List.of("Trời mưa to", "Được hỗ trợ kịp thời");
+        List<String> dates = List.of("07/09/2024", "07/09/2024");
+
+        new PythonAnalysisClient(baseUrl).getSentimentTimeSeries(texts, dates, "ai", null);
+        assertEquals(2, textsSent.get());
+
+        // Fresh client = empty memory layer, results come from SQLite
+        new PythonAnalysisClient(baseUrl).getSentimentTimeSeries(texts, dates, "ai", null);
+        assertEquals(2, textsSent.get());
+
+        new PythonAnalysisClient(baseUrl).getSentimentTimeSeries(texts, dates, "svm", null);
+        assertEquals(4, textsSent.get(), "Another model type must not reuse 'ai' results");
+    }
+
+    @Test
+    @DisplayName("The default model (no model type) should be cached like any other")
+    void testCacheWithoutModelType() {
+        InferenceCache cache = new InferenceCache(10);
+        long[] hashes = {1L, 2L};
+        cache.store("sentiment", null, "test-v1", hashes, new String[]{"negative", "positive"});
+        assertArrayEquals(new String[]{"negative", "positive"}, cache.lookup("sentiment", null, "test-v1", hashes));
+
+        cache.clearMemory();
+        assertArrayEquals(new String[]{"negative", "positive"}, cache.lookup("sentiment", null, "test-v1", hashes));
+        assertArrayEquals(new String[]{null, null}, cache.lookup("sentiment", "svm", "test-v1", hashes));
+    }
+
+    @Test
+    @DisplayName("Concurrent dispatch should keep list order and match sequential results")
+    void testConcurrentDispatchKeepsOrder() throws Exception {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) texts.add((i % 3 == 0 ? "Trời mưa to " : "Hỗ trợ ") + i);
+
+        PythonAnalysisClient concurrent = new PythonAnalysisClient(baseUrl, new InferenceCache(10));
+        concurrent.setMaxInFlightBatches(4);
+        List<Double> progress = new ArrayList<>();
+        List<String> labels = concurrent.getDamageClassification(texts, "ai", progress::add);
+
+        assertEquals(texts.size(), labels.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(i % 3 == 0 ? "negative" : "positive", labels.get(i), "Label " + i + " out of order");
+        }
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i) > progress.get(i - 1), "Progress must only move forward");
+        }
+        assertEquals(1.0, progress.get(progress.size() - 1), 1e-9);
+
+        PythonAnalysisClient sequential = new PythonAnalysisClient(baseUrl);
+        sequential.setMaxInFlightBatches(1);
+        assertEquals(labels, sequential.getDamageClassification(texts, "ai", null));
+    }
+
+    @Test
+    @DisplayName("Batches should be cut by payload size and respect configured limits")
+    void testBatchesAreSizedByPayload() throws Exception {
+        PythonAnalysisClient client = new PythonAnalysisClient(baseUrl, new InferenceCache(10));
+        client.setMaxInFlightBatches(1);
+        // 40 texts at most, 1000 chars per batch, every text counted as 100 chars at most
+        client.setBatchLimits("/analyze/damage", "ai", new AdaptiveBatcher.Limits(40, 1_000, 1_000, 1_000, 100, 1_000));
+
+        List<String> shortTexts = new ArrayList<>();
+        List<String> longTexts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            shortTexts.add("Hỗ trợ " + i);
+            longTexts.add(("Trời mưa to " + i + " ").repeat(200));
+        }
+
+        client.getDamageClassification(shortTexts, "ai", null);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 40), "maxTexts must cap every batch: " + batchSizes);
+        assertEquals(5, batchSizes.size());
+
+        batchSizes.clear();
+        List<String> labels = client.getDamageClassification(longTexts, "ai", null);
+        assertEquals(200, labels.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10), "Long texts must go in smaller batches: " + batchSizes);
+
+        // Limits are per model type, "svm" still uses the defaults
+        batchSizes.clear();
+        client.getDamageClassification(shortTexts.subList(0, 100), "svm", null);
+        assertEquals(List.of(100), batchSizes);
+    }
+
+    @Test
+    @DisplayName("Relief results should be read from the streamed response objects")
+    void testReliefObjectsAreParsed() throws Exception {
+        server.createContext("/labels/relief_sentiment", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange.getResponseBody(), exchange,
+                    "[{\"categories\": [\"Food\", \"Shelter\"], \"sentiment\": \"positive\"}, {\"sentiment\": \"negative\", \"categories\": [\"Food\"], \"score\": 0.9}]");
+        });
+
+        PythonAnalysisClient client = new PythonAnalysisClient(baseUrl, new InferenceCache(10));
+        Map<String, Map<String, Double>> stats = client.getReliefSentiment(List.of("Phát gạo và dựng nhà", "Thiếu \"gạo\""), "ai", null);
+
+        assertEquals(1.0, stats.get("Food").get("positive"));
+        assertEquals(1.0, stats.get("Food").get("negative"));
+        assertEquals(1.0, stats.get("Shelter").get("positive"));
+        assertEquals(2, stats.size());
+    }
+}
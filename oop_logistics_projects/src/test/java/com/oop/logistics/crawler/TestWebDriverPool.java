@@ -0,0 +1,135 @@
+package com.oop.logistics.crawler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WebDriverPool Tests")
+class TestWebDriverPool {
+
+    /** Fake sessions: drivers are bare proxies, "broken" ones fail the health check. */
+    private static class FakeSessions implements WebDriverPool.Sessions {
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger open = new AtomicInteger();
+        final Set<WebDriver> broken = ConcurrentHashMap.newKeySet();
+        final Set<WebDriver> closed = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public WebDriver open(WebDriverPool.Browser browser) {
+            opened.incrementAndGet();
+            open.incrementAndGet();
+            return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+
+        @Override
+        public boolean recycle(WebDriverPool.Browser browser, WebDriver driver) {
+            return !broken.contains(driver);
+        }
+
+        @Override
+        public void close(WebDriverPool.Browser browser, WebDriver driver) {
+            closed.add(driver);
+            open.decrementAndGet();
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential leases should reuse one session")
+    void testSessionsAreReused() throws InterruptedException {
+        FakeSessions sessions = new FakeSessions();
+        WebDriverPool pool = new WebDriverPool(sessions, 3, 2);
+
+        List<WebDriver> seen = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            try (WebDriverPool.Lease lease = pool.lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+                seen.add(lease.driver());
+            }
+        }
+        assertEquals(1, sessions.opened.get());
+        assertEquals(1, pool.sessionsCreated());
+        assertTrue(seen.stream().allMatch(d -> d == seen.get(0)));
+    }
+
+    @Test
+    @DisplayName("A session failing its health check should be closed and replaced")
+    void testBrokenSessionIsReplaced() throws InterruptedException {
+        FakeSessions sessions = new FakeSessions();
+        WebDriverPool pool = new WebDriverPool(sessions, 3, 2);
+
+        WebDriver first;
+        try (WebDriverPool.Lease lease = pool.lease(WebDriverPool.Browser.OWN_CHROME)) {
+            first = lease.driver();
+            sessions.broken.add(first); // e.g. the tab was closed during the crawl
+        }
+        try (WebDriverPool.Lease lease = pool.lease(WebDriverPool.Browser.OWN_CHROME)) {
+            assertNotSame(first, lease.driver());
+        }
+        assertTrue(sessions.closed.contains(first));
+        assertEquals(2, sessions.opened.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent leases should never open more sessions than the cap")
+    void testSessionCap() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        WebDriverPool pool = new WebDriverPool(sessions, 2, 2);
+        AtomicInteger leased = new AtomicInteger();
+        AtomicInteger maxLeased = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                futures.add(executor.submit(() -> {
+                    try (WebDriverPool.Lease lease = pool.lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+                        maxLeased.accumulateAndGet(leased.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        leased.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        }
+        assertEquals(2, maxLeased.get());
+        assertEquals(2, sessions.opened.get(), "30 leases should share the 2 sessions");
+    }
+
+    @Test
+    @DisplayName("Shutdown should close idle sessions, and leased ones when they come back")
+    void testShutdown() throws InterruptedException {
+        FakeSessions sessions = new FakeSessions();
+        WebDriverPool pool = new WebDriverPool(sessions, 3, 2);
+
+        WebDriverPool.Lease busy = pool.lease(WebDriverPool.Browser.DEBUG_CHROME);
+        WebDriver idle;
+        try (WebDriverPool.Lease lease = pool.lease(WebDriverPool.Browser.DEBUG_CHROME)) {
+            idle = lease.driver();
+        }
+
+        pool.shutdown();
+        assertTrue(sessions.closed.contains(idle));
+        assertFalse(sessions.closed.contains(busy.driver()));
+
+        busy.close();
+        assertTrue(sessions.closed.contains(busy.driver()));
+        assertEquals(0, sessions.open.get());
+        assertThrows(IllegalStateException.class, () -> pool.lease(WebDriverPool.Browser.DEBUG_CHROME));
+    }
+}
@@ -0,0 +1,116 @@
+package com.oop.logistics.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DatabaseManager Connection Pool Tests")
+class TestConnectionPool {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("pool_test.db"));
+        DatabaseManager.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.resetDatabaseUrl();
+    }
+
+    @Test
+    @DisplayName("Database should be switched to WAL journal mode")
+    void testWalModeEnabled() throws SQLException {
+        try (Connection conn = DatabaseManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+            assertTrue(rs.next());
+            assertEquals("wal", rs.getString(1).toLowerCase());
+        }
+    }
+
+    @Test
+    @DisplayName("Readers should not be blocked by an open write transaction")
+    void testReadWhileWriting() throws SQLException {
+        DataRepository repo = new DataRepository();
+        int disasterId = repo.getOrCreateDisaster("Typhoon Yagi");
+        repo.saveNews(disasterId, "https://vnexpress.net/a", "A", "Committed article", "07/09/2024", "News");
+
+        try (Connection writer = DatabaseManager.getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement stmt = writer.createStatement()) {
+                stmt.execute("INSERT INTO news(disaster_id, url, content, source_type) VALUES(" + disasterId + ", 'https://vnexpress.net/b', 'Pending article', 'News')");
+            }
+
+            // Runs on a reader connection while the writer still holds its transaction
+            DataRepository.AnalysisData data = repo.getAnalysisData("Typhoon Yagi", "News");
+            assertEquals(1, data.texts.size(), "Only the committed row should be visible");
+            writer.commit();
+        }
+
+        assertEquals(2, repo.getAnalysisData("Typhoon Yagi", "News").texts.size());
+    }
+
+    @Test
+    @DisplayName("Reader connections should refuse writes")
+    void testReaderIsQueryOnly() throws SQLException {
+        try (Connection conn = DatabaseManager.getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            assertThrows(SQLException.class, () -> stmt.execute("DELETE FROM news"));
+        }
+    }
+
+    @Test
+    @DisplayName("Closing a leased connection should return it to the pool, rolling back open work")
+    void testCloseReturnsConnectionToPool() throws SQLException {
+        Connection first = DatabaseManager.getConnection();
+        first.setAutoCommit(false);
+        try (Statement stmt = first.createStatement()) {
+            stmt.execute("INSERT INTO disasters(name) VALUES('Abandoned')");
+        }
+        first.close();
+        assertTrue(first.isClosed());
+
+        // The single writer must be available again, and the abandoned insert gone
+        try (Connection second = DatabaseManager.getConnection();
+             Statement stmt = second.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM disasters WHERE name = 'Abandoned'")) {
+            assertTrue(second.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    @DisplayName("A second writer should wait up to the writer lease timeout, readers should not wait at all")
+    void testWriterLeaseTimeout() throws SQLException {
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + tempDir.resolve("timeout.db"), 1, Duration.ofMillis(200));
+        try (Connection held = pool.leaseWriter()) {
+            long start = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, pool::leaseWriter);
+            long waitedMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(waitedMs >= 150, "Gave up after " + waitedMs + " ms");
+            assertTrue(e.getMessage().contains("writer"));
+
+            try (Connection reader = pool.leaseReader()) {
+                assertFalse(reader.isClosed());
+            }
+        } finally {
+            pool.close();
+        }
+    }
+}
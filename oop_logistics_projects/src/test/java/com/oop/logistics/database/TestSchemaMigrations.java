@@ -0,0 +1,212 @@
+package com.oop.logistics.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.oop.logistics.crawler.SocialResult;
+import com.oop.logistics.models.AnalysisRecord;
+import com.oop.logistics.models.TextCorpus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SchemaMigrations Tests")
+class TestSchemaMigrations {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.resetDatabaseUrl();
+    }
+
+    private void useFreshDatabase() {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("fresh.db"));
+        DatabaseManager.initializeDatabase();
+    }
+
+    private List<String> queryPlan(String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql.replace("?", "'x'"))) {
+            while (rs.next()) steps.add(rs.getString("detail"));
+        }
+        return steps;
+    }
+
+    @Test
+    @DisplayName("Fresh database should be migrated to the latest version")
+    void testFreshDatabaseReachesLatestVersion() throws SQLException {
+        useFreshDatabase();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.currentVersion(conn));
+            assertTrue(SchemaMigrations.migrate(conn).isEmpty(), "Running again should apply nothing");
+        }
+    }
+
+    @Test
+    @DisplayName("Pre-versioning database should be upgraded in place without losing rows")
+    void testLegacyDatabaseUpgrade() throws SQLException {
+        String url = "jdbc:sqlite:" + tempDir.resolve("legacy.db");
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE disasters (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT UNIQUE NOT NULL, date_searched DATETIME DEFAULT CURRENT_TIMESTAMP)");
+            stmt.execute("CREATE TABLE news (id INTEGER PRIMARY KEY AUTOINCREMENT, disaster_id INTEGER, url TEXT UNIQUE, title TEXT, content TEXT, published_date TEXT, source_type TEXT)");
+            stmt.execute("CREATE TABLE comments (id INTEGER PRIMARY KEY AUTOINCREMENT, news_id INTEGER, content TEXT, author TEXT, published_date TEXT)");
+            stmt.execute("INSERT INTO disasters(name) VALUES('Typhoon Yagi')");
+            stmt.execute("INSERT INTO news(disaster_id, url, content, published_date, source_type) VALUES(1, 'legacy_news_1', 'Bão Yagi', '07/09/2024', 'News')");
+        }
+
+        DatabaseManager.setDatabaseUrl(url);
+        DatabaseManager.initializeDatabase();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.currentVersion(conn));
+
+            ResultSet rs = stmt.executeQuery("SELECT content, published_day FROM news WHERE url = 'legacy_news_1'");
+            assertTrue(rs.next(), "Existing rows must survive the upgrade");
+            assertEquals("Bão Yagi", rs.getString("content"));
+            assertEquals(19973, rs.getInt("published_day"), "07/09/2024 should be backfilled as an epoch day");
+        }
+    }
+
+    @Test
+    @DisplayName("published_day should follow inserts and date updates")
+    void testPublishedDayTriggers() throws SQLException {
+        useFreshDatabase();
+        DataRepository repo = new DataRepository();
+        int disasterId = repo.getOrCreateDisaster("Typhoon Yagi");
+        int newsId = repo.saveNews(disasterId, "https://vnexpress.net/a", "A", "Text", "02/01/1970", "News");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT published_day FROM news WHERE id = " + newsId);
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+
+            stmt.executeUpdate("UPDATE news SET published_date = 'Unknown' WHERE id = " + newsId);
+            rs = stmt.executeQuery("SELECT published_day FROM news WHERE id = " + newsId);
+            assertTrue(rs.next());
+            assertNull(rs.getObject(1), "Unparseable dates should have no epoch day");
+        }
+    }
+
+    @Test
+    @DisplayName("Repository inserts should set published_day themselves, without the trigger's second UPDATE")
+    void testInsertsDoNotNeedTheTrigger() throws SQLException {
+        useFreshDatabase();
+        DataRepository repo = new DataRepository();
+        int disasterId = repo.getOrCreateDisaster("Typhoon Yagi");
+        int newsId = repo.saveNews(disasterId, "https://facebook.com/post/1", "Post", "Post", "07/09/2024", "Facebook");
+
+        // total_changes() counts trigger writes too; the pool has one writer, so it is the same connection each time
+        long before = totalChanges();
+        repo.saveCommentsBatch(newsId, List.of(new SocialResult("Facebook", "A", "Cầu nguyện", 0, "07/09/2024")));
+        assertEquals(1, totalChanges() - before, "Only the INSERT itself should write");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT published_day FROM comments WHERE news_id = " + newsId);
+            assertTrue(rs.next());
+            assertEquals(19973, rs.getInt(1));
+
+            // Other writers still get published_day from the fallback trigger
+            before = totalChanges(stmt);
+            stmt.execute("INSERT INTO comments(news_id, content, published_date) VALUES(" + newsId + ", 'Manual', '08/09/2024')");
+            assertEquals(2, totalChanges(stmt) - before);
+            rs = stmt.executeQuery("SELECT published_day FROM comments WHERE content = 'Manual'");
+            assertTrue(rs.next());
+            assertEquals(19974, rs.getInt(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Analysis stream should read published_day and fall back to the text for impossible dates")
+    void testAnalysisStreamReadsPublishedDay() throws SQLException {
+        useFreshDatabase();
+        DataRepository repo = new DataRepository();
+        int disasterId = repo.getOrCreateDisaster("Typhoon Yagi");
+        repo.saveNews(disasterId, "https://vnexpress.net/a", "A", "Article A", "07/09/2024", "News");
+        // SQLite would roll 31/02 over into March; like TextCorpus.parseDay it must stay undated
+        repo.saveNews(disasterId, "https://vnexpress.net/b", "B", "Article B", "31/02/2024", "News");
+
+        List<AnalysisRecord> records;
+        try (Stream<AnalysisRecord> stream = repo.streamAnalysisData("Typhoon Yagi", "News")) {
+            records = stream.sorted(Comparator.comparing(r -> r.text)).toList();
+        }
+        assertEquals(TextCorpus.parseDay("07/09/2024"), records.get(0).day);
+        assertEquals(TextCorpus.NO_DATE, records.get(1).day);
+        assertEquals("31/02/2024", records.get(1).date);
+    }
+
+    private static long totalChanges() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            return totalChanges(stmt);
+        }
+    }
+
+    private static long totalChanges(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT total_changes()")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    @DisplayName("News analysis query should use the disaster/source index instead of scanning")
+    void testNewsAnalysisQueryUsesIndex() throws SQLException {
+        useFreshDatabase();
+        List<String> plan = queryPlan(DataRepository.NEWS_ANALYSIS_SQL);
+
+        assertTrue(plan.stream().anyMatch(step -> step.contains("idx_news_disaster_day")), "Plan was: " + plan);
+        assertTrue(plan.stream().noneMatch(step -> step.startsWith("SCAN")), "Plan was: " + plan);
+    }
+
+    @Test
+    @DisplayName("Comment analysis join should use indexes on both news and comments")
+    void testCommentAnalysisQueryUsesIndexes() throws SQLException {
+        useFreshDatabase();
+        List<String> plan = queryPlan(DataRepository.COMMENT_ANALYSIS_SQL);
+
+        assertTrue(plan.stream().anyMatch(step -> step.contains("COVERING INDEX idx_news_disaster_day")), "Plan was: " + plan);
+        // Either news_id index will do (without ANALYZE stats SQLite may take the content hash one)
+        assertTrue(plan.stream().anyMatch(step -> step.startsWith("SEARCH c USING") && step.contains("INDEX idx_comments_news_")), "Plan was: " + plan);
+        assertTrue(plan.stream().noneMatch(step -> step.startsWith("SCAN")), "Plan was: " + plan);
+    }
+
+    @Test
+    @DisplayName("Re-crawled comments and articles should be dropped by the content hash index")
+    void testDuplicateContentIsSkipped() {
+        useFreshDatabase();
+        DataRepository repo = new DataRepository();
+        int disasterId = repo.getOrCreateDisaster("Typhoon Yagi");
+        int postId = repo.saveNews(disasterId, "https://facebook.com/post/1", "Post", "Facebook Post", "07/09/2024", "Facebook");
+
+        List<SocialResult> comments = List.of(
+                new SocialResult("Facebook", "A", "Cầu nguyện cho miền Bắc!!!", 0, "07/09/2024"),
+                new SocialResult("Facebook", "B", "cầu nguyện cho   miền bắc", 0, "07/09/2024"),
+                new SocialResult("Facebook", "C", "Ủng hộ bà con", 0, "07/09/2024"));
+        assertEquals(2, repo.saveCommentsBatch(postId, comments), "Punctuation/case variants count as one comment");
+        assertEquals(0, repo.saveCommentsBatch(postId, comments), "Re-crawl should insert nothing");
+
+        int first = repo.saveNews(disasterId, "https://vnexpress.net/a", "A", "Bão Yagi đổ bộ", "07/09/2024", "News");
+        int mirror = repo.saveNews(disasterId, "https://dantri.com.vn/a", "A", "Bão Yagi đổ bộ.", "07/09/2024", "News");
+        assertEquals(first, mirror, "Same article under another url should resolve to the stored one");
+    }
+}
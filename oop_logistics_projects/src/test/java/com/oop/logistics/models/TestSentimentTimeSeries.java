@@ -0,0 +1,91 @@
+package com.oop.logistics.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SentimentTimeSeries Tests")
+class TestSentimentTimeSeries {
+
+    @Test
+    @DisplayName("Should count per day and sort chronologically, not alphabetically")
+    void testCountsSortedByDay() {
+        SentimentTimeSeries.Builder builder = new SentimentTimeSeries.Builder();
+        builder.add("10/09/2024", null, "positive");
+        builder.add("09/10/2024", null, "negative");
+        builder.add("7/9/2024", null, "neutral");
+        builder.add("2024-09-07", null, "positive");
+        builder.add(null, null, "positive");
+        builder.add("10/09/2024", null, "unknown");
+
+        SentimentTimeSeries series = builder.build();
+
+        assertEquals(3, series.size());
+        assertEquals("07/09/2024", series.date(0), "Both spellings of 7 Sep should share one point");
+        assertEquals(1, series.count(0, SentimentTimeSeries.POSITIVE));
+        assertEquals(1, series.count(0, SentimentTimeSeries.NEUTRAL));
+        assertEquals("10/09/2024", series.date(1));
+        assertEquals("09/10/2024", series.date(2));
+        assertTrue(series.epochDay(1) < series.epochDay(2));
+        assertNull(series.category(0));
+    }
+
+    @Test
+    @DisplayName("Should keep categories apart and unrecognised dates first")
+    void testCategoriesAndUnparsedDates() {
+        SentimentTimeSeries.Builder builder = new SentimentTimeSeries.Builder();
+        builder.add("07/09/2024", "Food", "positive");
+        builder.add("07/09/2024", "Shelter", "negative");
+        builder.add("07/09/2024", "Food", "positive");
+        builder.add("Unknown", "Food", "neutral");
+
+        SentimentTimeSeries series = builder.build();
+
+        assertEquals(3, series.size());
+        assertEquals("Unknown", series.date(0));
+        assertEquals(TextCorpus.NO_DATE, series.epochDay(0));
+        assertEquals("Food", series.category(1));
+        assertEquals(2, series.count(1, SentimentTimeSeries.POSITIVE));
+        assertEquals("Shelter", series.category(2));
+        assertEquals(1, series.count(2, SentimentTimeSeries.NEGATIVE));
+    }
+
+    @Test
+    @DisplayName("Epoch-day and date-text counts of the same day should share one point")
+    void testEpochDayAdd() {
+        SentimentTimeSeries.Builder builder = new SentimentTimeSeries.Builder();
+        int sep7 = TextCorpus.parseDay("07/09/2024");
+        builder.add(sep7 + 1, null, SentimentTimeSeries.NEGATIVE, 2);
+        builder.add("07/09/2024", null, "positive");
+        builder.add(sep7, null, SentimentTimeSeries.POSITIVE, 3);
+        builder.add(TextCorpus.NO_DATE, null, SentimentTimeSeries.POSITIVE, 1);
+
+        SentimentTimeSeries series = builder.build();
+
+        assertEquals(2, series.size());
+        assertEquals(sep7, series.epochDay(0));
+        assertEquals(4, series.count(0, SentimentTimeSeries.POSITIVE));
+        assertEquals("08/09/2024", series.date(1));
+        assertEquals(2, series.count(1, SentimentTimeSeries.NEGATIVE));
+    }
+
+    @Test
+    @DisplayName("Map adapter should round-trip the old List<Map> shape")
+    void testMapRoundTrip() {
+        SentimentTimeSeries.Builder builder = new SentimentTimeSeries.Builder();
+        builder.add("08/09/2024", "Medical", "negative");
+        builder.add("07/09/2024", "Medical", "positive");
+
+        List<Map<String, Object>> maps = builder.build().toMaps();
+
+        assertEquals(Map.of("date", "07/09/2024", "category", "Medical", "positive", 1.0, "negative", 0.0, "neutral", 0.0), maps.get(0));
+        assertEquals(1.0, maps.get(1).get("negative"));
+
+        SentimentTimeSeries back = SentimentTimeSeries.fromMaps(maps);
+        assertEquals(maps, back.toMaps());
+    }
+}
@@ -0,0 +1,111 @@
+package com.oop.logistics.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TextCorpus Tests")
+class TestTextCorpus {
+
+    @Test
+    @DisplayName("Should round-trip Vietnamese text, dates and sources")
+    void testAddAndRead() {
+        TextCorpus corpus = new TextCorpus(2);
+        corpus.add("Bão Yagi gây ngập ở Hà Nội 😱", "07/09/2024", "Facebook");
+        corpus.add("", null, "Facebook");
+        corpus.add("Cứu trợ đã tới Lào Cai", "8/9/2024", "News");
+
+        assertEquals(3, corpus.size());
+        assertEquals("Bão Yagi gây ngập ở Hà Nội 😱", corpus.getText(0));
+        assertEquals("", corpus.getText(1));
+        assertEquals("07/09/2024", corpus.getDate(0));
+        assertNull(corpus.getDate(1));
+        assertEquals("08/09/2024", corpus.getDate(2), "Dates should come back zero-padded");
+        assertEquals("Facebook", corpus.getSource(1));
+        assertEquals("News", corpus.getSource(2));
+    }
+
+    @Test
+    @DisplayName("Dates that are not dd/MM/yyyy should be kept verbatim")
+    void testUnparsedDatesPreserved() {
+        TextCorpus corpus = new TextCorpus();
+        corpus.add("text", "Unknown", null);
+        corpus.add("text", "2024-09-07", null);
+
+        assertEquals("Unknown", corpus.getDate(0));
+        assertEquals("2024-09-07", corpus.getDate(1));
+        assertEquals(TextCorpus.NO_DATE, corpus.getEpochDay(0));
+    }
+
+    @Test
+    @DisplayName("Analysis records should carry the epoch day, and date text only when unparsed")
+    void testRecordStream() {
+        TextCorpus corpus = new TextCorpus();
+        corpus.add("a", "07/09/2024", null);
+        corpus.add("b", "Unknown", null);
+        corpus.add("c", null, null);
+
+        List<AnalysisRecord> records = AnalysisRecord.stream(corpus).toList();
+
+        assertEquals(TextCorpus.parseDay("07/09/2024"), records.get(0).day);
+        assertNull(records.get(0).date);
+        assertEquals("07/09/2024", records.get(0).dateText());
+        assertEquals(TextCorpus.NO_DATE, records.get(1).day);
+        assertEquals("Unknown", records.get(1).dateText());
+        assertNull(records.get(2).dateText());
+    }
+
+    @Test
+    @DisplayName("List views should be read-only and match the columns")
+    void testReadOnlyViews() {
+        TextCorpus corpus = TextCorpus.of(List.of("một", "hai"), List.of("01/01/2024"), "YouTube");
+
+        List<String> texts = corpus.texts();
+        List<String> dates = corpus.dates();
+        assertEquals(List.of("một", "hai"), texts);
+        assertEquals("01/01/2024", dates.get(0));
+        assertNull(dates.get(1), "Missing dates should read as null");
+        assertThrows(UnsupportedOperationException.class, () -> texts.add("ba"));
+        assertThrows(UnsupportedOperationException.class, texts::clear);
+    }
+
+    @Test
+    @DisplayName("Should keep growing past its initial capacity")
+    void testGrowth() {
+        TextCorpus corpus = new TextCorpus(1);
+        for (int i = 0; i < 10_000; i++) {
+            corpus.add("bình luận số " + i, "01/01/2024", "TikTok");
+        }
+        corpus.trimToSize();
+
+        assertEquals(10_000, corpus.size());
+        assertEquals("bình luận số 9999", corpus.getText(9999));
+        assertEquals(corpus.getEpochDay(0), corpus.getEpochDay(9999));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should convert between dd/MM/yyyy and epoch days")
+    @CsvSource({
+        "'01/01/1970', 0",
+        "'02/01/1970', 1",
+        "'07/09/2024', 19973",
+        "'7/9/2024', 19973"
+    })
+    void testParseDay(String date, int expectedDay) {
+        assertEquals(expectedDay, TextCorpus.parseDay(date));
+    }
+
+    @Test
+    @DisplayName("Invalid dates should map to NO_DATE")
+    void testParseInvalidDay() {
+        assertEquals(TextCorpus.NO_DATE, TextCorpus.parseDay("31/02/2024"));
+        assertEquals(TextCorpus.NO_DATE, TextCorpus.parseDay("Unknown"));
+        assertEquals(TextCorpus.NO_DATE, TextCorpus.parseDay(null));
+        assertEquals("07/09/2024", TextCorpus.formatDay(19973));
+    }
+}
@@ -0,0 +1,86 @@
+package com.oop.logistics.preprocessing;
+
+import com.oop.logistics.config.KeywordManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Manual micro-benchmark: automaton-based LocationExtractor vs the old contains() loop.
+ * Not a test (surefire only picks up Test*); run its main() from the IDE or with
+ * `mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.oop.logistics.preprocessing.LocationExtractorBenchmark`.
+ * Warm-up rounds first so both sides are JIT-compiled, then the best of the measured rounds.
+ */
+public class LocationExtractorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        List<String> texts = loadTexts();
+        KeywordManager manager = new KeywordManager();
+        manager.loadFromJson(KeywordManager.resolveConfigPath("location_keywords.json"));
+        List<String> locations = new ArrayList<>(manager.getKeywords("province"));
+        locations.addAll(manager.getKeywords("city"));
+
+        System.out.println(texts.size() + " texts, " + locations.size() + " locations");
+        double legacy = measure("contains() per location", texts, text -> legacyExtract(text, locations));
+        double automaton = measure("Aho-Corasick", texts, LocationExtractor::extractAllLocations);
+        System.out.printf("Speed-up: %.1fx%n", legacy / automaton);
+    }
+
+    private interface Extractor {
+        List<String> extract(String text);
+    }
+
+    private static double measure(String name, List<String> texts, Extractor extractor) {
+        long best = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String text : texts) sink += extractor.extract(text).size();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) best = Math.min(best, elapsed);
+        }
+        double nsPerText = (double) best / texts.size();
+        System.out.printf("%-26s %10.0f ns/text   (%d matches)%n", name, nsPerText, sink / (WARMUP_ROUNDS + MEASURED_ROUNDS));
+        return nsPerText;
+    }
+
+    /** The previous implementation, kept here as the baseline. */
+    private static List<String> legacyExtract(String text, List<String> locations) {
+        Set<String> unique = new HashSet<>();
+        if (text == null || text.isEmpty()) return new ArrayList<>();
+        String lowerText = text.toLowerCase();
+        for (String location : locations) {
+            if (lowerText.contains(location.toLowerCase())) unique.add(location);
+        }
+        return new ArrayList<>(unique);
+    }
+
+    /** Lines of the Yagi comment/news CSVs (project root) when present, synthetic texts otherwise. */
+    private static List<String> loadTexts() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (String name : List.of("YagiComments.csv", "YagiNews.csv")) {
+            for (Path dir : List.of(Path.of(""), Path.of(".."))) {
+                Path csv = dir.resolve(name);
+                if (Files.exists(csv)) {
+                    texts.addAll(Files.readAllLines(csv, StandardCharsets.UTF_8));
+                    break;
+                }
+            }
+        }
+        if (texts.isEmpty()) {
+            for (int i = 0; i < 5_000; i++) {
+                texts.add("Bão số " + i + " gây mưa lớn tại Hà Nội, Lào Cai và Yên Bái, nhiều nơi ở Thái Nguyên bị ngập sâu");
+            }
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,54 @@
+package com.oop.logistics.preprocessing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChunkedCsvProcessor Tests")
+class TestChunkedCsvProcessor {
+
+    @Test
+    @DisplayName("Should only cut after a line break outside quotes")
+    void testQuoteAwareBoundaries(@TempDir Path tempDir) throws Exception {
+        String csv = "a,\"x\ny\"\"\nz\"\nb,c\n";
+        Path file = tempDir.resolve("b.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long first = ChunkedCsvProcessor.nextBoundary(in, 0, 0, size);
+            assertEquals(csv.indexOf("b,c"), first, "The line breaks inside the quoted field are not boundaries");
+            assertEquals(size, ChunkedCsvProcessor.nextBoundary(in, first, first, size));
+            assertEquals(size, ChunkedCsvProcessor.nextBoundary(in, 0, first, size));
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel processing should write exactly what the sequential pass writes")
+    void testParallelMatchesSequential(@TempDir Path tempDir) throws Exception {
+        // A few chunks worth of records, with quoted multi-line fields crossing chunk-sized offsets
+        StringBuilder csv = new StringBuilder("date,author,content\r\n");
+        for (int i = 0; csv.length() < 3 * ChunkedCsvProcessor.CHUNK_BYTES; i++) {
+            csv.append("07/09/2024,user").append(i).append(",\"Bão Yagi 😱 và \"\"lũ\"\" ở Hà Nội\nsố ").append(i).append("\"\n");
+            if (i % 7 == 0) csv.append("08/09/2024,plain,Mất điện cả đêm, và ngập\n");
+        }
+        Path input = tempDir.resolve("in.csv");
+        Files.writeString(input, csv, StandardCharsets.UTF_8);
+
+        Path sequential = tempDir.resolve("seq.csv");
+        Path parallel = tempDir.resolve("par.csv");
+        ProcessCSV.processFile(input.toString(), sequential.toString(), 1);
+        ProcessCSV.processFile(input.toString(), parallel.toString(), 3);
+
+        assertArrayEquals(Files.readAllBytes(sequential), Files.readAllBytes(parallel));
+        assertTrue(Files.readString(sequential).startsWith("date,author,content" + System.lineSeparator()));
+    }
+}
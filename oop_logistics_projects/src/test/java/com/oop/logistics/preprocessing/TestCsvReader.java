@@ -0,0 +1,98 @@
+package com.oop.logistics.preprocessing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CsvReader / CsvWriter Tests")
+class TestCsvReader {
+
+    @Test
+    @DisplayName("Should read quoted fields with commas, escaped quotes and line breaks")
+    void testQuotedFields() throws Exception {
+        String csv = "date,text\r\n07/09/2024,\"Bão \"\"Yagi\"\", mưa to\r\nngập lụt\"\n\n08/09/2024,plain";
+
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            assertTrue(reader.next());
+            assertEquals(List.of("date", "text"), reader.fields());
+
+            assertTrue(reader.next());
+            assertEquals("Bão \"Yagi\", mưa to\nngập lụt", reader.get(1), "CRLF inside quotes comes back as \\n");
+
+            assertTrue(reader.next());
+            assertEquals(List.of(""), reader.fields(), "A blank line is a record with one empty field");
+
+            assertTrue(reader.next());
+            assertEquals(List.of("08/09/2024", "plain"), reader.fields());
+            assertEquals(4, reader.recordNumber());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only materialize selected columns and keep the raw record on request")
+    void testSelectColumnsAndRaw() throws Exception {
+        String csv = "a,\"b,1\",c\nx,\"y\"\"\",z\n";
+
+        try (CsvReader reader = new CsvReader(new StringReader(csv)).selectColumns(1).keepRaw(true)) {
+            assertTrue(reader.next());
+            assertEquals(3, reader.size());
+            assertNull(reader.get(0));
+            assertEquals("b,1", reader.get(1));
+            assertEquals("a,\"b,1\",c", reader.raw());
+
+            assertTrue(reader.next());
+            assertEquals("y\"", reader.get(1));
+            assertEquals("x,\"y\"\"\",z", reader.raw());
+        }
+    }
+
+    @Test
+    @DisplayName("Writer output should read back to the same records")
+    void testWriterRoundTrip(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("out.csv");
+        List<String> tricky = Arrays.asList("07/09/2024", "Mưa \"to\", gió lớn\nở Hà Nội", null, "plain");
+
+        try (CsvWriter writer = CsvWriter.open(file)) {
+            writer.writeRecord("date", "text", "extra", "note");
+            writer.writeRecord(tricky);
+        }
+        try (CsvWriter writer = CsvWriter.open(tempDir.resolve("quoted.csv")).quoteAll(true)) {
+            writer.writeRecord("a", "b");
+        }
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            assertTrue(reader.next());
+            assertTrue(reader.next());
+            assertEquals(Arrays.asList("07/09/2024", "Mưa \"to\", gió lớn\nở Hà Nội", "", "plain"), reader.fields());
+            assertFalse(reader.next());
+        }
+        assertEquals("\"a\",\"b\"" + System.lineSeparator(), Files.readString(tempDir.resolve("quoted.csv")));
+    }
+
+    @Test
+    @DisplayName("DateExtract should only touch the date field of the selected rows")
+    void testFillDateRangeKeepsRowBytes(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("dates.csv");
+        String nl = System.lineSeparator();
+        Files.writeString(file, "Date,Text,Source" + nl
+                + "\"01/01/2024\",\"Mưa to\nở Hà Nội\",\"VnExpress\"" + nl
+                + "Unknown,plain,Tuoi Tre" + nl
+                + "Unknown,\"a, b\",x" + nl);
+
+        DateExtract.fillDateRange(file.toString(), file.toString(), 1, 2, "07/09/2024");
+
+        assertEquals("Date,Text,Source" + nl
+                + "\"07/09/2024\",\"Mưa to\nở Hà Nội\",\"VnExpress\"" + nl
+                + "07/09/2024,plain,Tuoi Tre" + nl
+                + "Unknown,\"a, b\",x" + nl, Files.readString(file));
+    }
+}
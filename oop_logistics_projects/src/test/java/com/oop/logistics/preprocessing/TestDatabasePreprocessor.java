@@ -1,14 +1,22 @@
 package com.oop.logistics.preprocessing;
 
+import com.oop.logistics.crawler.SocialResult;
+import com.oop.logistics.database.DataRepository;
 import com.oop.logistics.database.DatabaseManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -23,12 +31,16 @@ class TestDatabasePreprocessor {
         PreparedStatement mockSelectStmt = mock(PreparedStatement.class);
         PreparedStatement mockUpdateStmt = mock(PreparedStatement.class);
         PreparedStatement mockDeleteStmt = mock(PreparedStatement.class);
+        PreparedStatement mockLocationStmt = mock(PreparedStatement.class);
+        PreparedStatement mockBandStmt = mock(PreparedStatement.class);
         ResultSet mockRs = mock(ResultSet.class);
 
         // Define Connection behavior
         when(mockConn.prepareStatement(contains("SELECT"))).thenReturn(mockSelectStmt);
         when(mockConn.prepareStatement(contains("UPDATE"))).thenReturn(mockUpdateStmt);
         when(mockConn.prepareStatement(contains("DELETE"))).thenReturn(mockDeleteStmt);
+        when(mockConn.prepareStatement(contains("text_locations"))).thenReturn(mockLocationStmt);
+        when(mockConn.prepareStatement(contains("near_duplicate_bands"))).thenReturn(mockBandStmt);
         
         // Simulate a ResultSet with 2 rows: one original, one duplicate text
         when(mockSelectStmt.executeQuery()).thenReturn(mockRs);
@@ -41,6 +53,7 @@ class TestDatabasePreprocessor {
         // 2. Act
         try (MockedStatic<DatabaseManager> mockedDb = mockStatic(DatabaseManager.class)) {
             mockedDb.when(DatabaseManager::getConnection).thenReturn(mockConn);
+            mockedDb.when(DatabaseManager::getReadConnection).thenReturn(mockConn);
 
             DatabasePreprocessor.preprocessDisasterData("Yagi", "News");
 
@@ -56,4 +69,76 @@ class TestDatabasePreprocessor {
             verify(mockDeleteStmt, times(1)).executeBatch();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep the first copy of each text across chunks and report progress")
+    void testPreprocessAcrossChunks(@TempDir Path tempDir) throws Exception {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("preprocess.db"));
+        try {
+            DatabaseManager.initializeDatabase();
+            DataRepository repo = new DataRepository();
+            int disasterId = repo.getOrCreateDisaster("Yagi");
+            int postId = repo.saveNews(disasterId, "https://facebook.com/post/1", "Post", "Facebook Post", "07/09/2024", "Facebook");
+
+            // The extra rows differ only by a stop word, so they survive insert-time dedup but not cleanText
+            int unique = DatabasePreprocessor.CHUNK_SIZE + 500;
+            List<SocialResult> comments = new ArrayList<>();
+            for (int i = 0; i < unique; i++) comments.add(new SocialResult("Facebook", "U", "Bình luận số " + i, 0, "2024-09-07T15:23:00Z"));
+            for (int i = 0; i < 100; i++) comments.add(new SocialResult("Facebook", "U", "Bình luận số " + i + " và", 0, "2024-09-08T15:23:00Z"));
+            repo.saveCommentsBatch(postId, comments);
+
+            List<Double> progress = new ArrayList<>();
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook", progress::add);
+
+            try (Connection conn = DatabaseManager.getReadConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MIN(published_date), MAX(published_date) FROM comments")) {
+                assertTrue(rs.next());
+                assertEquals(unique, rs.getInt(1));
+                assertEquals("07/09/2024", rs.getString(2), "Duplicates must be the later rows");
+                assertEquals("07/09/2024", rs.getString(3));
+            }
+            assertEquals(2, progress.size(), "One progress update per chunk");
+            assertEquals(1.0, progress.get(progress.size() - 1), 1e-9);
+        } finally {
+            DatabaseManager.resetDatabaseUrl();
+        }
+    }
+
+    @Test
+    @DisplayName("Repeated runs should only touch rows inserted since the last run")
+    void testIncrementalRuns(@TempDir Path tempDir) throws Exception {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("incremental.db"));
+        try {
+            DatabaseManager.initializeDatabase();
+            DataRepository repo = new DataRepository();
+            int disasterId = repo.getOrCreateDisaster("Yagi");
+            int postId = repo.saveNews(disasterId, "https://facebook.com/post/1", "Post", "Facebook Post", "07/09/2024", "Facebook");
+            repo.saveCommentsBatch(postId, List.of(
+                    new SocialResult("Facebook", "A", "Cây đổ ở Hà Nội", 0, "2024-09-07T15:23:00Z"),
+                    new SocialResult("Facebook", "B", "Mất điện cả đêm", 0, "2024-09-07T16:00:00Z")));
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook");
+
+            List<Double> progress = new ArrayList<>();
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook", progress::add);
+            assertTrue(progress.isEmpty(), "Nothing new, so no chunk should be processed");
+
+            // One new comment, and one that only matches an old comment after cleaning
+            repo.saveCommentsBatch(postId, List.of(
+                    new SocialResult("Facebook", "C", "Nước lên nhanh", 0, "2024-09-08T08:00:00Z"),
+                    new SocialResult("Facebook", "D", "Cây đổ ở Hà Nội và", 0, "2024-09-08T09:00:00Z")));
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook", progress::add);
+            assertEquals(List.of(1.0), progress);
+
+            try (Connection conn = DatabaseManager.getReadConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT author FROM comments ORDER BY id")) {
+                List<String> authors = new ArrayList<>();
+                while (rs.next()) authors.add(rs.getString(1));
+                assertEquals(List.of("A", "B", "C"), authors, "The late duplicate of an already cleaned comment should be removed");
+            }
+        } finally {
+            DatabaseManager.resetDatabaseUrl();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.oop.logistics.preprocessing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("KeywordAutomaton Tests")
+class TestKeywordAutomaton {
+
+    @Test
+    @DisplayName("Should report overlapping and nested keywords with their spans")
+    void testOverlappingMatches() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "she", "his", "hers"));
+        List<String> matches = new ArrayList<>();
+        automaton.findAll("ushers", (k, start, end) -> matches.add(k + "@" + start + "-" + end));
+
+        assertEquals(List.of("1@1-4", "0@2-4", "3@2-6"), matches);
+    }
+
+    @Test
+    @DisplayName("Should agree with String.contains on Vietnamese keywords")
+    void testMatchesContains() {
+        List<String> keywords = List.of("mất điện", "điện", "mất sóng", "cầu", "sạt lở", "lở");
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+
+        for (String text : List.of("mất điện và mất sóng ở lào cai", "cầu mong bình an", "sạt lở đất", "không có gì", "")) {
+            boolean[] present = new boolean[keywords.size()];
+            automaton.markPresent(text, present);
+            for (int k = 0; k < keywords.size(); k++) {
+                assertEquals(text.contains(keywords.get(k)), present[k], "'" + keywords.get(k) + "' in '" + text + "'");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Duplicate keywords should be reported under their first index")
+    void testDuplicateKeywords() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("bão", "lũ", "bão"));
+        boolean[] present = new boolean[3];
+        automaton.markPresent("bão lớn", present);
+
+        assertTrue(present[0]);
+        assertFalse(present[1]);
+        assertFalse(present[2]);
+    }
+}
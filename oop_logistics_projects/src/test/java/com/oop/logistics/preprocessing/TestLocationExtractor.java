@@ -44,4 +44,27 @@ class TestLocationExtractor {
         assertEquals(1, locations.size(), "Should only contain one entry for Da Nang");
         assertEquals("Đà Nẵng", locations.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should only match whole words")
+    void testWordBoundaries() {
+        List<String> locations = LocationExtractor.extractAllLocations("Dự án đà nẵngxyz và xhà nội không phải địa danh.");
+
+        assertTrue(locations.isEmpty(), "Location names inside longer words should not match");
+    }
+
+    @Test
+    @DisplayName("Should match unaccented text when diacritic folding is on")
+    void testFoldDiacritics() {
+        String text = "Nuoc lu dang cao o Ha Noi va Da Nang";
+        assertTrue(LocationExtractor.extractAllLocations(text).isEmpty());
+
+        LocationExtractor.setFoldDiacritics(true);
+        try {
+            List<String> locations = LocationExtractor.extractAllLocations(text);
+            assertEquals(List.of("Hà Nội", "Đà Nẵng"), locations);
+        } finally {
+            LocationExtractor.setFoldDiacritics(false);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.oop.logistics.preprocessing;
+
+import com.oop.logistics.crawler.SocialResult;
+import com.oop.logistics.database.DataRepository;
+import com.oop.logistics.database.DatabaseManager;
+import com.oop.logistics.models.TextCorpus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LocationIndex Tests")
+class TestLocationIndex {
+
+    @BeforeAll
+    static void setUp() {
+        // Same as TestLocationExtractor: do not depend on the external JSON file
+        LocationExtractor.addProvince("Hà Nội");
+        LocationExtractor.addProvince("Hải Phòng");
+    }
+
+    @Test
+    @DisplayName("Should count texts per location in memory, most mentioned first")
+    void testTopLocationsInMemory() {
+        TextCorpus corpus = TextCorpus.of(List.of(
+                "Ngập ở Hà Nội, Hà Nội mưa to",
+                "Hải Phòng và hà nội mất điện",
+                "Cây đổ ở Hải Phòng",
+                "Hà Nội sạt lở"), null, "CSV");
+
+        List<Map.Entry<String, Integer>> top = LocationIndex.topLocations(corpus, 10);
+
+        assertEquals(Map.entry("Hà Nội", 3), top.get(0), "A text mentioning a place twice counts once");
+        assertEquals(Map.entry("Hải Phòng", 2), top.get(1));
+        assertEquals(1, LocationIndex.topLocations(corpus, 1).size());
+    }
+
+    @Test
+    @DisplayName("Preprocessed rows should be indexed once, new rows caught up incrementally")
+    void testPersistedIndex(@TempDir Path tempDir) throws Exception {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("locations.db"));
+        try {
+            DatabaseManager.initializeDatabase();
+            DataRepository repo = new DataRepository();
+            int disasterId = repo.getOrCreateDisaster("Yagi");
+            int postId = repo.saveNews(disasterId, "https://facebook.com/post/1", "Post", "Facebook Post", "07/09/2024", "Facebook");
+            repo.saveCommentsBatch(postId, List.of(
+                    new SocialResult("Facebook", "A", "Cây đổ ở Hà Nội", 0, "2024-09-07T15:23:00Z"),
+                    new SocialResult("Facebook", "B", "Ngập ở Hà Nội và Hải Phòng", 0, "2024-09-07T16:00:00Z")));
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook");
+
+            assertEquals(0, LocationIndex.update("Yagi", "Facebook", null), "The preprocessor already indexed these rows");
+            assertEquals(Map.entry("Hà Nội", 2), LocationIndex.topLocations("Yagi", "Facebook", 10).get(0));
+
+            repo.saveCommentsBatch(postId, List.of(
+                    new SocialResult("Facebook", "C", "Hải Phòng mưa to", 0, "2024-09-08T08:00:00Z"),
+                    new SocialResult("Facebook", "D", "Hải Phòng mất điện", 0, "2024-09-08T09:00:00Z")));
+            assertEquals(2, LocationIndex.update("Yagi", "Facebook", null), "Only the new rows should be read");
+
+            List<Map.Entry<String, Integer>> top = LocationIndex.topLocations("Yagi", "Facebook", 10);
+            assertEquals(List.of(Map.entry("Hải Phòng", 3), Map.entry("Hà Nội", 2)), top);
+        } finally {
+            DatabaseManager.resetDatabaseUrl();
+        }
+    }
+}
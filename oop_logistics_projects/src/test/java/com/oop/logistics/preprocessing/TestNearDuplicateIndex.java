@@ -0,0 +1,98 @@
+package com.oop.logistics.preprocessing;
+
+import com.oop.logistics.crawler.SocialResult;
+import com.oop.logistics.database.DataRepository;
+import com.oop.logistics.database.DatabaseManager;
+import com.oop.logistics.models.AnalysisRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NearDuplicateIndex Tests")
+class TestNearDuplicateIndex {
+
+    private static final String PRAYER = "cầu mong bà con miền bắc bình an vượt qua cơn bão yagi mọi người cố lên nhé";
+    private static final String OTHER = "mất điện cả đêm ở quảng ninh nước lên rất nhanh mọi người cẩn thận";
+
+    @Test
+    @DisplayName("Texts with one changed word should share an LSH band, unrelated texts should not")
+    void testBands() {
+        long[] original = NearDuplicateIndex.bands(PRAYER);
+        long[] changed = NearDuplicateIndex.bands(PRAYER.replace("nhé", "nha"));
+        long[] other = NearDuplicateIndex.bands(OTHER);
+
+        assertEquals(NearDuplicateIndex.BANDS, original.length);
+        assertTrue(shared(original, changed) > 0);
+        assertEquals(0, shared(original, other));
+        assertArrayEquals(original, NearDuplicateIndex.bands(PRAYER), "Keys are persisted, they must be deterministic");
+        assertNull(NearDuplicateIndex.bands("cầu mong bình an"), "Short texts are left to exact de-duplication");
+    }
+
+    @Test
+    @DisplayName("Similarity should be the Jaccard index of the 3-gram sets")
+    void testSimilarity() {
+        assertEquals(1.0, NearDuplicateIndex.similarity(PRAYER, PRAYER), 1e-9);
+        assertEquals(1 / 3.0, NearDuplicateIndex.similarity("abcd", "bcde"), 1e-9); // {abc,bcd} vs {bcd,cde}
+        assertTrue(NearDuplicateIndex.similarity(PRAYER, PRAYER.replace("nhé", "nha")) >= NearDuplicateIndex.THRESHOLD);
+        assertTrue(NearDuplicateIndex.similarity(PRAYER, OTHER) < NearDuplicateIndex.THRESHOLD);
+    }
+
+    @Test
+    @DisplayName("Preprocessing should group near-duplicates and the analysis stream should weight them")
+    void testClustersAreWeighted(@TempDir Path tempDir) throws Exception {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("clusters.db"));
+        try {
+            DatabaseManager.initializeDatabase();
+            DataRepository repo = new DataRepository();
+            int disasterId = repo.getOrCreateDisaster("Yagi");
+            int postId = repo.saveNews(disasterId, "https://facebook.com/post/1", "Post", "Facebook Post", "07/09/2024", "Facebook");
+            String prayer = "Cầu mong bà con miền Bắc bình an vượt qua cơn bão Yagi, mọi người cố lên nhé";
+            repo.saveCommentsBatch(postId, List.of(
+                    new SocialResult("Facebook", "A", prayer, 0, "2024-09-07T10:00:00Z"),
+                    new SocialResult("Facebook", "B", prayer.replace("nhé", "nha"), 0, "2024-09-07T11:00:00Z"),
+                    new SocialResult("Facebook", "C", "Mất điện cả đêm ở Quảng Ninh, nước lên rất nhanh, mọi người cẩn thận", 0, "2024-09-08T09:00:00Z")));
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook");
+
+            // A later run should still find the representative through the stored band keys
+            repo.saveCommentsBatch(postId, List.of(
+                    new SocialResult("Facebook", "D", prayer + " 🙏 thương lắm", 0, "2024-09-08T10:00:00Z")));
+            DatabasePreprocessor.preprocessDisasterData("Yagi", "Facebook");
+
+            List<String> clusters = new ArrayList<>();
+            try (Connection conn = DatabaseManager.getReadConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT c.author, r.author FROM comments c LEFT JOIN comments r ON r.id = c.duplicate_of ORDER BY c.id")) {
+                while (rs.next()) clusters.add(rs.getString(1) + "->" + rs.getString(2));
+            }
+            assertEquals(List.of("A->null", "B->A", "C->null", "D->A"), clusters, "Near-duplicates are kept and point at the first text");
+
+            List<String> records;
+            try (Stream<AnalysisRecord> stream = repo.streamAnalysisData("Yagi", "Facebook")) {
+                // Days come straight from published_day, the date text is not needed
+                records = stream.peek(r -> assertNull(r.date)).map(r -> r.dateText() + " x" + r.weight).sorted().collect(Collectors.toList());
+            }
+            assertEquals(List.of("07/09/2024 x2", "08/09/2024 x1", "08/09/2024 x1"), records, "One record per cluster and date");
+            assertEquals(3, repo.countAnalysisData("Yagi", "Facebook"));
+            assertEquals(4, repo.getAnalysisData("Yagi", "Facebook").texts.size(), "List callers still get one entry per row");
+        } finally {
+            DatabaseManager.resetDatabaseUrl();
+        }
+    }
+
+    private static int shared(long[] a, long[] b) {
+        int shared = 0;
+        for (int i = 0; i < a.length; i++) if (a[i] == b[i]) shared++;
+        return shared;
+    }
+}
@@ -45,4 +45,18 @@ class TestProcessCSV {
         assertTrue(result.contains("Bão Yagi"), "Meaningful keywords should be kept");
         assertTrue(result.contains("thiên nhiên"), "Meaningful keywords should be kept");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should treat emojis as spaces and drop words without letters or digits")
+    void testCleanTextWordRules() {
+        assertEquals("Mưa to !!!x", ProcessCSV.cleanText("Mưa😱to ... !!!x"));
+        assertEquals("", ProcessCSV.cleanText("😱 ... \t\n --"));
+        assertEquals("Hà\u00A0Nội", ProcessCSV.cleanText("Hà\u00A0Nội"), "Only a plain space separates words");
+    }
+
+    @Test
+    @DisplayName("Should match stop words case-insensitively but keep kept words as written")
+    void testCleanTextStopWordCase() {
+        assertEquals("Bão Yagi, Hà Nội", ProcessCSV.cleanText("VÀ Bão Yagi, Và Hà Nội (và)"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.oop.logistics.search;
+
+import com.oop.logistics.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DateResolver Tests")
+class TestDateResolver {
+
+    private static final LocalDate YAGI = LocalDate.of(2024, 9, 7);
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("dates.db"));
+        DatabaseManager.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.resetDatabaseUrl();
+    }
+
+    @Test
+    @DisplayName("A page should be downloaded once, however often and however many searches find it")
+    void testSharedAndPersistentLookup() throws Exception {
+        AtomicInteger downloads = new AtomicInteger();
+        CountDownLatch pageAnswers = new CountDownLatch(1);
+        DateResolver resolver = new DateResolver(4, 100, url -> {
+            downloads.incrementAndGet();
+            try { pageAnswers.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            return YAGI;
+        });
+
+        CompletableFuture<LocalDate> first = resolver.resolve("https://vnexpress.net/bao-yagi.html");
+        CompletableFuture<LocalDate> second = resolver.resolve("https://vnexpress.net/bao-yagi.html");
+        assertFalse(first.isDone(), "resolve() must not wait for the page");
+        pageAnswers.countDown();
+        assertEquals(YAGI, first.get());
+        assertEquals(YAGI, second.get());
+
+        // A new resolver (e.g. the next run) reads it from url_dates
+        DateResolver later = new DateResolver(4, 100, url -> { downloads.incrementAndGet(); return null; });
+        assertEquals(YAGI, later.resolve("https://vnexpress.net/bao-yagi.html").get());
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    @DisplayName("A page without a date should not be downloaded again right away")
+    void testUndatedPageIsCached() throws Exception {
+        AtomicInteger downloads = new AtomicInteger();
+        DateResolver resolver = new DateResolver(4, 100, url -> { downloads.incrementAndGet(); return null; });
+
+        assertNull(resolver.resolve("https://tuoitre.vn/yagi.htm").get());
+        assertNull(resolver.resolve("https://tuoitre.vn/yagi.htm").get());
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    @DisplayName("Downloads should be capped overall and paced per site")
+    void testPoliteness() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        DateResolver resolver = new DateResolver(2, 20, url -> { // one page per site every 50 ms
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try { Thread.sleep(20); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            running.decrementAndGet();
+            return YAGI;
+        });
+
+        List<CompletableFuture<LocalDate>> sameSite = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) sameSite.add(resolver.resolve("https://vnexpress.net/" + i));
+        CompletableFuture.allOf(sameSite.toArray(new CompletableFuture<?>[0])).get();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs >= 190, "5 pages of one site at 20/s took only " + elapsedMs + " ms");
+
+        List<CompletableFuture<LocalDate>> manySites = new ArrayList<>();
+        for (int i = 0; i < 10; i++) manySites.add(resolver.resolve("https://site" + i + ".vn/a"));
+        CompletableFuture.allOf(manySites.toArray(new CompletableFuture<?>[0])).get();
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("A failing page should resolve to no date instead of failing")
+    void testFailureIsNoDate() throws Exception {
+        DateResolver resolver = new DateResolver(4, 100, url -> { throw new IllegalStateException("timeout"); });
+        assertNull(resolver.resolve("https://vnexpress.net/x").get());
+    }
+}
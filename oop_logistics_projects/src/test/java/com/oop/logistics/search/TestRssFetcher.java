@@ -0,0 +1,110 @@
+package com.oop.logistics.search;
+
+import com.oop.logistics.database.DatabaseManager;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RssFetcher Tests")
+class TestRssFetcher {
+
+    private static final String FEED = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<rss version=\"2.0\"><channel><title>Bão Yagi</title><link>https://news.google.com</link>" +
+            "<item><title>A</title><link>https://vnexpress.net/bao-yagi-1.html</link><pubDate>Sat, 07 Sep 2024 10:00:00 GMT</pubDate></item>" +
+            "<item><title>B</title><link>https://tuoitre.vn/yagi?a=1&amp;b=2</link></item>" +
+            "</channel></rss>";
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicReference<String> sentEtag = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("rss.db"));
+        DatabaseManager.initializeDatabase();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feed", exchange -> {
+            sentEtag.set(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            if ("\"v1\"".equals(sentEtag.get())) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(FEED.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, gzipped.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(gzipped.toByteArray());
+            }
+        });
+        server.createContext("/throttled", exchange -> {
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+        server.createContext("/captcha", exchange -> {
+            byte[] html = "<html><body>Unusual traffic</body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, html.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(html);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        DatabaseManager.resetDatabaseUrl();
+    }
+
+    @Test
+    @DisplayName("Items should be streamed out of a feed")
+    void testParse() throws IOException {
+        List<RssFetcher.Item> items = RssFetcher.parse(new ByteArrayInputStream(FEED.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, items.size(), "The channel link is not an item");
+        assertEquals(new RssFetcher.Item("https://vnexpress.net/bao-yagi-1.html", "Sat, 07 Sep 2024 10:00:00 GMT"), items.get(0));
+        assertEquals(new RssFetcher.Item("https://tuoitre.vn/yagi?a=1&b=2", ""), items.get(1));
+    }
+
+    @Test
+    @DisplayName("A gzip feed should be fetched, then revalidated with its ETag")
+    void testConditionalGet() throws Exception {
+        List<RssFetcher.Item> first = RssFetcher.fetch(baseUrl + "/feed");
+        assertEquals(2, first.size());
+        assertNull(sentEtag.get());
+
+        List<RssFetcher.Item> second = RssFetcher.fetch(baseUrl + "/feed");
+        assertEquals("\"v1\"", sentEtag.get(), "The stored ETag should be sent back");
+        assertEquals(first, second, "A 304 should reuse the stored items");
+    }
+
+    @Test
+    @DisplayName("Refused requests and captcha pages should be reported as blocked")
+    void testBlocked() {
+        assertThrows(RssFetcher.BlockedException.class, () -> RssFetcher.fetch(baseUrl + "/throttled"));
+        assertThrows(RssFetcher.BlockedException.class, () -> RssFetcher.fetch(baseUrl + "/captcha"));
+    }
+}
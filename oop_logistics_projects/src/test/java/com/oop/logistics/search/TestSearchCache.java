@@ -0,0 +1,116 @@
+package com.oop.logistics.search;
+
+import com.oop.logistics.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchCache Tests")
+class TestSearchCache {
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        DatabaseManager.setDatabaseUrl("jdbc:sqlite:" + tempDir.resolve("search_cache.db"));
+        DatabaseManager.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.resetDatabaseUrl();
+    }
+
+    private static Map<String, UrlWithDate> results(String... urls) {
+        Map<String, UrlWithDate> results = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            results.put(urls[i], new UrlWithDate(urls[i], i % 2 == 0 ? LocalDate.of(2024, 9, 7 + i) : null));
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Cached results should come back in order, with their dates")
+    void testRoundTrip() {
+        SearchCache cache = new SearchCache(Duration.ofHours(1), 100);
+        Map<String, UrlWithDate> stored = results("https://vnexpress.net/b", "https://vnexpress.net/a", "https://vnexpress.net/c");
+        cache.put("Bing RSS", "vnexpress.net", "Yagi", stored);
+
+        Map<String, UrlWithDate> cached = cache.get("Bing RSS", "vnexpress.net", "Yagi");
+        assertEquals(new ArrayList<>(stored.keySet()), new ArrayList<>(cached.keySet()));
+        stored.forEach((url, found) -> assertEquals(found.getDate(), cached.get(url).getDate()));
+
+        assertNull(cache.get("Google News RSS", "vnexpress.net", "Yagi"), "Engines are cached separately");
+        assertNull(cache.get("Bing RSS", "vnexpress.net", "Bão Yagi"));
+    }
+
+    @Test
+    @DisplayName("Expired entries and empty results should be misses")
+    void testTtlAndEmptyResults() throws InterruptedException {
+        SearchCache cache = new SearchCache(Duration.ofMillis(50), 100);
+        cache.put("Bing RSS", "vnexpress.net", "Yagi", results("https://vnexpress.net/a"));
+        cache.put("DuckDuckGo", "vnexpress.net", "Yagi", results());
+        assertNotNull(cache.get("Bing RSS", "vnexpress.net", "Yagi"));
+        assertNull(cache.get("DuckDuckGo", "vnexpress.net", "Yagi"), "A blocked call must be retried next time");
+
+        Thread.sleep(80);
+        assertNull(cache.get("Bing RSS", "vnexpress.net", "Yagi"));
+    }
+
+    @Test
+    @DisplayName("Past the size limit the least recently used entry should be evicted")
+    void testLruEviction() throws InterruptedException {
+        SearchCache cache = new SearchCache(Duration.ofHours(1), 2);
+        cache.put("Bing RSS", "vnexpress.net", "a", results("https://vnexpress.net/a"));
+        Thread.sleep(5);
+        cache.put("Bing RSS", "vnexpress.net", "b", results("https://vnexpress.net/b"));
+        Thread.sleep(5);
+        assertNotNull(cache.get("Bing RSS", "vnexpress.net", "a"));
+        Thread.sleep(5);
+        cache.put("Bing RSS", "vnexpress.net", "c", results("https://vnexpress.net/c"));
+
+        assertNotNull(cache.get("Bing RSS", "vnexpress.net", "a"));
+        assertNull(cache.get("Bing RSS", "vnexpress.net", "b"));
+        assertNotNull(cache.get("Bing RSS", "vnexpress.net", "c"));
+    }
+
+    @Test
+    @DisplayName("A repeated search should not call any engine")
+    void testRepeatedSearchSkipsEngines() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        SearchStrategy engine = (domain, keyword, results) -> {
+            calls.incrementAndGet();
+            String url = "https://" + domain + "/" + keyword.replace(' ', '-');
+            results.put(url, new UrlWithDate(url, LocalDate.of(2024, 9, 7)));
+        };
+        // Slow limiters: a repeat that went through them would take seconds
+        List<SearchScheduler.Engine> engines = List.of(
+                new SearchScheduler.Engine("one", engine, new RateLimiter(1, 1)),
+                new SearchScheduler.Engine("two", engine, new RateLimiter(1, 1)));
+        SearchScheduler scheduler = new SearchScheduler(engines, new SearchCache(Duration.ofHours(1), 100));
+        List<String> domains = List.of("vnexpress.net", "tuoitre.vn");
+        List<String> queries = List.of("Yagi", "Bão Yagi");
+
+        Map<String, UrlWithDate> first = scheduler.run(domains, queries);
+        assertEquals(8, calls.get());
+
+        long start = System.nanoTime();
+        Map<String, UrlWithDate> second = scheduler.run(domains, queries);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(8, calls.get(), "Every search should have been answered from the cache");
+        assertEquals(new ArrayList<>(first.keySet()), new ArrayList<>(second.keySet()));
+        assertTrue(elapsedMs < 900, "Cached search took " + elapsedMs + " ms");
+    }
+}
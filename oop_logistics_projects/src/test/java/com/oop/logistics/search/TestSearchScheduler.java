@@ -0,0 +1,144 @@
+package com.oop.logistics.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchScheduler Tests")
+class TestSearchScheduler {
+
+    private static final List<String> DOMAINS = List.of("vnexpress.net", "tuoitre.vn");
+    private static final List<String> QUERIES = List.of("Yagi", "Bão Yagi", "Yagi thiệt hại");
+
+    /** Fake engine: overlapping URLs (dated per engine) and a random delay, so finishing order varies. */
+    private static SearchStrategy engine(int id) {
+        return (domain, keyword, results) -> {
+            sleep((long) (Math.random() * 20));
+            for (int i = 0; i < 3; i++) {
+                String url = "https://" + domain + "/" + keyword.length() % 2 + "-" + (id + i) % 4;
+                results.putIfAbsent(url, new UrlWithDate(url, LocalDate.of(2024, 9, 1 + id)));
+            }
+        };
+    }
+
+    private static SearchScheduler.Engine fast(String name, SearchStrategy strategy) {
+        return new SearchScheduler.Engine(name, strategy, new RateLimiter(1000, 10));
+    }
+
+    @Test
+    @DisplayName("Concurrent search should return the same URLs, dates and order as the sequential loop")
+    void testSameResultAsSequential() throws InterruptedException {
+        List<SearchStrategy> strategies = List.of(engine(0), engine(1), engine(2), engine(3));
+
+        Map<String, UrlWithDate> sequential = new LinkedHashMap<>();
+        for (String domain : DOMAINS)
+            for (String query : QUERIES)
+                for (SearchStrategy strategy : strategies) strategy.search(domain, query, sequential);
+
+        List<SearchScheduler.Engine> engines = new ArrayList<>();
+        for (int i = 0; i < strategies.size(); i++) engines.add(fast("engine" + i, strategies.get(i)));
+        Map<String, UrlWithDate> concurrent = new SearchScheduler(engines).run(DOMAINS, QUERIES);
+
+        assertEquals(new ArrayList<>(sequential.keySet()), new ArrayList<>(concurrent.keySet()));
+        sequential.forEach((url, found) -> assertEquals(found.getDate(), concurrent.get(url).getDate(), url));
+    }
+
+    @Test
+    @DisplayName("Engines should run side by side")
+    void testEnginesRunConcurrently() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<SearchScheduler.Engine> engines = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            engines.add(fast("engine" + i, (domain, keyword, results) -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(50);
+                running.decrementAndGet();
+            }));
+        }
+
+        long start = System.nanoTime();
+        new SearchScheduler(engines).run(List.of("vnexpress.net"), QUERIES);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(4, maxRunning.get());
+        assertTrue(elapsedMs < 12 * 50, "Took " + elapsedMs + " ms, as long as running every call in turn");
+    }
+
+    @Test
+    @DisplayName("Rate limiter should allow the burst at once, then pace requests")
+    void testRateLimiter() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20, 2); // one token every 50 ms
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        limiter.acquire();
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 40, "The burst should not wait");
+
+        for (int i = 0; i < 4; i++) limiter.acquire();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs >= 190, "4 paced requests at 20/s took only " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("A failing engine should not stop the others or its own remaining queries")
+    void testFailingEngine() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        SearchStrategy failing = (domain, keyword, results) -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("captcha");
+        };
+        Map<String, UrlWithDate> result = new SearchScheduler(List.of(fast("failing", failing), fast("ok", engine(0))))
+                .run(DOMAINS, QUERIES);
+
+        assertEquals(DOMAINS.size() * QUERIES.size(), calls.get());
+        assertFalse(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Pending dates should be awaited after the search and filtered like inline ones")
+    void testPendingDates() throws InterruptedException {
+        CompletableFuture<LocalDate> inRange = new CompletableFuture<>();
+        CompletableFuture<LocalDate> tooOld = new CompletableFuture<>();
+        AtomicInteger searchesDone = new AtomicInteger();
+        SearchStrategy slowPages = (domain, keyword, results) -> {
+            results.put("https://vnexpress.net/a", UrlWithDate.pending("https://vnexpress.net/a", inRange));
+            results.put("https://vnexpress.net/b", UrlWithDate.pending("https://vnexpress.net/b", tooOld));
+            searchesDone.incrementAndGet();
+        };
+        SearchStrategy feed = (domain, keyword, results) ->
+                results.put("https://vnexpress.net/b", new UrlWithDate("https://vnexpress.net/b", LocalDate.of(2024, 9, 8)));
+
+        AtomicInteger doneBeforePages = new AtomicInteger(-1);
+        Thread pages = Thread.ofVirtual().start(() -> {
+            sleep(150);
+            doneBeforePages.set(searchesDone.get());
+            inRange.complete(LocalDate.of(2024, 9, 7));
+            tooOld.complete(LocalDate.of(1999, 1, 1));
+        });
+        Map<String, UrlWithDate> result = new SearchScheduler(List.of(fast("pages", slowPages), fast("feed", feed)))
+                .run(List.of("vnexpress.net"), List.of("Yagi"));
+        pages.join();
+
+        assertEquals(1, doneBeforePages.get(), "The search should not have waited for the pages");
+
+        assertEquals(List.of("https://vnexpress.net/a", "https://vnexpress.net/b"), new ArrayList<>(result.keySet()));
+        assertEquals(LocalDate.of(2024, 9, 7), result.get("https://vnexpress.net/a").getDate());
+        assertEquals(LocalDate.of(2024, 9, 8), result.get("https://vnexpress.net/b").getDate(),
+                "An out-of-range page date should give way to the next engine's result, as before");
+    }
+
+    private static void sleep(long millis) {
+        try { Thread.sleep(millis); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+}
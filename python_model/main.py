@@ -2,6 +2,8 @@ from fastapi import FastAPI, Request
 from fastapi.responses import JSONResponse
 import uvicorn
 import logging
+import hashlib
+import os
 
 # Setup logging first
 from logging_config import logger
@@ -12,12 +14,15 @@ from models.schemas import (
     DamageRequest,
     ReliefSentimentRequest,
     SingleSentimentRequest,
-    IntentRequest
+    IntentRequest,
+    LabelRequest
 )
+from config import CONFIG_DIR
 
 # Import service logic
 from services.sentiment_service import (
     aggregate_by_date, 
+    predict_sentiment_batch, 
     predict_keyword, 
     predict_ai_batch, 
     predict_xgboost_batch, 
@@ -29,16 +34,58 @@ from services.damage_service import classify_damage_batch
 from services.relief_service import (
     aggregate_relief_sentiment,
     aggregate_relief_time_series,
+    label_relief_batch,
 )
-from services.intent_service import aggregate_intent_stats
+from services.intent_service import aggregate_intent_stats, label_intent_batch
 
 app = FastAPI(title="Humanitarian Logistics Analysis API")
 
+# Bump when a labelling change is not visible in the files fingerprinted below
+# (e.g. a new HF pipeline revision downloaded under the same name).
+LABELLING_REVISION = 1
+
+def compute_model_version() -> str:
+    """
+    Fingerprint of everything that can change a prediction: trained model artifacts
+    (name, size, mtime), the keyword config files (content), and the service code itself
+    (content of main.py, config.py and services/*.py: label mappings, truncation, routing,
+    pipeline names).
+    The Java client keys its persistent result cache (inference_cache) on it, so any of these
+    changes, or a LABELLING_REVISION bump, makes it label every text again.
+    """
+    digest = hashlib.sha256()
+    digest.update(f"revision:{LABELLING_REVISION}".encode())
+    base_dir = os.path.dirname(os.path.abspath(__file__))
+    models_dir = os.path.join(base_dir, "models")
+    for root, dirs, files in os.walk(models_dir):
+        dirs[:] = sorted(d for d in dirs if d != "__pycache__")
+        for name in sorted(files):
+            if name.endswith(".py") or name.endswith(".pyc"):
+                continue
+            stat = os.stat(os.path.join(root, name))
+            digest.update(f"{os.path.relpath(os.path.join(root, name), models_dir)}:{stat.st_size}:{int(stat.st_mtime)}".encode())
+    services_dir = os.path.join(base_dir, "services")
+    sources = ["main.py", "config.py"] + sorted(
+        os.path.join("services", name) for name in os.listdir(services_dir) if name.endswith(".py"))
+    for name in sources:
+        with open(os.path.join(base_dir, name), "rb") as f:
+            digest.update(name.encode())
+            digest.update(f.read())
+    if os.path.isdir(CONFIG_DIR):
+        for name in sorted(os.listdir(CONFIG_DIR)):
+            if name.endswith(".json"):
+                with open(os.path.join(CONFIG_DIR, name), "rb") as f:
+                    digest.update(name.encode())
+                    digest.update(f.read())
+    return digest.hexdigest()[:16]
+
+MODEL_VERSION = compute_model_version()
+
 # --- ROOT CHECK ---
 @app.get("/")
 def health_check():
     logger.info("Health check request received")
-    return {"status": "running", "message": "Python Analysis Backend is Active"}
+    return {"status": "running", "message": "Python Analysis Backend is Active", "model_version": MODEL_VERSION}
 
 # --- 1. SENTIMENT TIME SERIES ---
 # Java sends: /analyze/sentiment_timeseries
@@ -123,6 +170,43 @@ def analyze_intent(req: IntentRequest):
         logger.error(f"[Problem 5] Error during intent analysis: {e}", exc_info=True)
         return JSONResponse(status_code=500, content={"error": str(e)})
 
+# --- PER-TEXT LABELS (used by the Java result cache) ---
+@app.post("/labels/sentiment")
+def labels_sentiment(req: LabelRequest):
+    logger.info(f"[Labels] Sentiment (model_type={req.model_type}, texts_count={len(req.texts)})")
+    try:
+        return predict_sentiment_batch(req.texts, req.model_type)
+    except Exception as e:
+        logger.error(f"[Labels] Error during sentiment labelling: {e}", exc_info=True)
+        return JSONResponse(status_code=500, content={"error": str(e)})
+
+@app.post("/labels/relief_sentiment")
+def labels_relief_sentiment(req: LabelRequest):
+    logger.info(f"[Labels] Relief Sentiment (model_type={req.model_type}, texts_count={len(req.texts)})")
+    try:
+        return label_relief_batch(req.texts, req.model_type, time_series=False)
+    except Exception as e:
+        logger.error(f"[Labels] Error during relief labelling: {e}", exc_info=True)
+        return JSONResponse(status_code=500, content={"error": str(e)})
+
+@app.post("/labels/relief_timeseries")
+def labels_relief_timeseries(req: LabelRequest):
+    logger.info(f"[Labels] Relief Trend (model_type={req.model_type}, texts_count={len(req.texts)})")
+    try:
+        return label_relief_batch(req.texts, req.model_type, time_series=True)
+    except Exception as e:
+        logger.error(f"[Labels] Error during relief labelling: {e}", exc_info=True)
+        return JSONResponse(status_code=500, content={"error": str(e)})
+
+@app.post("/labels/intent")
+def labels_intent(req: LabelRequest):
+    logger.info(f"[Labels] Intent (model_type={req.model_type}, texts_count={len(req.texts)})")
+    try:
+        return label_intent_batch(req.texts, req.model_type)
+    except Exception as e:
+        logger.error(f"[Labels] Error during intent labelling: {e}", exc_info=True)
+        return JSONResponse(status_code=500, content={"error": str(e)})
+
 @app.post("/analyze/test_sentiment")
 def test_single_sentiment(req: SingleSentimentRequest):
     """Interactive testing endpoint for the Java UI."""
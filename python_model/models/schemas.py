@@ -36,6 +36,13 @@ class IntentRequest(BaseRequest):
     """
     pass
 
+class LabelRequest(BaseRequest):
+    """
+    Per-text labels (one result per input text, same order) so the Java client
+    can cache every text and aggregate locally. Inherits 'texts' and 'model_type'.
+    """
+    pass
+
 class SingleSentimentRequest(BaseModel):
     text: str = Field(..., description="A single text string to test")
     model_type: Literal["ai", "keyword", "xgboost", "svm", "mlp", "lstm"] = Field("ai", description="Analysis engine to use")
\ No newline at end of file
@@ -87,19 +87,24 @@ def _fallback_keyword_intent(texts: List[str]) -> List[str]:
             
     return results
 
+def label_intent_batch(texts: List[str], model_type: str = "ai") -> List[str]:
+    """Short per-text intent label: Request, Offer or News."""
+    labels = []
+    for p in classify_intent_batch(texts, model_type):
+        if "Request" in p: labels.append("Request")
+        elif "Offer" in p: labels.append("Offer")
+        else: labels.append("News")
+    return labels
+
 def aggregate_intent_stats(texts: List[str], model_type: str = "ai") -> Dict[str, int]:
     """Aggregates the counts for the API response"""
-    predictions = classify_intent_batch(texts, model_type)
-    
     stats = {
         "Request": 0,
         "Offer": 0,
         "News": 0
     }
     
-    for p in predictions:
-        if "Request" in p: stats["Request"] += 1
-        elif "Offer" in p: stats["Offer"] += 1
-        else: stats["News"] += 1
+    for label in label_intent_batch(texts, model_type):
+        stats[label] += 1
         
     return stats
\ No newline at end of file
@@ -126,6 +126,27 @@ def get_sentiments_batch(texts: List[str], model_type: str) -> List[str]:
         # Process in batch for AI
         return predict_ai_batch(texts)
 
+# Models whose relief categories come from keywords instead of the zero-shot AI.
+# Problem 4 never listed "cfa", so it keeps using the AI categories there.
+RELIEF_SENTIMENT_KEYWORD_MODELS = ["keyword", "xgboost", "svm", "mlp", "lstm", "cnn_lstm", "cfa"]
+RELIEF_TIMESERIES_KEYWORD_MODELS = ["keyword", "xgboost", "svm", "mlp", "lstm", "cnn_lstm"]
+
+def detect_relief_categories(texts: List[str], model_type: str, keyword_models: List[str]) -> List[List[str]]:
+    if model_type in keyword_models:
+        return [detect_relief_keyword(t) for t in texts]
+    logger.info("🧠 Running heavy AI for Category Detection (This may take a while...)")
+    return detect_relief_ai_batch(texts)
+
+def label_relief_batch(texts: List[str], model_type: str = "ai", time_series: bool = False) -> List[Dict]:
+    """
+    Per-text relief result: {"categories": [...], "sentiment": "..."}.
+    Lets the Java client cache each text and aggregate locally.
+    """
+    keyword_models = RELIEF_TIMESERIES_KEYWORD_MODELS if time_series else RELIEF_SENTIMENT_KEYWORD_MODELS
+    all_categories = detect_relief_categories(texts, model_type, keyword_models)
+    all_sentiments = get_sentiments_batch(texts, model_type)
+    return [{"categories": cats, "sentiment": senti} for cats, senti in zip(all_categories, all_sentiments)]
+
 # --- MAIN EXPORTED FUNCTIONS ---
 
 def aggregate_relief_sentiment(texts: List[str], model_type: str = "ai") -> Dict:
@@ -135,11 +156,7 @@ def aggregate_relief_sentiment(texts: List[str], model_type: str = "ai") -> Dict
     logger.info(f"🚀 [Problem 3] Starting analysis for {len(texts)} texts using [{model_type.upper()}] mode...")
     
     # 1. Get Categories (Batch)
-    if model_type in ["keyword", "xgboost", "svm", "mlp", "lstm", "cnn_lstm", "cfa"]:
-        all_categories = [detect_relief_keyword(t) for t in texts]
-    else:
-        logger.info("🧠 Running heavy AI for Category Detection (This may take a while...)")
-        all_categories = detect_relief_ai_batch(texts)
+    all_categories = detect_relief_categories(texts, model_type, RELIEF_SENTIMENT_KEYWORD_MODELS)
 
     # 2. Get Sentiments (Batch)
     logger.info(f"⚡ Running Sentiment Analysis using {model_type}...")
@@ -166,11 +183,7 @@ def aggregate_relief_time_series(texts: List[str], dates: List[str], model_type:
     logger.info(f"🚀 [Problem 4] Starting time-series analysis for {len(texts)} texts using [{model_type.upper()}] mode...")
 
     # 1. Get Categories (Batch)
-    if model_type in ["keyword", "xgboost", "svm", "mlp", "lstm", "cnn_lstm"]:
-        all_categories = [detect_relief_keyword(t) for t in texts]
-    else:
-        logger.info("🧠 Running heavy AI for Category Detection (This may take a while...)")
-        all_categories = detect_relief_ai_batch(texts)
+    all_categories = detect_relief_categories(texts, model_type, RELIEF_TIMESERIES_KEYWORD_MODELS)
 
     # 2. Get Sentiments (Batch)
     logger.info(f"⚡ Running Sentiment Analysis using {model_type}...")
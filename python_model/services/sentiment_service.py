@@ -345,11 +345,8 @@ def predict_cfa_ensemble(texts: List[str]) -> List[str]:
         final_predictions.append(mapping.get(winning_class, 'neutral'))
         
     return final_predictions
-def aggregate_by_date(texts: List[str], dates: List[str], model_type: str = "ai") -> List[Dict]:
-    stats = {}
-    
-    print(f"📊 Analyzing Sentiment using [{model_type.upper()}] model...")
-    
+def predict_sentiment_batch(texts: List[str], model_type: str = "ai") -> List[str]:
+    """One sentiment label per text, routed by model_type (used by aggregate_by_date and /labels/sentiment)."""
     # Route logic based on UI input (keyword, ai, xgboost)
     if model_type == "keyword":
         predictions = [predict_keyword(t) for t in texts]
@@ -367,6 +364,13 @@ def aggregate_by_date(texts: List[str], dates: List[str], model_type: str = "ai"
         predictions = predict_cfa_ensemble(texts)
     else:
         predictions = predict_ai_batch(texts) # Default to PhoBERT
+    return predictions
+
+def aggregate_by_date(texts: List[str], dates: List[str], model_type: str = "ai") -> List[Dict]:
+    stats = {}
+    
+    print(f"📊 Analyzing Sentiment using [{model_type.upper()}] model...")
+    predictions = predict_sentiment_batch(texts, model_type)
 
     for date, senti in zip(dates, predictions):
         if date not in stats: